@@ -0,0 +1,73 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de {@code ApiResponse<Set<Blueprint>>}, la respuesta de los listados,
+ * con el {@code ObjectMapper} que arma Spring ({@link Jackson2ObjectMapperBuilder}). Mide el
+ * cuerpo completo a {@code byte[]}, incluidos los {@code _links}. {@code format=compact} agrega
+ * {@link CompactPointsModule}, como el conversor de {@code application/vnd.blueprints.compact+json}.
+ * Ejecutar con: {@code -Djmh.args="ApiResponseSerialization -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    int blueprints;
+
+    @Param({"10", "1000"})
+    int points;
+
+    @Param({"standard", "compact"})
+    String format;
+
+    private ObjectWriter writer;
+    private ApiResponse<Set<Blueprint>> response;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        Set<Blueprint> data = new HashSet<>();
+        for (int b = 0; b < blueprints; b++) {
+            int[] xy = new int[2 * points];
+            for (int i = 0; i < xy.length; i++) xy[i] = rnd.nextInt(10_000);
+            data.add(Blueprint.ofCoordinates("author" + b % 10, "bp" + b, xy, points));
+        }
+        response = ApiResponse.ok(data).withLinks(Map.of(
+                "self", "http://localhost:8080/api/v1/blueprints",
+                "first", "http://localhost:8080/api/v1/blueprints?limit=50"));
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("compact")) builder.modulesToInstall(new CompactPointsModule());
+        writer = builder.build().writerFor(ApiResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,94 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transferencia de un plano grande en los tres formatos de la API: JSON estándar, JSON compacto
+ * ({@link CompactPointsModule}) y binario ({@link BinaryBlueprintCodec}). {@code encode} produce el
+ * cuerpo de {@code GET /blueprints/{author}/{name}}; {@code decode} lee un cuerpo de {@code POST}.
+ * Los puntos son un trazo de pasos cortos, como un dibujo a mano alzada.
+ * Al iniciar cada combinación imprime el tamaño del cuerpo ({@code # wire size}).
+ * Ejecutar con: {@code -Djmh.args="BinaryWire -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryWireBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int points;
+
+    @Param({"json", "compact", "binary"})
+    String format;
+
+    private ObjectMapper mapper;
+    private ApiResponse<Blueprint> response;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random rnd = new Random(42);
+        int[] xy = new int[2 * points];
+        int x = 5_000, y = 5_000;
+        for (int i = 0; i < xy.length; i += 2) {
+            x += rnd.nextInt(41) - 20;
+            y += rnd.nextInt(41) - 20;
+            xy[i] = x;
+            xy[i + 1] = y;
+        }
+        Blueprint bp = Blueprint.ofCoordinates("john", "walk", xy, points);
+        response = ApiResponse.ok(bp);
+
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("compact")) builder.modulesToInstall(new CompactPointsModule());
+        mapper = builder.build();
+
+        byte[] encoded = encode();
+        // Un Blueprint en JSON tiene la misma forma que NewBlueprintRequest, el cuerpo del POST.
+        body = format.equals("binary") ? encoded : mapper.writeValueAsBytes(bp);
+        System.out.printf("%n# wire size: format=%s points=%d response=%d bytes (%.2f bytes/point)%n",
+                format, points, encoded.length, (double) encoded.length / points);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!format.equals("binary")) return mapper.writeValueAsBytes(response);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBlueprintCodec.Writer writer = new BinaryBlueprintCodec.Writer(Channels.newChannel(out));
+        writer.writeBlueprint(response.getData());
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public NewBlueprintRequest decode() throws IOException {
+        if (!format.equals("binary")) return mapper.readValue(body, NewBlueprintRequest.class);
+        ByteBuffer buf = ByteBuffer.wrap(body);
+        BinaryBlueprintCodec.readHeader(buf);
+        return BinaryBlueprintCodec.readBlueprint(buf);
+    }
+}
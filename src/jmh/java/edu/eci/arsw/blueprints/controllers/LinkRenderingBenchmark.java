@@ -0,0 +1,87 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los controles hipermedia de {@code GET /api/v1/blueprints/{author}/{name}}: armar los
+ * {@code _links} y escribir la respuesta completa. {@code mapLinks} reproduce el código anterior
+ * ({@code ServletUriComponentsBuilder} + {@code LinkedHashMap} + {@code withLinks});
+ * {@code templateLinks} usa {@link LinkTemplates}. La salida va a un stream que descarta los bytes,
+ * así que la diferencia de memoria es solo la de los links.
+ * Ejecutar con: {@code -Djmh.args="LinkRendering -prof gc"} y comparar {@code gc.alloc.rate.norm}
+ * (bytes por operación).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkRenderingBenchmark {
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private ObjectMapper mapper;
+    private LinkTemplates links;
+    private Blueprint blueprint;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+        links = new LinkTemplates();
+        blueprint = new Blueprint("john", "house",
+                List.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/blueprints/john/house");
+        request.setServerPort(8080);
+        // Estado por hilo: cada hilo de medición registra su propia petición.
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void mapLinks() throws IOException {
+        String b = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/v1/blueprints").toUriString();
+        String author = blueprint.getAuthor();
+        String name = blueprint.getName();
+        Map<String, String> l = new LinkedHashMap<>();
+        l.put("self",              b + "/" + author + "/" + name);
+        l.put("add-point",         b + "/" + author + "/" + name + "/points");
+        l.put("author-blueprints", b + "/" + author);
+        l.put("all-blueprints",    b);
+        mapper.writeValue(sink, ApiResponse.ok(blueprint).withLinks(l));
+    }
+
+    @Benchmark
+    public void templateLinks() throws IOException {
+        mapper.writeValue(sink, ApiResponse.ok(blueprint, links.blueprint(blueprint.getAuthor(), blueprint.getName())));
+    }
+}
@@ -0,0 +1,111 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.impl.InMemoryBlueprintPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga concurrente sobre {@code GET /api/v1/blueprints/{author}/{name}} con hilos de plataforma
+ * (pool de Tomcat, 200 hilos) frente a hilos virtuales ({@code spring.threads.virtual.enabled}).
+ * La base de datos se sustituye por la persistencia en memoria con una espera fija de
+ * {@code dbLatencyMs} por lectura, que bloquea el hilo igual que una llamada JDBC.
+ * Con más clientes concurrentes que hilos en el pool, el modo {@code platform} encola peticiones
+ * y su cola de latencia (p99, p99.9 del modo SampleTime) crece; el modo {@code virtual} no.
+ * Ejecutar con: {@code -Djmh.args="ThreadModeLoad"}; la concurrencia se cambia con {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(800)
+@Fork(1)
+public class ThreadModeLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"20"})
+    long dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    /** Persistencia en memoria cuyas lecturas bloquean el hilo como lo haría una consulta. */
+    static class SlowPersistence extends InMemoryBlueprintPersistence {
+        private final long latencyMs;
+
+        SlowPersistence(long latencyMs) { this.latencyMs = latencyMs; }
+
+        private void block() {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+            block();
+            return super.getBlueprint(author, name);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlueprintsApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("slowPersistence",
+                        BlueprintPersistence.class, () -> new SlowPersistence(dbLatencyMs),
+                        bd -> bd.setPrimary(true)))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=200",
+                        "--server.tomcat.max-connections=10000",
+                        "--server.tomcat.accept-count=10000",
+                        "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/blueprints/john/house"))
+                .GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getBlueprint() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+        return response.body().length;
+    }
+}
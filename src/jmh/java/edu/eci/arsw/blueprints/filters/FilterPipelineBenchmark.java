@@ -0,0 +1,64 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadena redundancy→undersampling: pipeline fusionado de una pasada frente a aplicar
+ * los filtros uno tras otro (un Blueprint intermedio por etapa).
+ * Para ver la diferencia en asignación: {@code -Djmh.args="FilterPipeline -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterPipelineBenchmark {
+
+    @Param({"1000", "100000"})
+    int points;
+
+    private final RedundancyFilter redundancy = new RedundancyFilter();
+    private final UndersamplingFilter undersampling = new UndersamplingFilter();
+    private final FilterPipeline fused = new FilterPipeline(List.of(redundancy, undersampling));
+
+    private Blueprint blueprint;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        int[] xy = new int[2 * points];
+        for (int i = 0; i < points; i++) {
+            // ~25 % de duplicados consecutivos para que la etapa de redundancia trabaje
+            boolean dup = i > 0 && rnd.nextInt(4) == 0;
+            xy[2 * i]     = dup ? xy[2 * i - 2] : rnd.nextInt(10_000);
+            xy[2 * i + 1] = dup ? xy[2 * i - 1] : rnd.nextInt(10_000);
+        }
+        blueprint = Blueprint.ofCoordinates("bench", "bp", xy, points);
+    }
+
+    @Benchmark
+    public Blueprint sequential() {
+        return undersampling.apply(redundancy.apply(blueprint));
+    }
+
+    @Benchmark
+    public Blueprint fused() {
+        return fused.apply(blueprint);
+    }
+}
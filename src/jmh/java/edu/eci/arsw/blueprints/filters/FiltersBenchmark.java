@@ -0,0 +1,65 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de cada {@link BlueprintsFilter} por separado, de 10 a 10^6 puntos. La entrada es un
+ * recorrido aleatorio con ~25 % de duplicados consecutivos, así la redundancia y la simplificación
+ * tienen trabajo real. Línea base para detectar regresiones en los filtros.
+ * Ejecutar con: {@code -Djmh.args="FiltersBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltersBenchmark {
+
+    @Param({"identity", "redundancy", "undersampling", "simplify"})
+    String filter;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int points;
+
+    private BlueprintsFilter instance;
+    private Blueprint blueprint;
+
+    @Setup
+    public void setUp() {
+        instance = switch (filter) {
+            case "identity"      -> new IdentityFilter();
+            case "redundancy"    -> new RedundancyFilter();
+            case "undersampling" -> new UndersamplingFilter();
+            case "simplify"      -> new SimplificationFilter(4.0);
+            default -> throw new IllegalArgumentException(filter);
+        };
+        Random rnd = new Random(42);
+        int[] xy = new int[2 * points];
+        for (int i = 0; i < points; i++) {
+            boolean dup = i > 0 && rnd.nextInt(4) == 0;
+            xy[2 * i]     = dup ? xy[2 * i - 2] : (i > 0 ? xy[2 * i - 2] : 0) + rnd.nextInt(11) - 5;
+            xy[2 * i + 1] = dup ? xy[2 * i - 1] : (i > 0 ? xy[2 * i - 1] : 0) + rnd.nextInt(11) - 5;
+        }
+        blueprint = Blueprint.ofCoordinates("bench", "bp", xy, points);
+    }
+
+    @Benchmark
+    public Blueprint apply() {
+        return instance.apply(blueprint);
+    }
+}
@@ -0,0 +1,49 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code addPoint} de todos los hilos sobre un mismo plano de {@link InMemoryBlueprintPersistence}:
+ * mide el append bajo contención, a diferencia de {@link InMemoryPersistenceBenchmark}, que reparte
+ * los appends entre muchos planos. Para ver cómo escala, comparar con {@code -t 1}.
+ * Ejecutar con: {@code -Djmh.args="ContendedAppend"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ContendedAppendBenchmark {
+
+    private InMemoryBlueprintPersistence persistence;
+
+    /** Un almacén nuevo por iteración, para que el plano no crezca sin límite. */
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        persistence = InMemoryBlueprintPersistence.empty();
+        persistence.saveBlueprint(new Blueprint("bench", "shared", List.of()));
+    }
+
+    @Benchmark
+    public void addPoint() throws BlueprintNotFoundException {
+        persistence.addPoint("bench", "shared", 1, 1);
+    }
+}
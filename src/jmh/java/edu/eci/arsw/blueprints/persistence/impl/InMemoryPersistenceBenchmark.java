@@ -0,0 +1,97 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lecturas y escrituras concurrentes sobre {@link InMemoryBlueprintPersistence}: en cada grupo,
+ * 6 hilos leen (por clave y por autor) mientras 2 escriben (appends y altas). El puntaje de cada
+ * método es su throughput bajo la contención del resto del grupo. El almacén se recrea en cada
+ * iteración para que los appends no hagan crecer los planos sin límite.
+ * Ejecutar con: {@code -Djmh.args="InMemoryPersistence"}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryPersistenceBenchmark {
+
+    @Param({"10", "1000"})
+    int authors;
+
+    /** Planos por autor. */
+    static final int PER_AUTHOR = 10;
+
+    private InMemoryBlueprintPersistence persistence;
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        persistence = new InMemoryBlueprintPersistence();
+        int[] xy = new int[2 * 100];
+        for (int i = 0; i < xy.length; i++) xy[i] = i;
+        List<Blueprint> bps = new ArrayList<>(authors * PER_AUTHOR);
+        for (int a = 0; a < authors; a++) {
+            for (int b = 0; b < PER_AUTHOR; b++) bps.add(Blueprint.ofCoordinates("a" + a, "bp" + b, xy, 100));
+        }
+        persistence.saveBlueprints(bps);
+    }
+
+    private String author() { return "a" + ThreadLocalRandom.current().nextInt(authors); }
+    private String name()   { return "bp" + ThreadLocalRandom.current().nextInt(PER_AUTHOR); }
+
+    // ── Puntos calientes: lecturas por clave frente a appends ────────────────
+
+    @Benchmark
+    @Group("points")
+    @GroupThreads(6)
+    public Blueprint getBlueprint() throws BlueprintNotFoundException {
+        return persistence.getBlueprint(author(), name());
+    }
+
+    @Benchmark
+    @Group("points")
+    @GroupThreads(2)
+    public void addPoint() throws BlueprintNotFoundException {
+        persistence.addPoint(author(), name(), 1, 1);
+    }
+
+    // ── Catálogo: lecturas por autor frente a altas ──────────────────────────
+
+    @Benchmark
+    @Group("catalog")
+    @GroupThreads(6)
+    public int getBlueprintsByAuthor() throws BlueprintNotFoundException {
+        return persistence.getBlueprintsByAuthor(author()).size();
+    }
+
+    @Benchmark
+    @Group("catalog")
+    @GroupThreads(2)
+    public void saveBlueprint() throws BlueprintPersistenceException {
+        persistence.saveBlueprint(new Blueprint(author(), "new" + created.incrementAndGet(), List.of()));
+    }
+}
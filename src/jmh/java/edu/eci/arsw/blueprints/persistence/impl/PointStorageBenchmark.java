@@ -0,0 +1,94 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de lectura, alta y append de un plano según la forma de guardar los puntos en PostgreSQL:
+ * {@code rows} (una fila por punto en blueprint_points) frente a {@code packed} (bytea inline).
+ * Requiere una base accesible; la URL se toma de {@code BLUEPRINTS_TEST_DB_URL} (por defecto la
+ * local de application-postgres.properties). Los datos creados se borran al terminar.
+ * Ejecutar con: {@code -Djmh.args="PointStorage"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointStorageBenchmark {
+
+    @Param({"rows", "packed"})
+    String storage;
+
+    @Param({"100", "10000", "50000"})
+    int points;
+
+    private ConfigurableApplicationContext context;
+    private PostgresBlueprintPersistence persistence;
+    private final String author = "bench-" + UUID.randomUUID();
+    private int[] xy;
+    private int created;
+
+    @Setup
+    public void setUp() throws BlueprintPersistenceException {
+        String url = System.getenv().getOrDefault("BLUEPRINTS_TEST_DB_URL",
+                "jdbc:postgresql://localhost:5432/blueprintsdb");
+        // Como argumentos: tienen precedencia sobre application-postgres.properties.
+        context = new SpringApplicationBuilder(BlueprintsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("postgres")
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--blueprints.postgres.point-storage=" + storage);
+        persistence = context.getBean(PostgresBlueprintPersistence.class);
+        xy = new int[2 * points];
+        for (int i = 0; i < xy.length; i++) xy[i] = i * 31;
+        persistence.saveBlueprint(Blueprint.ofCoordinates(author, "read", xy, points));
+        persistence.saveBlueprint(Blueprint.ofCoordinates(author, "append", xy, points));
+    }
+
+    @TearDown
+    public void tearDown() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM blueprint_points WHERE blueprint_id IN (SELECT id FROM blueprints WHERE author = ?)", author);
+        jdbc.update("DELETE FROM blueprints WHERE author = ?", author);
+        context.close();
+    }
+
+    @Benchmark
+    public Blueprint read() throws BlueprintNotFoundException {
+        return persistence.getBlueprint(author, "read");
+    }
+
+    @Benchmark
+    public void write() throws BlueprintPersistenceException {
+        persistence.saveBlueprint(Blueprint.ofCoordinates(author, "write-" + created++, xy, points));
+    }
+
+    @Benchmark
+    public void append() throws BlueprintNotFoundException {
+        persistence.addPoint(author, "append", created, created++);
+    }
+}
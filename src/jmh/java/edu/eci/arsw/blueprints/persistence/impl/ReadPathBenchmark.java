@@ -0,0 +1,114 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.entity.BlueprintEntity;
+import edu.eci.arsw.blueprints.persistence.entity.PointEmbeddable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de los planos de un autor: lector JDBC ({@link JdbcBlueprintReader}, puntos agregados en
+ * el servidor) frente a la hidratación de entidades JPA con su colección de puntos y la copia al
+ * dominio. Para JPA se usa {@code default_batch_fetch_size=100}, su mejor configuración.
+ * Misma base que {@link PointStorageBenchmark}. Con {@code -prof gc} se ve la asignación por operación.
+ * Ejecutar con: {@code -Djmh.args="ReadPath -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    @Param({"10", "1000"})
+    int points;
+
+    /** Planos del autor leído. */
+    static final int BLUEPRINTS = 200;
+
+    private ConfigurableApplicationContext context;
+    private PostgresBlueprintPersistence persistence;
+    private BlueprintJpaRepository repository;
+    private TransactionTemplate readOnly;
+    private final String author = "bench-" + UUID.randomUUID();
+
+    @Setup
+    public void setUp() {
+        String url = System.getenv().getOrDefault("BLUEPRINTS_TEST_DB_URL",
+                "jdbc:postgresql://localhost:5432/blueprintsdb");
+        context = new SpringApplicationBuilder(BlueprintsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("postgres")
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.default_batch_fetch_size=100");
+        persistence = context.getBean(PostgresBlueprintPersistence.class);
+        repository = context.getBean(BlueprintJpaRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        int[] xy = new int[2 * points];
+        for (int i = 0; i < xy.length; i++) xy[i] = i * 31;
+        List<Blueprint> bps = new ArrayList<>(BLUEPRINTS);
+        for (int b = 0; b < BLUEPRINTS; b++) bps.add(Blueprint.ofCoordinates(author, "bp" + b, xy, points));
+        persistence.saveBlueprints(bps);
+    }
+
+    @TearDown
+    public void tearDown() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM blueprint_points WHERE blueprint_id IN (SELECT id FROM blueprints WHERE author = ?)", author);
+        jdbc.update("DELETE FROM blueprints WHERE author = ?", author);
+        context.close();
+    }
+
+    @Benchmark
+    public Set<Blueprint> jdbc() throws BlueprintNotFoundException {
+        return persistence.getBlueprintsByAuthor(author);
+    }
+
+    /** Camino anterior: entidades gestionadas y copia de PointEmbeddable al arreglo del dominio. */
+    @Benchmark
+    public Set<Blueprint> jpa() {
+        return readOnly.execute(status -> {
+            Set<Blueprint> out = new HashSet<>();
+            for (BlueprintEntity e : repository.findByAuthor(author)) {
+                List<PointEmbeddable> pts = e.getPoints();
+                int[] xy = new int[2 * pts.size()];
+                int i = 0;
+                for (PointEmbeddable p : pts) {
+                    xy[i++] = p.getX();
+                    xy[i++] = p.getY();
+                }
+                out.add(Blueprint.ofCoordinates(e.getAuthor(), e.getName(), xy, pts.size()));
+            }
+            return out;
+        });
+    }
+}
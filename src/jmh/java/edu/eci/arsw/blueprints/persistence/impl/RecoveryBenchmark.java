@@ -0,0 +1,102 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tiempo de arranque de {@link DurableBlueprintPersistence} con millones de puntos en disco:
+ * {@code snapshot} los tiene todos en un {@link BlueprintSnapshot} (mapeo + copia en bloque) y
+ * {@code log} en la cola del {@link WriteAheadLog}, un registro por {@code addPoint} (el peor caso:
+ * ningún snapshot desde que se escribieron). Planos de {@link #POINTS_PER_BLUEPRINT} puntos.
+ * Al preparar cada combinación imprime el tamaño en disco ({@code # disk size}).
+ * Ejecutar con: {@code -Djmh.args="Recovery"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RecoveryBenchmark {
+
+    @Param({"1000000", "5000000"})
+    int points;
+
+    @Param({"snapshot", "log"})
+    String source;
+
+    static final int POINTS_PER_BLUEPRINT = 1000;
+
+    private Path dir;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("recovery-bench");
+        Random rnd = new Random(42);
+        try (DurableBlueprintPersistence p = open()) {
+            List<Blueprint> blueprints = new ArrayList<>();
+            for (int b = 0; b < points / POINTS_PER_BLUEPRINT; b++) {
+                String name = "bp" + b;
+                if (source.equals("snapshot")) {
+                    int[] xy = rnd.ints(2 * POINTS_PER_BLUEPRINT, 0, 10_000).toArray();
+                    blueprints.add(Blueprint.ofCoordinates("author" + (b % 100), name, xy, POINTS_PER_BLUEPRINT));
+                } else {
+                    p.saveBlueprint(new Blueprint("author" + (b % 100), name, List.of()));
+                    for (int i = 0; i < POINTS_PER_BLUEPRINT; i++) {
+                        p.addPoint("author" + (b % 100), name, rnd.nextInt(10_000), rnd.nextInt(10_000));
+                    }
+                }
+            }
+            if (source.equals("snapshot")) {
+                p.saveBlueprints(blueprints);
+                p.snapshot();
+            }
+        }
+        long bytes;
+        try (Stream<Path> files = Files.list(dir)) {
+            bytes = files.mapToLong(f -> f.toFile().length()).sum();
+        }
+        System.out.printf("%n# disk size: source=%s points=%d %d bytes (%.2f bytes/point)%n",
+                source, points, bytes, (double) bytes / points);
+    }
+
+    private DurableBlueprintPersistence open() throws IOException {
+        return new DurableBlueprintPersistence(dir.toString(), "never", Duration.ofSeconds(1),
+                Duration.ZERO, DataSize.ofBytes(0));
+    }
+
+    @Benchmark
+    public long recover() throws IOException {
+        try (DurableBlueprintPersistence p = open()) {
+            return p.getCatalogVersion();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dir);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.filters.SimplificationFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Punto de corte del filtrado en paralelo: mismo conjunto de blueprints filtrado en el hilo
+ * llamador y en el pool propio de {@link ParallelFilterExecutor}, variando el total de puntos
+ * ({@code blueprints × points}). El umbral {@code blueprints.filters.parallel.min-points} debe
+ * quedar por encima del total donde {@code parallel} deja de ser más lento que {@code sequential}.
+ * Ejecutar con: {@code -Djmh.args="ParallelFilter"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelFilterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int blueprints;
+
+    @Param({"10", "100", "1000"})
+    int points;
+
+    private final SimplificationFilter filter = new SimplificationFilter(4.0);
+
+    private List<Blueprint> input;
+    private ParallelFilterExecutor sequential;
+    private ParallelFilterExecutor parallel;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        input = new ArrayList<>(blueprints);
+        for (int b = 0; b < blueprints; b++) {
+            int[] xy = new int[2 * points];
+            for (int i = 0; i < xy.length; i++) xy[i] = rnd.nextInt(1_000);
+            input.add(Blueprint.ofCoordinates("bench", "bp" + b, xy, points));
+        }
+        sequential = new ParallelFilterExecutor(0, 0);
+        parallel = new ParallelFilterExecutor(1, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallel.close();
+    }
+
+    @Benchmark
+    public List<Blueprint> sequential() {
+        return sequential.map(input, filter::apply);
+    }
+
+    @Benchmark
+    public List<Blueprint> parallel() {
+        return parallel.map(input, filter::apply);
+    }
+}
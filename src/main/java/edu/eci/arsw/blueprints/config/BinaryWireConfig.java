@@ -0,0 +1,22 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.controllers.BinaryBlueprintHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formato binario de planos ({@code application/vnd.blueprints.binary}) como representación opcional
+ * de la API, con {@code Accept} / {@code Content-Type} o {@code ?format=binary}. Sin pedirlo
+ * explícitamente la respuesta sigue siendo JSON (ver {@link CompactJsonConfig}).
+ */
+@Configuration
+public class BinaryWireConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new BinaryBlueprintHttpMessageConverter());
+    }
+}
@@ -0,0 +1,45 @@
+package edu.eci.arsw.blueprints.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.controllers.CompactPointsModule;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * JSON compacto de puntos ({@link CompactPointsModule}) como representación opcional de la API.
+ * Un conversor Jackson propio, con una copia del {@code ObjectMapper} de la aplicación más el módulo,
+ * atiende solo {@value CompactPointsModule#MEDIA_TYPE}; va antes del conversor JSON estándar porque
+ * ese también acepta {@code application/*+json} y se quedaría con el tipo compacto.
+ *
+ * <p>Sin {@code Accept} (o con {@code *}{@code /*}) la respuesta sigue siendo {@code application/json}:
+ * si no, el primer tipo ofrecido, el compacto, ganaría la negociación. {@code ?format=compact} lo
+ * habilitan {@code spring.mvc.contentnegotiation.*} en {@code application.properties}.
+ */
+@Configuration
+public class CompactJsonConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper mapper;
+
+    public CompactJsonConfig(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2HttpMessageConverter compact =
+                new MappingJackson2HttpMessageConverter(mapper.copy().registerModule(new CompactPointsModule()));
+        compact.setSupportedMediaTypes(List.of(CompactPointsModule.MEDIA));
+        converters.add(0, compact);
+    }
+
+    @Override
+    public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+        configurer.defaultContentType(MediaType.APPLICATION_JSON, MediaType.ALL);
+    }
+}
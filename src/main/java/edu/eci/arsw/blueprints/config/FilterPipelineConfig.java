@@ -0,0 +1,43 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.filters.FilterPipeline;
+import edu.eci.arsw.blueprints.filters.PointStage;
+import edu.eci.arsw.blueprints.filters.RedundancyFilter;
+import edu.eci.arsw.blueprints.filters.SimplificationFilter;
+import edu.eci.arsw.blueprints.filters.UndersamplingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cadena de filtros configurable. Si se define {@code blueprints.filters.chain} (por ejemplo
+ * {@code redundancy,undersampling}) se registra un {@link FilterPipeline} como filtro principal,
+ * con precedencia sobre el filtro elegido por perfil. Las etapas se aplican en el orden indicado.
+ */
+@Configuration
+public class FilterPipelineConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "blueprints.filters.chain")
+    public FilterPipeline filterPipeline(
+            @Value("${blueprints.filters.chain}") String[] names,
+            @Value("${blueprints.filters.simplify.tolerance:1.0}") double simplifyTolerance) {
+        List<PointStage> stages = new ArrayList<>();
+        for (String name : names) {
+            switch (name.trim()) {
+                case "", "identity" -> { }
+                case "redundancy"    -> stages.add(new RedundancyFilter());
+                case "undersampling" -> stages.add(new UndersamplingFilter());
+                case "simplify"      -> stages.add(new SimplificationFilter(simplifyTolerance));
+                default -> throw new IllegalArgumentException("Unknown filter in blueprints.filters.chain: " + name);
+            }
+        }
+        return new FilterPipeline(stages);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.impl.CachingBlueprintPersistence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Caché de lectura delante de la persistencia activa. Con {@code blueprints.persistence-cache.enabled=true}
+ * se registra un {@link CachingBlueprintPersistence} como persistencia principal; envuelve al backend
+ * del perfil (Spring no se propone a sí mismo como candidato, así que el parámetro resuelve al backend).
+ *
+ * <p>Propiedades: {@code max-entries} (planos, por defecto 10000), {@code max-authors} (por defecto 1000),
+ * {@code ttl} (por defecto 30s) y {@code negative-ttl} (por defecto 5s), todas bajo
+ * {@code blueprints.persistence-cache}.
+ *
+ * <p>Con el perfil "write-behind" no se registra: las lecturas ya se sirven desde memoria
+ * (ver {@link edu.eci.arsw.blueprints.persistence.impl.WriteBehindBlueprintPersistence}).
+ */
+@Configuration
+public class PersistenceCacheConfig {
+
+    @Bean
+    @Primary
+    @Profile("!write-behind")
+    @ConditionalOnProperty(name = "blueprints.persistence-cache.enabled", havingValue = "true")
+    public CachingBlueprintPersistence cachingBlueprintPersistence(
+            BlueprintPersistence backend,
+            @Value("${blueprints.persistence-cache.max-entries:10000}") long maxEntries,
+            @Value("${blueprints.persistence-cache.max-authors:1000}") long maxAuthors,
+            @Value("${blueprints.persistence-cache.ttl:30s}") Duration ttl,
+            @Value("${blueprints.persistence-cache.negative-ttl:5s}") Duration negativeTtl) {
+        return new CachingBlueprintPersistence(backend, maxEntries, maxAuthors, ttl, negativeTtl);
+    }
+}
@@ -71,16 +71,41 @@ public class ApiResponse<T> {
         return new ApiResponse<>(200, "execute ok", data);
     }
 
+    /** 200 OK con sus controles hipermedia, sin la copia de {@link #withLinks}. */
+    public static <T> ApiResponse<T> ok(T data, Map<String, String> links) {
+        return new ApiResponse<>(200, "execute ok", data, links);
+    }
+
     /** 201 Created */
     public static <T> ApiResponse<T> created(T data) {
         return new ApiResponse<>(201, "resource created", data);
     }
 
+    /** 201 Created con sus controles hipermedia, sin la copia de {@link #withLinks}. */
+    public static <T> ApiResponse<T> created(T data, Map<String, String> links) {
+        return new ApiResponse<>(201, "resource created", data, links);
+    }
+
     /** 202 Accepted */
     public static <T> ApiResponse<T> accepted(T data) {
         return new ApiResponse<>(202, "update accepted", data);
     }
 
+    /** 202 Accepted con sus controles hipermedia, sin la copia de {@link #withLinks}. */
+    public static <T> ApiResponse<T> accepted(T data, Map<String, String> links) {
+        return new ApiResponse<>(202, "update accepted", data, links);
+    }
+
+    /** 207 Multi-Status: lote procesado con resultados distintos por elemento. */
+    public static <T> ApiResponse<T> multiStatus(T data) {
+        return new ApiResponse<>(207, "batch processed with conflicts", data);
+    }
+
+    /** 207 Multi-Status con sus controles hipermedia, sin la copia de {@link #withLinks}. */
+    public static <T> ApiResponse<T> multiStatus(T data, Map<String, String> links) {
+        return new ApiResponse<>(207, "batch processed with conflicts", data, links);
+    }
+
     /** 400 Bad Request */
     public static <T> ApiResponse<T> badRequest(String message) {
         return new ApiResponse<>(400, message, null);
@@ -95,4 +120,9 @@ public class ApiResponse<T> {
     public static <T> ApiResponse<T> conflict(String message) {
         return new ApiResponse<>(409, message, null);
     }
+
+    /** 503 Service Unavailable */
+    public static <T> ApiResponse<T> serviceUnavailable(String message) {
+        return new ApiResponse<>(503, message, null);
+    }
 }
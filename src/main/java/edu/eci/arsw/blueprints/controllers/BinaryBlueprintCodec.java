@@ -0,0 +1,212 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Formato binario de planos ({@value #MEDIA_TYPE}) para clientes que transfieren planos grandes.
+ *
+ * <pre>
+ * mensaje  := 'B' 'P' versión(1) tipo(1) cuerpo
+ * tipo 0   := código(varint) mensaje(texto)            respuestas sin planos (errores, 202, lotes)
+ * tipo 1   := plano
+ * tipo 2   := n(varint) plano × n
+ * plano    := autor(texto) nombre(texto) puntos(varint) (zz(Δx) zz(Δy)) × puntos
+ * texto    := longitud(varint) bytes UTF-8
+ * </pre>
+ *
+ * Cada coordenada va como diferencia con el punto anterior (el primero contra 0,0), codificada en
+ * zigzag y varint sin signo de 7 bits por byte: trazos con puntos cercanos ocupan 1-2 bytes por
+ * coordenada. Las diferencias usan aritmética {@code int} con desbordamiento, que se deshace igual
+ * al decodificar, así que cualquier coordenada {@code int} viaja sin pérdida.
+ *
+ * <p>Se escribe por bloques a un {@link WritableByteChannel} con un {@link ByteBuffer} acotado y se
+ * lee desde un {@link ByteBuffer} con el cuerpo completo; no se crean objetos por punto.
+ */
+public final class BinaryBlueprintCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.blueprints.binary";
+
+    static final byte VERSION = 1;
+    static final byte STATUS = 0;
+    static final byte BLUEPRINT = 1;
+    static final byte LIST = 2;
+
+    /** Tamaño del búfer de escritura; un texto más largo usa un búfer propio. */
+    static final int BUFFER_SIZE = 64 * 1024;
+    /** Bytes máximos de un par de coordenadas: dos varints de 5 bytes. */
+    private static final int MAX_POINT_BYTES = 10;
+
+    private BinaryBlueprintCodec() { }
+
+    // ── Escritura ────────────────────────────────────────────────────────────
+
+    /** Escritor por bloques: acumula en {@code buf} y lo vacía al canal cuando no cabe lo siguiente. */
+    static final class Writer {
+
+        private final WritableByteChannel out;
+        private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Writer(WritableByteChannel out) {
+            this.out = out;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buf.remaining() >= bytes) return;
+            flush();
+            if (buf.capacity() < bytes) buf = ByteBuffer.allocate(bytes);
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) out.write(buf);
+            buf.clear();
+        }
+
+        private void header(byte kind) throws IOException {
+            ensure(4);
+            buf.put((byte) 'B').put((byte) 'P').put(VERSION).put(kind);
+        }
+
+        private void text(String s) throws IOException {
+            byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+            ensure(5 + bytes.length);
+            putVarint(buf, bytes.length);
+            buf.put(bytes);
+        }
+
+        private void blueprint(Blueprint bp) throws IOException {
+            text(bp.getAuthor());
+            text(bp.getName());
+            // Snapshot consistente: la cantidad escrita coincide con las coordenadas que siguen.
+            int[] xy = bp.copyCoordinates();
+            ensure(5);
+            putVarint(buf, xy.length / 2);
+            int px = 0;
+            int py = 0;
+            for (int i = 0; i < xy.length; i += 2) {
+                if (buf.remaining() < MAX_POINT_BYTES) flush();
+                putVarint(buf, zigzag(xy[i] - px));
+                putVarint(buf, zigzag(xy[i + 1] - py));
+                px = xy[i];
+                py = xy[i + 1];
+            }
+        }
+
+        void writeBlueprint(Blueprint bp) throws IOException {
+            header(BLUEPRINT);
+            blueprint(bp);
+        }
+
+        void writeList(Collection<Blueprint> bps) throws IOException {
+            header(LIST);
+            ensure(5);
+            putVarint(buf, bps.size());
+            for (Blueprint bp : bps) blueprint(bp);
+        }
+
+        void writeStatus(int code, String message) throws IOException {
+            header(STATUS);
+            ensure(5);
+            putVarint(buf, code);
+            text(message);
+        }
+    }
+
+    static int zigzag(int v) { return (v << 1) ^ (v >> 31); }
+
+    static int unzigzag(int v) { return (v >>> 1) ^ -(v & 1); }
+
+    static void putVarint(ByteBuffer buf, int v) {
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    // ── Lectura ──────────────────────────────────────────────────────────────
+
+    /** Mensaje mal formado: encabezado desconocido, longitudes fuera de rango o cuerpo truncado. */
+    static final class MalformedException extends IOException {
+        MalformedException(String message) { super(message); }
+    }
+
+    static int getVarint(ByteBuffer buf) throws MalformedException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new MalformedException("varint longer than 5 bytes");
+    }
+
+    /** Lee el encabezado y retorna el tipo de mensaje. */
+    static byte readHeader(ByteBuffer buf) throws MalformedException {
+        try {
+            if (buf.get() != 'B' || buf.get() != 'P') throw new MalformedException("not a blueprint message");
+            byte version = buf.get();
+            if (version != VERSION) throw new MalformedException("unsupported version " + version);
+            return buf.get();
+        } catch (BufferUnderflowException e) {
+            throw new MalformedException("truncated header");
+        }
+    }
+
+    private static String readText(ByteBuffer buf) throws MalformedException {
+        int len = getVarint(buf);
+        if (len < 0 || len > buf.remaining()) throw new MalformedException("text length out of range: " + len);
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    /** Un plano; los puntos quedan empaquetados ({@link Blueprint#packedPoints}) sin objetos intermedios. */
+    static NewBlueprintRequest readBlueprint(ByteBuffer buf) throws MalformedException {
+        try {
+            String author = readText(buf);
+            String name = readText(buf);
+            int count = getVarint(buf);
+            // Cada coordenada ocupa al menos un byte: acota la reserva antes de crear el arreglo.
+            if (count < 0 || count > buf.remaining() / 2) {
+                throw new MalformedException("point count out of range: " + count);
+            }
+            int[] xy = new int[2 * count];
+            int px = 0;
+            int py = 0;
+            for (int i = 0; i < xy.length; i += 2) {
+                px += unzigzag(getVarint(buf));
+                py += unzigzag(getVarint(buf));
+                xy[i] = px;
+                xy[i + 1] = py;
+            }
+            return new NewBlueprintRequest(author, name, Blueprint.packedPoints(xy, count));
+        } catch (BufferUnderflowException e) {
+            throw new MalformedException("truncated blueprint");
+        }
+    }
+
+    /** Cuerpo de tipo 2 (después del encabezado). */
+    static List<NewBlueprintRequest> readList(ByteBuffer buf) throws MalformedException {
+        try {
+            int n = getVarint(buf);
+            // Un plano ocupa al menos 3 bytes (dos textos vacíos y cero puntos).
+            if (n < 0 || n > buf.remaining() / 3) throw new MalformedException("blueprint count out of range: " + n);
+            List<NewBlueprintRequest> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) out.add(readBlueprint(buf));
+            return out;
+        } catch (BufferUnderflowException e) {
+            throw new MalformedException("truncated list");
+        }
+    }
+}
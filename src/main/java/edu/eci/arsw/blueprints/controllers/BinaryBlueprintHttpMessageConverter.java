@@ -0,0 +1,132 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conversor de {@value BinaryBlueprintCodec#MEDIA_TYPE} ({@link BinaryBlueprintCodec}).
+ *
+ * <p>Escribe el {@code data} de un {@link ApiResponse}: un {@link Blueprint} como mensaje de tipo 1 y
+ * una colección de planos como tipo 2. Cualquier otra respuesta (errores, 202, resultados de lote)
+ * se reduce a código y mensaje (tipo 0); los {@code _links} no viajan en binario.
+ *
+ * <p>Lee cuerpos {@link NewBlueprintRequest} (tipo 1) y {@code List<NewBlueprintRequest>} (tipo 2)
+ * para {@code POST /blueprints} y {@code /blueprints/batch}, hasta {@value #MAX_BODY_BYTES} bytes.
+ */
+public class BinaryBlueprintHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA = MediaType.parseMediaType(BinaryBlueprintCodec.MEDIA_TYPE);
+
+    /** Tamaño máximo de un cuerpo de entrada. */
+    static final int MAX_BODY_BYTES = 64 * 1024 * 1024;
+
+    public BinaryBlueprintHttpMessageConverter() {
+        super(MEDIA);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz) || clazz == NewBlueprintRequest.class;
+    }
+
+    private static boolean isRequestList(Type type) {
+        return type instanceof ParameterizedType p
+                && p.getRawType() == List.class
+                && p.getActualTypeArguments()[0] == NewBlueprintRequest.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (type == NewBlueprintRequest.class || isRequestList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return ApiResponse.class.isAssignableFrom(clazz) && canWrite(mediaType);
+    }
+
+    // ── Lectura ──────────────────────────────────────────────────────────────
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        ByteBuffer buf = readBody(inputMessage);
+        try {
+            byte kind = BinaryBlueprintCodec.readHeader(buf);
+            Object body;
+            if (type == NewBlueprintRequest.class && kind == BinaryBlueprintCodec.BLUEPRINT) {
+                body = BinaryBlueprintCodec.readBlueprint(buf);
+            } else if (isRequestList(type) && kind == BinaryBlueprintCodec.LIST) {
+                body = BinaryBlueprintCodec.readList(buf);
+            } else {
+                throw new BinaryBlueprintCodec.MalformedException("unexpected message type " + kind);
+            }
+            if (buf.hasRemaining()) {
+                throw new BinaryBlueprintCodec.MalformedException(buf.remaining() + " trailing bytes");
+            }
+            return body;
+        } catch (BinaryBlueprintCodec.MalformedException e) {
+            throw new HttpMessageNotReadableException("Invalid blueprint message: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return read(clazz, null, inputMessage);
+    }
+
+    /** Cuerpo completo en un {@link ByteBuffer}; reserva según {@code Content-Length} si viene. */
+    private static ByteBuffer readBody(HttpInputMessage inputMessage) throws IOException {
+        long declared = inputMessage.getHeaders().getContentLength();
+        if (declared > MAX_BODY_BYTES) {
+            throw new HttpMessageNotReadableException("Body larger than " + MAX_BODY_BYTES + " bytes", inputMessage);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(declared >= 0 ? (int) declared + 1 : 8192);
+        InputStream in = inputMessage.getBody();
+        ReadableByteChannel ch = Channels.newChannel(in);
+        while (ch.read(buf) >= 0) {
+            if (!buf.hasRemaining()) {
+                if (buf.capacity() >= MAX_BODY_BYTES) {
+                    throw new HttpMessageNotReadableException("Body larger than " + MAX_BODY_BYTES + " bytes", inputMessage);
+                }
+                buf = ByteBuffer.allocate((int) Math.min(2L * buf.capacity(), MAX_BODY_BYTES)).put(buf.flip());
+            }
+        }
+        return buf.flip();
+    }
+
+    // ── Escritura ────────────────────────────────────────────────────────────
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object o, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ApiResponse<?> response = (ApiResponse<?>) o;
+        BinaryBlueprintCodec.Writer writer =
+                new BinaryBlueprintCodec.Writer(Channels.newChannel(outputMessage.getBody()));
+        Object data = response.getData();
+        if (data instanceof Blueprint bp) {
+            writer.writeBlueprint(bp);
+        } else if (data instanceof Collection<?> c && c.stream().allMatch(Blueprint.class::isInstance)) {
+            writer.writeList((Collection<Blueprint>) c);
+        } else {
+            writer.writeStatus(response.getCode(), response.getMessage());
+        }
+        writer.flush();
+    }
+}
@@ -1,12 +1,20 @@
 package edu.eci.arsw.blueprints.controllers;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.services.BlueprintPage;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import edu.eci.arsw.blueprints.services.Versioned;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,15 +22,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/blueprints")
@@ -30,62 +47,289 @@ import java.util.Set;
 public class BlueprintsAPIController {
 
     private final BlueprintsServices services;
+    private final ObjectMapper mapper;
+    private final LinkTemplates links;
+    private final ResponseBodyCache bodies;
+    private final ContentNegotiationManager negotiation;
 
-    public BlueprintsAPIController(BlueprintsServices services) { this.services = services; }
+    public BlueprintsAPIController(BlueprintsServices services, ObjectMapper mapper, LinkTemplates links,
+                                   ResponseBodyCache bodies, ContentNegotiationManager negotiation) {
+        this.services    = services;
+        this.mapper      = mapper;
+        this.links       = links;
+        this.bodies      = bodies;
+        this.negotiation = negotiation;
+    }
+
+    // ── Helper: peticiones condicionales (ETag / If-None-Match) ──────────────
+
+    /**
+     * ETag fuerte de un recurso: ámbito ({@code bp}, {@code author}, {@code all}), versión de los
+     * datos (ver {@link edu.eci.arsw.blueprints.persistence.BlueprintPersistence}) y, fuera del JSON
+     * estándar, la representación ({@code "bp-4-compact"}).
+     */
+    static String etag(String scope, long version, Representation representation) {
+        StringBuilder tag = new StringBuilder().append('"').append(scope).append('-').append(version);
+        if (representation != null && representation.etagSuffix != null) {
+            tag.append('-').append(representation.etagSuffix);
+        }
+        return tag.append('"').toString();
+    }
 
-    // ── Helper: URL base del contexto actual ─────────────────────────────────
+    /**
+     * ETag de un cuerpo JSON de {@link ResponseBodyCache}: con {@code Content-Encoding} los bytes son
+     * otros, así que la codificación va en la etiqueta ({@code "bp-4-gzip"}); identity no la lleva.
+     */
+    static String etag(String scope, long version, ResponseBodyCache.Coding coding) {
+        String tag = etag(scope, version, Representation.JSON);
+        if (coding.header == null) return tag;
+        return tag.substring(0, tag.length() - 1) + '-' + coding.header + '"';
+    }
 
-    /** Construye la URL base {@code scheme://host:port/api/v1/blueprints} dinámicamente. */
-    private String base() {
-        return ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/api/v1/blueprints")
-                .toUriString();
+    /** Representación de la respuesta; {@code null} si la petición no acepta ninguna. */
+    private Representation representation(NativeWebRequest request) {
+        return Representation.negotiate(negotiation, request);
+    }
+
+    /**
+     * 200 con el ETag y el {@code Content-Type} de la representación elegida, para que el conversor
+     * que escribe el cuerpo sea el del ETag. {@code Vary: Accept}: la URL tiene varias representaciones.
+     */
+    private static ResponseEntity.BodyBuilder ok(String etag, Representation representation) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+        if (representation != null) ok.contentType(representation.mediaType);
+        return ok;
+    }
+
+    /** {@code true} si algún ETag de {@code If-None-Match} coincide (comparación débil, RFC 9110 §13.1.2). */
+    static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String tag = etag.substring(1, etag.length() - 1);
+        for (ETag candidate : ETag.parse(ifNoneMatch)) {
+            if (candidate.isWildcard() || candidate.tag().equals(tag)) return true;
+        }
+        return false;
+    }
+
+    /** 304 con el ETag vigente y el mismo {@code Vary} que llevaría el 200. */
+    private static <T> ResponseEntity<T> notModifiedResponse(String etag, String... vary) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(vary).build();
+    }
+
+    // ── Helper: cuerpos JSON ya serializados (ResponseBodyCache) ─────────────
+
+    /**
+     * Respuesta de un recurso desde {@link ResponseBodyCache}: 304 si {@code If-None-Match} trae el
+     * ETag vigente de la codificación que pide {@code Accept-Encoding}; si no, los bytes guardados
+     * para la versión actual en esa codificación, o {@code loader} si no están.
+     */
+    private ResponseEntity<?> cachedJson(String scope, ResponseBodyCache.Resource resource, long version,
+                                         String ifNoneMatch, String acceptEncoding, ResponseBodyCache.Loader loader)
+            throws BlueprintNotFoundException {
+        ResponseBodyCache.Coding coding = ResponseBodyCache.negotiate(acceptEncoding);
+        String current = etag(scope, version, coding);
+        if (notModified(ifNoneMatch, current)) {
+            return notModifiedResponse(current, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        }
+        Versioned<byte[]> body = bodies.body(resource, version, links.base(), coding, loader);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag(scope, body.version(), coding))
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (coding.header != null) ok.header(HttpHeaders.CONTENT_ENCODING, coding.header);
+        return ok.body(body.value());
+    }
+
+    private byte[] json(Object response) {
+        try {
+            return mapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     // ── GET /api/v1/blueprints ───────────────────────────────────────────────
 
+    /** Tamaño de página cuando solo se envía {@code after}. */
+    static final int DEFAULT_PAGE_SIZE = 100;
+    /** Límite superior de {@code limit} para acotar el tamaño de las respuestas. */
+    static final int MAX_PAGE_SIZE = 1000;
+    /** Parámetros de la consulta por área; {@link #byArea} solo se elige si llegan los cuatro. */
+    static final List<String> AREA_PARAMS = List.of("minX", "minY", "maxX", "maxY");
+
     @Operation(
         summary     = "Obtener todos los blueprints",
-        description = "Retorna el listado completo de blueprints registrados en el sistema."
+        description = """
+                Retorna el listado completo de blueprints registrados en el sistema.
+                Con los parámetros limit y/o after responde una página ordenada por (autor, nombre)
+                y agrega el link "next" mientras existan más resultados.
+                Responde 304 si If-None-Match coincide con la versión actual del catálogo."""
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Listado retornado exitosamente",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag enviado",
+            content = @Content),
+        @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos o consulta por área incompleta",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
     })
     @GetMapping
-    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<Set<Blueprint>>> getAll() {
-        Set<Blueprint> all = services.getAllBlueprints();
-        String b = base();
-        Map<String, String> links = new LinkedHashMap<>();
-        links.put("self", b);
-        return ResponseEntity.ok(
-                edu.eci.arsw.blueprints.controllers.ApiResponse.ok(all).withLinks(links));
+    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<?>> getAll(
+            @Parameter(description = "Tamaño máximo de la página (1-" + MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor opaco de la página siguiente, tomado del link next", example = "AAAABGpvaG5nYXJhZ2U")
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            NativeWebRequest request) {
+        // Sin los cuatro bordes la petición llega aquí; no debe responderse con el catálogo completo.
+        if (AREA_PARAMS.stream().anyMatch(p -> request.getParameter(p) != null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.badRequest(
+                            "minX, minY, maxX and maxY must be sent together"));
+        }
+        Representation representation = representation(request);
+        if (limit == null && after == null) {
+            if (ifNoneMatch != null) {
+                String current = etag("all", services.getCatalogVersion(), representation);
+                if (notModified(ifNoneMatch, current)) return notModifiedResponse(current, HttpHeaders.ACCEPT);
+            }
+            Versioned<Set<Blueprint>> all = services.getAllBlueprintsVersioned();
+            return ok(etag("all", all.version(), representation), representation)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(all.value(), links.catalog()));
+        }
+
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        PageCursor cursor = after != null ? PageCursor.decode(after) : null;
+        if (size < 1 || size > MAX_PAGE_SIZE || (after != null && cursor == null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.badRequest(
+                            "limit must be between 1 and " + MAX_PAGE_SIZE + " and after must be a cursor from a next link"));
+        }
+        // La versión se lee antes que la página: si cambia entre ambas, el ETag queda viejo y la
+        // siguiente petición condicional simplemente recibe 200.
+        String etag = etag("all", services.getCatalogVersion(), representation);
+        if (notModified(ifNoneMatch, etag)) return notModifiedResponse(etag, HttpHeaders.ACCEPT);
+        BlueprintPage page = cursor == null
+                ? services.getBlueprintsPage(null, null, size)
+                : services.getBlueprintsPage(cursor.author(), cursor.name(), size);
+
+        String next = page.hasNext() ? new PageCursor(page.nextAuthor(), page.nextName()).encode() : null;
+        return ok(etag, representation)
+                .body(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(page.items(), links.page(size, after, next)));
+    }
+
+    // ── GET /api/v1/blueprints?minX=&minY=&maxX=&maxY= ──────────────────────
+
+    @Operation(
+        summary     = "Buscar blueprints por área",
+        description = """
+                Retorna los blueprints cuya caja envolvente intersecta el rectángulo dado (bordes
+                incluidos), ordenados por (autor, nombre). Se resuelve con un índice espacial: el costo
+                depende de los resultados, no del tamaño del catálogo. Los blueprints sin puntos no
+                aparecen."""
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Blueprints que intersectan el área",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "400", description = "El mínimo supera al máximo en algún eje",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
+    })
+    @GetMapping(params = {"minX", "minY", "maxX", "maxY"})
+    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<?>> byArea(
+            @Parameter(description = "Borde izquierdo", example = "0")   @RequestParam int minX,
+            @Parameter(description = "Borde inferior", example = "0")    @RequestParam int minY,
+            @Parameter(description = "Borde derecho", example = "10")    @RequestParam int maxX,
+            @Parameter(description = "Borde superior", example = "10")   @RequestParam int maxY) {
+        if (minX > maxX || minY > maxY) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.badRequest(
+                            "minX must not exceed maxX and minY must not exceed maxY"));
+        }
+        List<Blueprint> hits = services.getBlueprintsIntersecting(new BoundingBox(minX, minY, maxX, maxY));
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT)
+                .body(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(hits, links.area(minX, minY, maxX, maxY)));
+    }
+
+    // ── GET /api/v1/blueprints (application/x-ndjson) ───────────────────────
+
+    @Operation(
+        summary     = "Exportar todos los blueprints en NDJSON",
+        description = """
+                Escribe un blueprint filtrado por línea a medida que la persistencia lo produce,
+                sin construir el listado completo en memoria. Pensado para consumidores masivos."""
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación en curso",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = Blueprint.class)))
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        // writeValue(JsonGenerator, ...) vacía el generador tras cada valor si FLUSH_AFTER_WRITE_VALUE
+        // está activa (lo está por defecto): cada plano saldría como un chunk propio.
+        ObjectWriter writer = mapper.writerFor(Blueprint.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                gen.setRootValueSeparator(null);
+                boolean[] first = {true};
+                services.forEachBlueprint(bp -> {
+                    try {
+                        writer.writeValue(gen, bp);
+                        gen.writeRaw('\n');
+                        // El primer registro sale de inmediato; el resto, cuando se llena el buffer del generador.
+                        if (first[0]) {
+                            gen.flush();
+                            first[0] = false;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).varyBy(HttpHeaders.ACCEPT).body(body);
     }
 
     // ── GET /api/v1/blueprints/{author} ─────────────────────────────────────
 
     @Operation(
         summary     = "Obtener blueprints por autor",
-        description = "Retorna todos los blueprints creados por el autor especificado."
+        description = """
+                Retorna todos los blueprints creados por el autor especificado.
+                Responde 304 si If-None-Match coincide con la versión actual de los planos del autor."""
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Blueprints del autor encontrados",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Los blueprints del autor no cambiaron desde el ETag enviado",
+            content = @Content),
         @ApiResponse(responseCode = "404", description = "No existen blueprints para ese autor",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
     })
     @GetMapping("/{author}")
-    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<?>> byAuthor(
+    public ResponseEntity<?> byAuthor(
             @Parameter(description = "Nombre del autor del blueprint", example = "john")
-            @PathVariable String author) {
+            @PathVariable String author,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            NativeWebRequest request) {
+        Representation representation = representation(request);
         try {
-            String b = base();
-            Map<String, String> links = new LinkedHashMap<>();
-            links.put("self",           b + "/" + author);
-            links.put("all-blueprints", b);
-            return ResponseEntity.ok(
-                    edu.eci.arsw.blueprints.controllers.ApiResponse
-                            .ok(services.getBlueprintsByAuthor(author)).withLinks(links));
+            if (bodies.applies(representation)) {
+                long version = services.getAuthorVersion(author);
+                return cachedJson("author", ResponseBodyCache.authorKey(author), version, ifNoneMatch, acceptEncoding, () -> {
+                    Versioned<Set<Blueprint>> bps = services.getBlueprintsByAuthorVersioned(author);
+                    return new Versioned<>(json(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(bps.value(), links.author(author))),
+                            bps.version());
+                });
+            }
+            if (ifNoneMatch != null) {
+                String current = etag("author", services.getAuthorVersion(author), representation);
+                if (notModified(ifNoneMatch, current)) return notModifiedResponse(current, HttpHeaders.ACCEPT);
+            }
+            Versioned<Set<Blueprint>> bps = services.getBlueprintsByAuthorVersioned(author);
+            return ok(etag("author", bps.version(), representation), representation)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(bps.value(), links.author(author)));
         } catch (BlueprintNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(edu.eci.arsw.blueprints.controllers.ApiResponse.notFound(e.getMessage()));
@@ -96,28 +340,42 @@ public class BlueprintsAPIController {
 
     @Operation(
         summary     = "Obtener un blueprint específico",
-        description = "Retorna el blueprint identificado por autor y nombre."
+        description = """
+                Retorna el blueprint identificado por autor y nombre, con un ETag que cambia con cada
+                punto agregado. Con If-None-Match vigente responde 304 sin leer los puntos ni filtrar."""
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Blueprint encontrado",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "304", description = "El blueprint no cambió desde el ETag enviado",
+            content = @Content),
         @ApiResponse(responseCode = "404", description = "Blueprint no encontrado",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
     })
     @GetMapping("/{author}/{bpname}")
-    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<?>> byAuthorAndName(
+    public ResponseEntity<?> byAuthorAndName(
             @Parameter(description = "Nombre del autor", example = "john") @PathVariable String author,
-            @Parameter(description = "Nombre del blueprint", example = "house") @PathVariable String bpname) {
+            @Parameter(description = "Nombre del blueprint", example = "house") @PathVariable String bpname,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            NativeWebRequest request) {
+        Representation representation = representation(request);
         try {
-            String b = base();
-            Map<String, String> links = new LinkedHashMap<>();
-            links.put("self",              b + "/" + author + "/" + bpname);
-            links.put("add-point",         b + "/" + author + "/" + bpname + "/points");
-            links.put("author-blueprints", b + "/" + author);
-            links.put("all-blueprints",    b);
-            return ResponseEntity.ok(
-                    edu.eci.arsw.blueprints.controllers.ApiResponse
-                            .ok(services.getBlueprint(author, bpname)).withLinks(links));
+            if (bodies.applies(representation)) {
+                long version = services.getBlueprintVersion(author, bpname);
+                return cachedJson("bp", ResponseBodyCache.blueprintKey(author, bpname), version, ifNoneMatch, acceptEncoding, () -> {
+                    Versioned<Blueprint> bp = services.getBlueprintVersioned(author, bpname);
+                    return new Versioned<>(json(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(bp.value(), links.blueprint(author, bpname))),
+                            bp.version());
+                });
+            }
+            if (ifNoneMatch != null) {
+                String current = etag("bp", services.getBlueprintVersion(author, bpname), representation);
+                if (notModified(ifNoneMatch, current)) return notModifiedResponse(current, HttpHeaders.ACCEPT);
+            }
+            Versioned<Blueprint> bp = services.getBlueprintVersioned(author, bpname);
+            return ok(etag("bp", bp.version(), representation), representation)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.ok(bp.value(), links.blueprint(author, bpname)));
         } catch (BlueprintNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(edu.eci.arsw.blueprints.controllers.ApiResponse.notFound(e.getMessage()));
@@ -136,6 +394,8 @@ public class BlueprintsAPIController {
         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos (autor o nombre vacíos)",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
         @ApiResponse(responseCode = "409", description = "Ya existe un blueprint con ese autor y nombre",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "503", description = "La persistencia no acepta escrituras por ahora; reintentar tras Retry-After",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
     })
     @PostMapping
@@ -154,20 +414,82 @@ public class BlueprintsAPIController {
         try {
             Blueprint bp = new Blueprint(req.author(), req.name(), req.points());
             services.addNewBlueprint(bp);
-            String b = base();
-            Map<String, String> links = new LinkedHashMap<>();
-            links.put("self",              b + "/" + bp.getAuthor() + "/" + bp.getName());
-            links.put("add-point",         b + "/" + bp.getAuthor() + "/" + bp.getName() + "/points");
-            links.put("author-blueprints", b + "/" + bp.getAuthor());
-            links.put("all-blueprints",    b);
+            bodies.invalidate(ResponseBodyCache.authorKey(bp.getAuthor()));
             return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.created(bp).withLinks(links));
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.created(bp, links.blueprint(bp.getAuthor(), bp.getName())));
         } catch (BlueprintPersistenceException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(edu.eci.arsw.blueprints.controllers.ApiResponse.conflict(e.getMessage()));
         }
     }
 
+    // ── POST /api/v1/blueprints/batch ────────────────────────────────────────
+
+    /** Máximo de blueprints por lote; cargas mayores se envían en varios lotes. */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    @Operation(
+        summary     = "Crear blueprints en lote",
+        description = """
+                Registra hasta 10000 blueprints en una sola operación de persistencia. Cada elemento
+                informa su propio resultado: 201 si se creó o 409 si ya existía (también si se repite
+                dentro del lote). Responde 201 si todos se crearon y 207 si hubo conflictos."""
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Todos los blueprints se crearon",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "207", description = "Lote procesado; algunos elementos tuvieron conflicto",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Lote vacío, demasiado grande o con autor/nombre vacíos",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "503", description = "La persistencia no acepta escrituras por ahora; reintentar tras Retry-After",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<?>> addBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Blueprints a crear",
+                required = true,
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = NewBlueprintRequest.class))))
+            @RequestBody List<NewBlueprintRequest> reqs) {
+        if (reqs == null || reqs.isEmpty() || reqs.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.badRequest(
+                            "batch must contain between 1 and " + MAX_BATCH_SIZE + " blueprints"));
+        }
+        List<Blueprint> bps = new ArrayList<>(reqs.size());
+        for (int i = 0; i < reqs.size(); i++) {
+            NewBlueprintRequest req = reqs.get(i);
+            if (req == null || req.author() == null || req.author().isBlank()
+                    || req.name() == null || req.name().isBlank()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(edu.eci.arsw.blueprints.controllers.ApiResponse.badRequest(
+                                "author and name are required (item " + i + ")"));
+            }
+            bps.add(new Blueprint(req.author(), req.name(), req.points()));
+        }
+
+        // Identidad, no equals: un duplicado dentro del lote es igual al elemento que sí se creó.
+        Set<Blueprint> conflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+        conflicts.addAll(services.addNewBlueprints(bps));
+        String b = links.base();
+        List<BatchItemResult> results = new ArrayList<>(bps.size());
+        for (int i = 0; i < bps.size(); i++) {
+            Blueprint bp = bps.get(i);
+            if (!conflicts.contains(bp)) bodies.invalidate(ResponseBodyCache.authorKey(bp.getAuthor()));
+            results.add(conflicts.contains(bp)
+                    ? new BatchItemResult(i, bp.getAuthor(), bp.getName(), HttpStatus.CONFLICT.value(), null)
+                    : new BatchItemResult(i, bp.getAuthor(), bp.getName(), HttpStatus.CREATED.value(),
+                            b + "/" + bp.getAuthor() + "/" + bp.getName()));
+        }
+        Links batchLinks = links.batch();
+        return conflicts.isEmpty()
+                ? ResponseEntity.status(HttpStatus.CREATED)
+                        .body(edu.eci.arsw.blueprints.controllers.ApiResponse.created(results, batchLinks))
+                : ResponseEntity.status(HttpStatus.MULTI_STATUS)
+                        .body(edu.eci.arsw.blueprints.controllers.ApiResponse.multiStatus(results, batchLinks));
+    }
+
     // ── PUT /api/v1/blueprints/{author}/{bpname}/points ─────────────────────
 
     @Operation(
@@ -178,6 +500,8 @@ public class BlueprintsAPIController {
         @ApiResponse(responseCode = "202", description = "Punto agregado correctamente",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
         @ApiResponse(responseCode = "404", description = "Blueprint no encontrado",
+            content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class))),
+        @ApiResponse(responseCode = "503", description = "La persistencia no acepta escrituras por ahora; reintentar tras Retry-After",
             content = @Content(schema = @Schema(implementation = edu.eci.arsw.blueprints.controllers.ApiResponse.class)))
     })
     @PutMapping("/{author}/{bpname}/points")
@@ -191,18 +515,33 @@ public class BlueprintsAPIController {
             @RequestBody Point p) {
         try {
             services.addPoint(author, bpname, p.x(), p.y());
-            String b = base();
-            Map<String, String> links = new LinkedHashMap<>();
-            links.put("blueprint",      b + "/" + author + "/" + bpname);
-            links.put("all-blueprints", b);
+            bodies.invalidate(ResponseBodyCache.blueprintKey(author, bpname));
+            bodies.invalidate(ResponseBodyCache.authorKey(author));
             return ResponseEntity.status(HttpStatus.ACCEPTED)
-                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.accepted(null).withLinks(links));
+                    .body(edu.eci.arsw.blueprints.controllers.ApiResponse.accepted(null, links.points(author, bpname)));
         } catch (BlueprintNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(edu.eci.arsw.blueprints.controllers.ApiResponse.notFound(e.getMessage()));
         }
     }
 
+    // ── Escrituras rechazadas por la persistencia ────────────────────────────
+
+    /** Segundos de {@code Retry-After}: la cola write-behind se vacía cada {@code flush-interval} (200ms). */
+    static final int RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * La persistencia write-behind rechaza la escritura con la cola llena (o al cerrarse) antes de
+     * aplicarla: es una condición transitoria del servidor, no un error del cliente, así que se
+     * responde 503 con {@code Retry-After} en lugar del 500 por defecto.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<edu.eci.arsw.blueprints.controllers.ApiResponse<?>> writeRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(RETRY_AFTER_SECONDS))
+                .body(edu.eci.arsw.blueprints.controllers.ApiResponse.serviceUnavailable(e.getMessage()));
+    }
+
     // ── DTO de entrada ───────────────────────────────────────────────────────
 
     @Schema(description = "Datos requeridos para crear un nuevo Blueprint")
@@ -211,4 +550,15 @@ public class BlueprintsAPIController {
             @Schema(description = "Nombre del blueprint", example = "house")  @NotBlank String name,
             @Schema(description = "Lista de puntos del blueprint")            @Valid List<Point> points
     ) { }
+
+    // ── DTO de salida del lote ───────────────────────────────────────────────
+
+    @Schema(description = "Resultado de un elemento de POST /api/v1/blueprints/batch")
+    public record BatchItemResult(
+            @Schema(description = "Posición del elemento en el lote", example = "0")     int index,
+            @Schema(description = "Autor del blueprint", example = "john")               String author,
+            @Schema(description = "Nombre del blueprint", example = "house")             String name,
+            @Schema(description = "201 si se creó, 409 si ya existía", example = "201")  int status,
+            @Schema(description = "URL del blueprint creado (null si hubo conflicto)")  String self
+    ) { }
 }
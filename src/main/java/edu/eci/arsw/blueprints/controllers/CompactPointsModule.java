@@ -0,0 +1,113 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleDeserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Representación compacta de los puntos: {@code "points": [x0,y0,x1,y1,...]} en lugar de un
+ * objeto {@code {"x":..,"y":..}} por punto. El resto del JSON (autor, nombre, {@code ApiResponse},
+ * {@code _links}) no cambia.
+ *
+ * <p>El serializador recorre las coordenadas empaquetadas de {@link Blueprint} sin crear objetos
+ * {@link Point}. El deserializador aplica a cualquier propiedad {@code List<Point>} (cuerpos de
+ * {@code POST /blueprints} y {@code /blueprints/batch}): lee los enteros a un {@code int[]} y lo
+ * entrega como {@link Blueprint#packedPoints}, que el constructor de {@code Blueprint} copia directo.
+ *
+ * <p>Se negocia con el tipo {@value #MEDIA_TYPE} en {@code Accept} / {@code Content-Type} o con
+ * {@code ?format=compact}; lo registra {@code CompactJsonConfig}.
+ */
+public class CompactPointsModule extends SimpleModule {
+
+    public static final String MEDIA_TYPE = "application/vnd.blueprints.compact+json";
+    public static final MediaType MEDIA = MediaType.parseMediaType(MEDIA_TYPE);
+
+    public CompactPointsModule() {
+        super("CompactPointsModule");
+        addSerializer(Blueprint.class, new BlueprintSerializer());
+        setDeserializers(new SimpleDeserializers() {
+            @Override
+            public JsonDeserializer<?> findCollectionDeserializer(CollectionType type, DeserializationConfig config,
+                    BeanDescription beanDesc, TypeDeserializer elementTypeDeserializer,
+                    JsonDeserializer<?> elementDeserializer) {
+                return type.getContentType().hasRawClass(Point.class)
+                        && type.getRawClass().isAssignableFrom(List.class)
+                        ? new PointsDeserializer() : null;
+            }
+        });
+    }
+
+    /** {@code {"author":..,"name":..,"points":[x0,y0,...]}} directo desde el arreglo empaquetado. */
+    static final class BlueprintSerializer extends StdSerializer<Blueprint> {
+
+        BlueprintSerializer() { super(Blueprint.class); }
+
+        @Override
+        public void serialize(Blueprint bp, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(bp);
+            gen.writeStringField("author", bp.getAuthor());
+            gen.writeStringField("name", bp.getName());
+            gen.writeArrayFieldStart("points");
+            try {
+                bp.forEachPoint((x, y) -> {
+                    try {
+                        gen.writeNumber(x);
+                        gen.writeNumber(y);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    /** {@code [x0,y0,x1,y1,...]} → lista empaquetada; un número impar de enteros es un error de entrada. */
+    static final class PointsDeserializer extends StdDeserializer<List<Point>> {
+
+        PointsDeserializer() { super(List.class); }
+
+        @Override
+        public List<Point> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return ctxt.reportInputMismatch(this, "points must be a flat array [x0,y0,x1,y1,...]");
+            }
+            int[] xy = new int[16];
+            int n = 0;
+            JsonToken t;
+            while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (t != JsonToken.VALUE_NUMBER_INT) {
+                    return ctxt.reportInputMismatch(this, "points must contain only integers, found %s", t);
+                }
+                if (n == xy.length) xy = Arrays.copyOf(xy, n * 2);
+                xy[n++] = p.getIntValue();
+            }
+            if ((n & 1) != 0) {
+                return ctxt.reportInputMismatch(this, "points must contain an even number of coordinates, found %d", n);
+            }
+            return Blueprint.packedPoints(xy, n / 2);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.Links.Rel;
+import edu.eci.arsw.blueprints.controllers.Links.Target;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plantillas de los controles hipermedia de {@link BlueprintsAPIController}.
+ *
+ * <p>La URL base {@code scheme://host[:port]/contexto/api/v1/blueprints} se resuelve una vez por
+ * origen y se reutiliza: la última usada se compara campo a campo con la petición actual (sin
+ * asignar memoria) y las demás quedan en un mapa de a lo sumo {@value #MAX_ORIGINS} entradas, porque
+ * {@code Host} lo controla el cliente. El resultado es el mismo que daba
+ * {@code ServletUriComponentsBuilder.fromCurrentContextPath()}; detrás de un proxy los encabezados
+ * {@code Forwarded} los sigue aplicando {@code ForwardedHeaderFilter} sobre la petición.
+ *
+ * <p>Cada método retorna un {@link Links} con las relaciones fijas de su endpoint; las URLs no se
+ * construyen hasta que Jackson escribe la respuesta.
+ */
+@Component
+public class LinkTemplates {
+
+    /** Ruta de la API relativa al contexto de la aplicación. */
+    static final String API_PATH = "/api/v1/blueprints";
+    /** Orígenes distintos que se guardan; a partir de ahí la base se calcula en cada petición. */
+    static final int MAX_ORIGINS = 64;
+
+    private static final Rel[] CATALOG   = { new Rel("self", Target.ALL) };
+    private static final Rel[] AUTHOR    = { new Rel("self", Target.AUTHOR), new Rel("all-blueprints", Target.ALL) };
+    private static final Rel[] BLUEPRINT = {
+            new Rel("self", Target.BLUEPRINT),
+            new Rel("add-point", Target.POINTS),
+            new Rel("author-blueprints", Target.AUTHOR),
+            new Rel("all-blueprints", Target.ALL)
+    };
+    private static final Rel[] BATCH     = { new Rel("all-blueprints", Target.ALL) };
+    private static final Rel[] POINTS    = { new Rel("blueprint", Target.BLUEPRINT), new Rel("all-blueprints", Target.ALL) };
+    private static final Rel[] NONE      = {};
+
+    private volatile Origin last;
+    private final ConcurrentHashMap<String, Origin> origins = new ConcurrentHashMap<>();
+
+    /** Base ya resuelta para un origen, en {@code String} y en {@code char[]}. */
+    private static final class Origin {
+        final String scheme;
+        final String host;
+        final int port;
+        final String contextPath;
+        final String base;
+        final char[] chars;
+
+        Origin(String scheme, String host, int port, String contextPath) {
+            this.scheme = scheme;
+            this.host = host;
+            this.port = port;
+            this.contextPath = contextPath;
+            StringBuilder sb = new StringBuilder(64).append(scheme).append("://");
+            if (host.indexOf(':') >= 0 && !host.startsWith("[")) sb.append('[').append(host).append(']');
+            else sb.append(host);
+            boolean defaultPort = port <= 0
+                    || ("http".equals(scheme) && port == 80)
+                    || ("https".equals(scheme) && port == 443);
+            if (!defaultPort) sb.append(':').append(port);
+            this.base = sb.append(contextPath).append(API_PATH).toString();
+            this.chars = base.toCharArray();
+        }
+
+        boolean matches(HttpServletRequest request) {
+            return port == request.getServerPort()
+                    && host.equals(request.getServerName())
+                    && scheme.equals(request.getScheme())
+                    && contextPath.equals(request.getContextPath());
+        }
+    }
+
+    private Origin origin() {
+        HttpServletRequest request =
+                ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        Origin o = last;
+        if (o != null && o.matches(request)) return o;
+
+        String scheme = request.getScheme();
+        String host = request.getServerName();
+        int port = request.getServerPort();
+        String contextPath = request.getContextPath();
+        String key = scheme + "://" + host + ":" + port + contextPath;
+        o = origins.get(key);
+        if (o == null) {
+            o = new Origin(scheme, host, port, contextPath);
+            if (origins.size() < MAX_ORIGINS) origins.putIfAbsent(key, o);
+        }
+        last = o;
+        return o;
+    }
+
+    /** URL base de la API para la petición actual. */
+    public String base() {
+        return origin().base;
+    }
+
+    /** {@code GET /blueprints}: self. */
+    public Links catalog() {
+        return new Links(origin().chars, null, null, CATALOG);
+    }
+
+    /** {@code GET /blueprints/{author}}: self, all-blueprints. */
+    public Links author(String author) {
+        return new Links(origin().chars, author, null, AUTHOR);
+    }
+
+    /** {@code GET|POST} de un plano: self, add-point, author-blueprints, all-blueprints. */
+    public Links blueprint(String author, String name) {
+        return new Links(origin().chars, author, name, BLUEPRINT);
+    }
+
+    /** {@code POST /blueprints/batch}: all-blueprints. */
+    public Links batch() {
+        return new Links(origin().chars, null, null, BATCH);
+    }
+
+    /** {@code PUT .../points}: blueprint, all-blueprints. */
+    public Links points(String author, String name) {
+        return new Links(origin().chars, author, name, POINTS);
+    }
+
+    /**
+     * Página del catálogo: self, first y, si {@code next} no es {@code null}, next.
+     * Los cursores van codificados como parámetro de consulta.
+     */
+    public Links page(int limit, String after, String next) {
+        Origin o = origin();
+        String first = o.base + "?limit=" + limit;
+        String self = after == null ? first : first + "&after=" + encode(after);
+        return next == null
+                ? new Links(o.chars, null, null, NONE, "self", self, "first", first)
+                : new Links(o.chars, null, null, NONE, "self", self, "first", first,
+                        "next", first + "&after=" + encode(next));
+    }
+
+    /** Consulta por área: self y all-blueprints. */
+    public Links area(int minX, int minY, int maxX, int maxY) {
+        Origin o = origin();
+        String self = o.base + "?minX=" + minX + "&minY=" + minY + "&maxX=" + maxX + "&maxY=" + maxY;
+        return new Links(o.chars, null, null, NONE, "self", self, "all-blueprints", o.base);
+    }
+
+    private static String encode(String cursor) {
+        return UriUtils.encodeQueryParam(cursor, StandardCharsets.UTF_8);
+    }
+}
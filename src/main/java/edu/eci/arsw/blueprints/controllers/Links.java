@@ -0,0 +1,124 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Controles hipermedia ({@code _links}) de una respuesta, sin construir las URLs por adelantado.
+ * Guarda la base ya resuelta por {@link LinkTemplates}, el autor y el nombre del recurso y la
+ * plantilla de relaciones; al serializar escribe cada URL en el {@link JsonGenerator} desde un único
+ * búfer de caracteres por respuesta, sin {@code String}s ni mapas intermedios.
+ *
+ * <p>Sigue siendo un {@code Map<String, String>} de solo lectura para {@link ApiResponse#getLinks()};
+ * esa vista sí construye las URLs en cada acceso.
+ */
+@JsonSerialize(using = Links.Serializer.class)
+public final class Links extends AbstractMap<String, String> {
+
+    /** Forma de la URL relativa a la base de la API. */
+    enum Target {
+        /** {@code base} */
+        ALL,
+        /** {@code base/autor} */
+        AUTHOR,
+        /** {@code base/autor/nombre} */
+        BLUEPRINT,
+        /** {@code base/autor/nombre/points} */
+        POINTS
+    }
+
+    /** Relación con su nombre ya codificado para JSON. */
+    record Rel(SerializedString name, Target target) {
+        Rel(String name, Target target) { this(new SerializedString(name), target); }
+    }
+
+    private static final char[] POINTS_SUFFIX = "/points".toCharArray();
+
+    private final char[] base;
+    private final String author;
+    private final String name;
+    private final Rel[] rels;
+    /** Relaciones con URL literal (páginas), en pares nombre/valor; se escriben después de {@code rels}. */
+    private final String[] literals;
+
+    Links(char[] base, String author, String name, Rel[] rels, String... literals) {
+        this.base = base;
+        this.author = author;
+        this.name = name;
+        this.rels = rels;
+        this.literals = literals;
+    }
+
+    /** Escribe la URL de {@code target} en {@code buf} y retorna su longitud. */
+    private int render(Target target, char[] buf) {
+        int n = base.length;
+        System.arraycopy(base, 0, buf, 0, n);
+        if (target == Target.ALL) return n;
+        buf[n++] = '/';
+        author.getChars(0, author.length(), buf, n);
+        n += author.length();
+        if (target == Target.AUTHOR) return n;
+        buf[n++] = '/';
+        name.getChars(0, name.length(), buf, n);
+        n += name.length();
+        if (target == Target.BLUEPRINT) return n;
+        System.arraycopy(POINTS_SUFFIX, 0, buf, n, POINTS_SUFFIX.length);
+        return n + POINTS_SUFFIX.length;
+    }
+
+    private char[] buffer() {
+        int max = base.length + POINTS_SUFFIX.length + 2;
+        if (author != null) max += author.length();
+        if (name != null) max += name.length();
+        return new char[max];
+    }
+
+    // ── Vista Map ────────────────────────────────────────────────────────────
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Set<Entry<String, String>> entries = new LinkedHashSet<>();
+        char[] buf = buffer();
+        for (Rel rel : rels) {
+            entries.add(new SimpleImmutableEntry<>(rel.name().getValue(), new String(buf, 0, render(rel.target(), buf))));
+        }
+        for (int i = 0; i < literals.length; i += 2) {
+            entries.add(new SimpleImmutableEntry<>(literals[i], literals[i + 1]));
+        }
+        return entries;
+    }
+
+    @Override
+    public int size() {
+        return rels.length + literals.length / 2;
+    }
+
+    // ── Serialización directa ────────────────────────────────────────────────
+
+    static final class Serializer extends StdSerializer<Links> {
+
+        Serializer() { super(Links.class); }
+
+        @Override
+        public void serialize(Links links, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            char[] buf = links.rels.length > 0 ? links.buffer() : null;
+            for (Rel rel : links.rels) {
+                gen.writeFieldName(rel.name());
+                gen.writeString(buf, 0, links.render(rel.target(), buf));
+            }
+            for (int i = 0; i < links.literals.length; i += 2) {
+                gen.writeStringField(links.literals[i], links.literals[i + 1]);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
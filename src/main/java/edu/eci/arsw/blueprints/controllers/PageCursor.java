@@ -0,0 +1,46 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor del parámetro {@code after}: la clave (autor, nombre) del último plano entregado; la
+ * página siguiente empieza después de ella. Autor y nombre pueden contener cualquier carácter, así
+ * que no se separan con un delimitador: se codifican como {@code int} longitud del autor en bytes,
+ * autor y nombre (UTF-8), todo en base64url sin relleno. Para el cliente es opaco; lo toma del link
+ * {@code next}.
+ */
+record PageCursor(String author, String name) {
+
+    String encode() {
+        byte[] a = author.getBytes(StandardCharsets.UTF_8);
+        byte[] n = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(4 + a.length + n.length).putInt(a.length).put(a).put(n);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    /** Cursor codificado por {@link #encode()}, o {@code null} si {@code value} no lo es. */
+    static PageCursor decode(String value) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Base64.getUrlDecoder().decode(value));
+            if (buf.remaining() < 4) return null;
+            int authorBytes = buf.getInt();
+            if (authorBytes <= 0 || authorBytes > buf.remaining()) return null;
+            String author = utf8(buf.slice(buf.position(), authorBytes));
+            String name = utf8(buf.position(buf.position() + authorBytes));
+            return name.isEmpty() ? null : new PageCursor(author, name);
+        } catch (IllegalArgumentException | CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    private static String utf8(ByteBuffer bytes) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(bytes).toString();
+    }
+}
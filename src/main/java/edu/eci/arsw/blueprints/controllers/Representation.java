@@ -0,0 +1,50 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.List;
+
+/**
+ * Representaciones de los {@code GET} de planos. El controlador la elige antes de leer los datos y
+ * fija con ella el {@code Content-Type} y el sufijo del ETag: así un ETag fuerte identifica un solo
+ * cuerpo y un 304 nunca valida, en una caché compartida, el cuerpo guardado de otro formato.
+ */
+enum Representation {
+
+    JSON(MediaType.APPLICATION_JSON, null),
+    COMPACT(CompactPointsModule.MEDIA, "compact"),
+    BINARY(BinaryBlueprintHttpMessageConverter.MEDIA, "binary");
+
+    final MediaType mediaType;
+    /** Sufijo del ETag; {@code null} en JSON, que conserva los ETags {@code "scope-version"}. */
+    final String etagSuffix;
+
+    Representation(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    /**
+     * Representación para los tipos que pide la petición ({@code Accept} o {@code ?format=}), en el
+     * orden de preferencia que da {@link ContentNegotiationManager}. Los comodines resuelven a JSON,
+     * el formato por defecto. Retorna {@code null} si no acepta ninguna: Spring responderá 406.
+     */
+    static Representation negotiate(ContentNegotiationManager negotiation, NativeWebRequest request) {
+        List<MediaType> requested;
+        try {
+            requested = negotiation.resolveMediaTypes(request);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return null;
+        }
+        for (MediaType type : requested) {
+            if (type.getQualityValue() == 0) continue;
+            for (Representation r : values()) {
+                if (type.includes(r.mediaType)) return r;
+            }
+        }
+        return null;
+    }
+}
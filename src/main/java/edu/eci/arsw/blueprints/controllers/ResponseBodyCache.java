@@ -0,0 +1,254 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.services.Versioned;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché de cuerpos de respuesta ya serializados para {@code GET /{author}/{bpname}} y
+ * {@code GET /{author}}. Cada recurso guarda la versión de sus datos (la misma del ETag) y sus
+ * variantes: origen de los links × codificación ({@code gzip}, {@code deflate} o sin comprimir).
+ * Si la versión actual no coincide con la guardada, el recurso se vuelve a serializar; el
+ * controlador además invalida al escribir. Un acierto se responde escribiendo los bytes tal cual.
+ *
+ * <p>Solo cubre la representación JSON estándar ({@link Representation#JSON}): con otra el
+ * controlador sigue el camino normal. El tamaño total se acota en bytes; Caffeine
+ * expulsa recursos completos (W-TinyLFU) al superarlo.
+ *
+ * <p>Los contadores de {@link #stats()} se publican como {@code cache.gets} ({@code result=hit|miss}),
+ * {@code cache.evictions}, {@code cache.size} y {@code cache.weight} (bytes) con
+ * {@code cache=response-bodies}, en el {@link MeterRegistry} de la aplicación.
+ *
+ * <p>Propiedad: {@code blueprints.response-cache.max-bytes} (por defecto 64MB; 0 la desactiva).
+ */
+@Component
+public class ResponseBodyCache implements MeterBinder {
+
+    static final String CACHE_NAME = "response-bodies";
+
+    /** Codificaciones de contenido soportadas, en orden de preferencia. */
+    enum Coding {
+        GZIP("gzip"), DEFLATE("deflate"), IDENTITY(null);
+
+        final String header;
+
+        Coding(String header) { this.header = header; }
+
+        byte[] encode(byte[] identity) {
+            if (this == IDENTITY) return identity;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(identity.length / 4 + 64);
+            try (OutputStream out = this == GZIP ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+                out.write(identity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /** Sobrecosto aproximado por variante (clave, arreglo, entrada), para el presupuesto en bytes. */
+    private static final int VARIANT_OVERHEAD = 96;
+
+    /**
+     * Recurso cacheado: un plano ({@code name} no nulo) o los planos de un autor ({@code name} nulo).
+     * Es un record y no una cadena concatenada porque autor y nombre pueden contener cualquier carácter.
+     */
+    record Resource(String author, String name) { }
+
+    private final Cache<Resource, Entry> cache;
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseBodyCache(@Value("${blueprints.response-cache.max-bytes:64MB}") DataSize maxBytes) {
+        this.cache = maxBytes.toBytes() > 0
+                ? Caffeine.newBuilder()
+                        .maximumWeight(maxBytes.toBytes())
+                        .weigher((Resource key, Entry e) -> e.weight())
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /** {@code true} si la caché está activa y la respuesta sale en JSON estándar. */
+    boolean applies(Representation representation) {
+        return cache != null && representation == Representation.JSON;
+    }
+
+    /** Codificación preferida según {@code Accept-Encoding}: gzip, luego deflate, si no sin comprimir. */
+    static Coding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) return Coding.IDENTITY;
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) refused = isZero(param.substring(2).trim());
+            }
+            if (refused) continue;
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) return Coding.GZIP;
+            if (coding.equalsIgnoreCase("deflate")) deflate = true;
+        }
+        return deflate ? Coding.DEFLATE : Coding.IDENTITY;
+    }
+
+    private static boolean isZero(String q) {
+        try {
+            return Double.parseDouble(q) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Serializa la respuesta JSON de un recurso junto con la versión de los datos que contiene. */
+    @FunctionalInterface
+    interface Loader {
+        Versioned<byte[]> load() throws BlueprintNotFoundException;
+    }
+
+    /**
+     * Cuerpo de {@code resource} para la variante ({@code origin} de los links, {@code coding}) y la
+     * versión con la que sale. Si {@code version} es la guardada se responde con los bytes guardados;
+     * si solo falta la codificación se comprime el cuerpo ya serializado; si no, se llama a
+     * {@code loader}, cuya versión (quizá más nueva que {@code version}) es la que se guarda y se retorna.
+     */
+    Versioned<byte[]> body(Resource resource, long version, String origin, Coding coding, Loader loader)
+            throws BlueprintNotFoundException {
+        Entry e = cache.getIfPresent(resource);
+        byte[] identity = null;
+        if (e != null && e.version == version) {
+            byte[] body = e.variant(origin, coding);
+            if (body != null) {
+                hits.increment();
+                return new Versioned<>(body, version);
+            }
+            identity = e.variant(origin, Coding.IDENTITY);
+        }
+        misses.increment();
+        if (identity == null) {
+            Versioned<byte[]> fresh = loader.load();
+            version = fresh.version();
+            identity = fresh.value();
+            put(resource, version, origin, Coding.IDENTITY, identity);
+        }
+        if (coding == Coding.IDENTITY) return new Versioned<>(identity, version);
+        byte[] body = coding.encode(identity);
+        put(resource, version, origin, coding, body);
+        return new Versioned<>(body, version);
+    }
+
+    /**
+     * Guarda una variante. Si el recurso tiene otra versión guardada, la más reciente gana: las
+     * versiones solo crecen (ver {@code BlueprintPersistence}).
+     */
+    private void put(Resource resource, long version, String origin, Coding coding, byte[] body) {
+        cache.asMap().compute(resource, (k, old) -> {
+            if (old == null || old.version < version) return Entry.of(version, origin, coding, body);
+            if (old.version > version) return old;
+            return old.with(origin, coding, body);
+        });
+    }
+
+    public void invalidate(Resource resource) {
+        if (cache != null) cache.invalidate(resource);
+    }
+
+    static Resource blueprintKey(String author, String name) { return new Resource(author, name); }
+
+    static Resource authorKey(String author) { return new Resource(author, null); }
+
+    /** Contadores acumulados desde el arranque; {@code bytes} es el peso actual (aproximado). */
+    public Stats stats() {
+        if (cache == null) return new Stats(0, 0, 0, 0);
+        cache.cleanUp();
+        long bytes = cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+        return new Stats(hits.sum(), misses.sum(), cache.stats().evictionCount(), bytes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache == null) return;
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Respuestas servidas con bytes guardados")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Respuestas que se serializaron (o comprimieron) de nuevo")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                .tag("cache", CACHE_NAME)
+                .description("Recursos expulsados por exceder el presupuesto en bytes")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .description("Recursos guardados (aproximado)")
+                .register(registry);
+        Gauge.builder("cache.weight", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .description("Peso actual de la caché")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    /**
+     * @param hits      Respuestas servidas con bytes guardados.
+     * @param misses    Respuestas que se serializaron (o comprimieron) de nuevo.
+     * @param evictions Recursos expulsados por exceder el presupuesto en bytes.
+     * @param bytes     Peso actual de la caché.
+     */
+    public record Stats(long hits, long misses, long evictions, long bytes) { }
+
+    /** Variantes de un recurso en una versión; inmutable, agregar una variante crea otra entrada. */
+    private record Entry(long version, String[] origins, Coding[] codings, byte[][] bodies) {
+
+        static Entry of(long version, String origin, Coding coding, byte[] body) {
+            return new Entry(version, new String[]{origin}, new Coding[]{coding}, new byte[][]{body});
+        }
+
+        byte[] variant(String origin, Coding coding) {
+            for (int i = 0; i < bodies.length; i++) {
+                if (codings[i] == coding && origins[i].equals(origin)) return bodies[i];
+            }
+            return null;
+        }
+
+        Entry with(String origin, Coding coding, byte[] body) {
+            if (variant(origin, coding) != null) return this;
+            int n = bodies.length;
+            String[] o = Arrays.copyOf(origins, n + 1);
+            Coding[] c = Arrays.copyOf(codings, n + 1);
+            byte[][] b = Arrays.copyOf(bodies, n + 1);
+            o[n] = origin;
+            c[n] = coding;
+            b[n] = body;
+            return new Entry(version, o, c, b);
+        }
+
+        int weight() {
+            long w = 0;
+            for (byte[] body : bodies) w += body.length + VARIANT_OVERHEAD;
+            return (int) Math.min(Integer.MAX_VALUE, w);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cadena ordenada de filtros ejecutada en una sola pasada sobre el arreglo de puntos.
+ * Las etapas se encadenan como {@link PointSink}s, así que cada punto atraviesa toda la cadena
+ * antes de leer el siguiente y no se crean Blueprints ni listas intermedias: la única
+ * asignación es el arreglo de salida.
+ *
+ * <p>Se configura con {@code blueprints.filters.chain}, por ejemplo
+ * {@code blueprints.filters.chain=redundancy,undersampling}.
+ */
+public class FilterPipeline implements BlueprintsFilter {
+
+    private final PointStage[] stages;
+
+    public FilterPipeline(List<? extends PointStage> stages) {
+        this.stages = stages.toArray(new PointStage[0]);
+    }
+
+    public int size() { return stages.length; }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        if (stages.length == 0) return bp;
+        Collector out = new Collector(bp.pointCount());
+        PointSink head = out;
+        for (int i = stages.length - 1; i >= 0; i--) head = stages[i].open(head);
+        bp.forEachPoint(head);
+        head.end();
+        return Blueprint.ofCoordinates(bp.getAuthor(), bp.getName(), out.xy, out.count);
+    }
+
+    /** Etapa terminal: acumula las coordenadas intercaladas que sobreviven a la cadena. */
+    private static final class Collector implements PointSink {
+
+        int[] xy;
+        int count;
+
+        Collector(int expected) { this.xy = new int[2 * Math.max(expected, 1)]; }
+
+        @Override
+        public void accept(int x, int y) {
+            if (2 * count == xy.length) xy = Arrays.copyOf(xy, xy.length * 2);
+            xy[2 * count]     = x;
+            xy[2 * count + 1] = y;
+            count++;
+        }
+    }
+}
@@ -7,10 +7,10 @@ import org.springframework.stereotype.Component;
 /**
  * Filtro identidad (sin transformación): retorna el blueprint sin cambios.
  * Activo únicamente cuando NO está activo ningún otro filtro.
- * Perfiles que lo desactivan: "redundancy", "undersampling".
+ * Perfiles que lo desactivan: "redundancy", "undersampling", "simplify".
  */
 @Component
-@Profile("!redundancy & !undersampling")
+@Profile("!redundancy & !undersampling & !simplify")
 public class IdentityFilter implements BlueprintsFilter {
     @Override
     public Blueprint apply(Blueprint bp) { return bp; }
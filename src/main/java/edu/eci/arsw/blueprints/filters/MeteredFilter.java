@@ -0,0 +1,36 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador que mide cada {@link BlueprintsFilter#apply} en el timer {@code blueprints.filter},
+ * etiquetado con la clase del filtro. El timer se registra una sola vez: por llamada solo se
+ * leen dos veces {@link System#nanoTime()} y se registra la duración.
+ */
+public class MeteredFilter implements BlueprintsFilter {
+
+    private final BlueprintsFilter delegate;
+    private final Timer timer;
+
+    public MeteredFilter(BlueprintsFilter delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.timer = Timer.builder("blueprints.filter")
+                .description("Tiempo de BlueprintsFilter.apply por plano")
+                .tag("filter", delegate.getClass().getSimpleName())
+                .register(registry);
+    }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        long start = System.nanoTime();
+        try {
+            return delegate.apply(bp);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
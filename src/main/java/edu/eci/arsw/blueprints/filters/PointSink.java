@@ -0,0 +1,12 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.PointConsumer;
+
+/**
+ * Destino de los puntos que emite una etapa de {@link FilterPipeline}.
+ * {@link #end()} se invoca una sola vez cuando ya no llegan más puntos.
+ */
+public interface PointSink extends PointConsumer {
+
+    default void end() { }
+}
@@ -0,0 +1,17 @@
+package edu.eci.arsw.blueprints.filters;
+
+/**
+ * Filtro que puede ejecutarse como etapa de un {@link FilterPipeline}: en lugar de construir un
+ * Blueprint intermedio, recibe los puntos uno a uno y emite los que conserva hacia la etapa
+ * siguiente.
+ */
+public interface PointStage {
+
+    /**
+     * Crea el estado de la etapa para un recorrido.
+     *
+     * @param downstream Etapa siguiente del pipeline.
+     * @return Sink que recibe los puntos de la etapa anterior.
+     */
+    PointSink open(PointSink downstream);
+}
@@ -1,32 +1,51 @@
 package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
-import edu.eci.arsw.blueprints.model.Point;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Elimina puntos consecutivos duplicados (x,y) para reducir redundancia.
- * Perfil: "redundancy"
+ * Perfil: "redundancy" · Etapa de pipeline: "redundancy"
  */
 @Component
 @Profile("redundancy")
-public class RedundancyFilter implements BlueprintsFilter {
+public class RedundancyFilter implements BlueprintsFilter, PointStage {
     @Override
     public Blueprint apply(Blueprint bp) {
-        List<Point> in = bp.getPoints();
-        if (in.isEmpty()) return bp;
-        List<Point> out = new ArrayList<>();
-        Point prev = null;
-        for (Point p : in) {
-            if (prev == null || !(prev.x()==p.x() && prev.y()==p.y())) {
-                out.add(p);
-                prev = p;
+        int n = bp.pointCount();
+        if (n == 0) return bp;
+        int[] out = new int[2 * n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int x = bp.x(i), y = bp.y(i);
+            if (count == 0 || !(out[2 * count - 2] == x && out[2 * count - 1] == y)) {
+                out[2 * count]     = x;
+                out[2 * count + 1] = y;
+                count++;
             }
         }
-        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+        return Blueprint.ofCoordinates(bp.getAuthor(), bp.getName(), out, count);
+    }
+
+    @Override
+    public PointSink open(PointSink downstream) {
+        return new PointSink() {
+            private boolean first = true;
+            private int prevX, prevY;
+
+            @Override
+            public void accept(int x, int y) {
+                if (first || !(prevX == x && prevY == y)) {
+                    downstream.accept(x, y);
+                    prevX = x;
+                    prevY = y;
+                    first = false;
+                }
+            }
+
+            @Override
+            public void end() { downstream.end(); }
+        };
     }
 }
@@ -0,0 +1,169 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Simplificación de polilíneas Visvalingam-Whyatt: elimina repetidamente el punto cuyo triángulo
+ * con sus vecinos tiene menor área, mientras esa área sea menor que la tolerancia. Conserva las
+ * esquinas marcadas y descarta los puntos de los tramos rectos. Los extremos nunca se eliminan.
+ *
+ * <p>Es iterativo y usa un montículo indexado sobre arreglos primitivos: O(n log n) en tiempo y
+ * cinco arreglos de n elementos en memoria, sin objetos por punto.
+ *
+ * <p>Perfil: "simplify" · Etapa de pipeline: "simplify" ·
+ * Tolerancia (área mínima del triángulo): {@code blueprints.filters.simplify.tolerance}.
+ */
+@Component
+@Profile("simplify")
+public class SimplificationFilter implements BlueprintsFilter, PointStage {
+
+    private final double tolerance;
+
+    public SimplificationFilter(@Value("${blueprints.filters.simplify.tolerance:1.0}") double tolerance) {
+        if (tolerance < 0) throw new IllegalArgumentException("tolerance must be >= 0: " + tolerance);
+        this.tolerance = tolerance;
+    }
+
+    public double tolerance() { return tolerance; }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        int n = bp.pointCount();
+        if (n <= 2) return bp;
+        int[] xy = bp.copyCoordinates();
+        n = xy.length / 2;
+        int[] next = simplify(xy, n, tolerance);
+        int count = 0;
+        for (int i = 0; i < n; i = next[i]) {
+            xy[2 * count]     = xy[2 * i];
+            xy[2 * count + 1] = xy[2 * i + 1];
+            count++;
+        }
+        return Blueprint.ofCoordinates(bp.getAuthor(), bp.getName(), xy, count);
+    }
+
+    /** Etapa de barrera: acumula la entrada y emite los supervivientes al terminar. */
+    @Override
+    public PointSink open(PointSink downstream) {
+        return new PointSink() {
+            private int[] xy = new int[64];
+            private int n;
+
+            @Override
+            public void accept(int x, int y) {
+                if (2 * n == xy.length) xy = Arrays.copyOf(xy, xy.length * 2);
+                xy[2 * n]     = x;
+                xy[2 * n + 1] = y;
+                n++;
+            }
+
+            @Override
+            public void end() {
+                if (n <= 2) {
+                    for (int i = 0; i < n; i++) downstream.accept(xy[2 * i], xy[2 * i + 1]);
+                } else {
+                    int[] next = simplify(xy, n, tolerance);
+                    for (int i = 0; i < n; i = next[i]) downstream.accept(xy[2 * i], xy[2 * i + 1]);
+                }
+                downstream.end();
+            }
+        };
+    }
+
+    /**
+     * Ejecuta Visvalingam-Whyatt sobre los primeros {@code n} puntos de {@code xy} (n ≥ 3).
+     *
+     * @return Lista enlazada de supervivientes: recorrer {@code i = next[i]} desde 0 hasta {@code n}.
+     */
+    static int[] simplify(int[] xy, int n, double tolerance) {
+        int[] prev = new int[n];
+        int[] next = new int[n];
+        for (int i = 0; i < n; i++) {
+            prev[i] = i - 1;
+            next[i] = i + 1;
+        }
+        int interior = n - 2;
+        double[] area = new double[n];
+        int[] heap = new int[interior];
+        int[] pos = new int[n];
+        for (int i = 1; i <= interior; i++) {
+            area[i] = triangleArea(xy, i - 1, i, i + 1);
+            heap[i - 1] = i;
+            pos[i] = i - 1;
+        }
+        int size = interior;
+        for (int k = size / 2 - 1; k >= 0; k--) siftDown(heap, pos, area, k, size);
+
+        double lastArea = 0;
+        while (size > 0) {
+            int i = heap[0];
+            if (area[i] >= tolerance) break;
+            lastArea = area[i];
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                pos[heap[0]] = 0;
+                siftDown(heap, pos, area, 0, size);
+            }
+            int p = prev[i], q = next[i];
+            next[p] = q;
+            prev[q] = p;
+            if (p > 0) updateArea(xy, prev, next, area, heap, pos, size, p, lastArea);
+            if (q < n - 1) updateArea(xy, prev, next, area, heap, pos, size, q, lastArea);
+        }
+        return next;
+    }
+
+    /**
+     * Recalcula el área de un vecino del punto eliminado. El área efectiva nunca baja de la del
+     * último eliminado, para que un punto no se elimine antes que el que lo dejó expuesto.
+     */
+    private static void updateArea(int[] xy, int[] prev, int[] next, double[] area,
+                                   int[] heap, int[] pos, int size, int i, double floor) {
+        double old = area[i];
+        area[i] = Math.max(triangleArea(xy, prev[i], i, next[i]), floor);
+        if (area[i] < old) siftUp(heap, pos, area, pos[i]);
+        else siftDown(heap, pos, area, pos[i], size);
+    }
+
+    private static double triangleArea(int[] xy, int a, int b, int c) {
+        double ax = xy[2 * a], ay = xy[2 * a + 1];
+        double bx = xy[2 * b], by = xy[2 * b + 1];
+        double cx = xy[2 * c], cy = xy[2 * c + 1];
+        return Math.abs((bx - ax) * (cy - ay) - (cx - ax) * (by - ay)) / 2;
+    }
+
+    private static void siftUp(int[] heap, int[] pos, double[] area, int k) {
+        int item = heap[k];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (area[heap[parent]] <= area[item]) break;
+            heap[k] = heap[parent];
+            pos[heap[k]] = k;
+            k = parent;
+        }
+        heap[k] = item;
+        pos[item] = k;
+    }
+
+    private static void siftDown(int[] heap, int[] pos, double[] area, int k, int size) {
+        int item = heap[k];
+        int half = size >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            int right = child + 1;
+            if (right < size && area[heap[right]] < area[heap[child]]) child = right;
+            if (area[item] <= area[heap[child]]) break;
+            heap[k] = heap[child];
+            pos[heap[k]] = k;
+            k = child;
+        }
+        heap[k] = item;
+        pos[item] = k;
+    }
+}
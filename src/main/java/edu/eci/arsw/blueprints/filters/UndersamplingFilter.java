@@ -1,28 +1,56 @@
 package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
-import edu.eci.arsw.blueprints.model.Point;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Undersampling: conserva 1 de cada 2 puntos (índices pares), reduciendo la densidad.
- * Perfil: "undersampling"
+ * Perfil: "undersampling" · Etapa de pipeline: "undersampling"
  */
 @Component
 @Profile("undersampling")
-public class UndersamplingFilter implements BlueprintsFilter {
+public class UndersamplingFilter implements BlueprintsFilter, PointStage {
     @Override
     public Blueprint apply(Blueprint bp) {
-        List<Point> in = bp.getPoints();
-        if (in.size() <= 2) return bp;
-        List<Point> out = new ArrayList<>();
-        for (int i = 0; i < in.size(); i++) {
-            if (i % 2 == 0) out.add(in.get(i));
+        int n = bp.pointCount();
+        if (n <= 2) return bp;
+        int count = (n + 1) / 2;
+        int[] out = new int[2 * count];
+        for (int i = 0; i < count; i++) {
+            out[2 * i]     = bp.x(2 * i);
+            out[2 * i + 1] = bp.y(2 * i);
         }
-        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+        return Blueprint.ofCoordinates(bp.getAuthor(), bp.getName(), out, count);
+    }
+
+    /**
+     * En el pipeline no se conoce de antemano cuántos puntos llegan: el punto de índice 1 se
+     * retiene y solo se emite al final si la entrada tuvo exactamente 2 puntos, igual que
+     * {@link #apply}.
+     */
+    @Override
+    public PointSink open(PointSink downstream) {
+        return new PointSink() {
+            private int index;
+            private int heldX, heldY;
+
+            @Override
+            public void accept(int x, int y) {
+                if ((index & 1) == 0) {
+                    downstream.accept(x, y);
+                } else if (index == 1) {
+                    heldX = x;
+                    heldY = y;
+                }
+                index++;
+            }
+
+            @Override
+            public void end() {
+                if (index == 2) downstream.accept(heldX, heldY);
+                downstream.end();
+            }
+        };
     }
 }
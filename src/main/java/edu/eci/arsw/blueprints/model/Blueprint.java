@@ -1,27 +1,160 @@
 package edu.eci.arsw.blueprints.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Plano identificado por autor y nombre.
+ * Los puntos se guardan empaquetados en un {@code int[]} con las coordenadas intercaladas
+ * {@code x0,y0,x1,y1,...}: un plano de n puntos ocupa 8·n bytes en lugar de n objetos {@link Point}.
+ * {@link #getPoints()} sigue exponiendo una vista {@code List<Point>} para la API; filtros y
+ * serializadores pueden leer las coordenadas sin boxing con {@link #pointCount()}, {@link #x(int)}
+ * y {@link #y(int)}.
+ *
+ * <p>Las escrituras son seguras entre hilos y libres de bloqueo: el estado es un snapshot inmutable
+ * ({@code coords}, {@code size}) publicado con CAS. Un {@link #addPoint} instala primero una
+ * operación pendiente que cualquier hilo puede completar (escribe la misma coordenada en la misma
+ * posición y publica el snapshot siguiente), así que ningún escritor espera a otro. Los lectores
+ * obtienen siempre un prefijo consistente sin tomar locks.
+ */
 public class Blueprint {
 
+    private static final int[] EMPTY = new int[0];
+
     private String author;
     private String name;
-    private final List<Point> points = new ArrayList<>();
+    private final AtomicReference<State> state;
 
     public Blueprint(String author, String name, List<Point> pts) {
         this.author = author;
         this.name = name;
-        if (pts != null) points.addAll(pts);
+        if (pts instanceof PointsView v) {
+            this.state = new AtomicReference<>(State.committed(
+                    v.size == 0 ? EMPTY : Arrays.copyOf(v.coords, 2 * v.size), v.size));
+            return;
+        }
+        int n = pts == null ? 0 : pts.size();
+        int[] coords = n == 0 ? EMPTY : new int[2 * n];
+        if (n > 0) {
+            int i = 0;
+            for (Point p : pts) {
+                coords[i++] = p.x();
+                coords[i++] = p.y();
+            }
+        }
+        this.state = new AtomicReference<>(State.committed(coords, n));
+    }
+
+    private Blueprint(String author, String name, int[] coords, int size) {
+        this.author = author;
+        this.name = name;
+        this.state = new AtomicReference<>(State.committed(coords, size));
+    }
+
+    /**
+     * Crea un plano a partir de coordenadas intercaladas {@code x0,y0,x1,y1,...}.
+     * Se copian las primeras {@code 2·count} posiciones de {@code xy}.
+     */
+    public static Blueprint ofCoordinates(String author, String name, int[] xy, int count) {
+        if (count < 0 || 2L * count > xy.length) {
+            throw new IllegalArgumentException("count out of range: " + count);
+        }
+        return new Blueprint(author, name, count == 0 ? EMPTY : Arrays.copyOf(xy, 2 * count), count);
+    }
+
+    /**
+     * Lista inmutable de {@code count} puntos respaldada directamente por {@code xy} (sin copia),
+     * para deserializadores que leen coordenadas intercaladas. El constructor de {@link Blueprint}
+     * la reconoce y copia el arreglo sin crear objetos {@link Point}.
+     */
+    public static List<Point> packedPoints(int[] xy, int count) {
+        if (count < 0 || 2L * count > xy.length) {
+            throw new IllegalArgumentException("count out of range: " + count);
+        }
+        return new PointsView(xy, count);
     }
 
     public String getAuthor() { return author; }
     public String getName() { return name; }
-    public List<Point> getPoints() { return Collections.unmodifiableList(points); }
 
-    public void addPoint(Point p) { points.add(p); }
+    /** Vista inmutable de los puntos presentes en el momento de la llamada. */
+    public List<Point> getPoints() {
+        State s = state.get();
+        return new PointsView(s.coords, s.size);
+    }
+
+    // ── Acceso primitivo (sin boxing) ────────────────────────────────────────
+
+    /** Número de puntos del plano. */
+    public int pointCount() { return state.get().size; }
+
+    /**
+     * Versión de modificación del plano. Los planos solo cambian agregando puntos, así que el
+     * número de puntos identifica cada versión y se conserva igual en cualquier backend.
+     */
+    public long version() { return state.get().size; }
+
+    /** Coordenada x del punto {@code i}. */
+    public int x(int i) {
+        State s = state.get();
+        return s.coords[2 * Objects.checkIndex(i, s.size)];
+    }
+
+    /** Coordenada y del punto {@code i}. */
+    public int y(int i) {
+        State s = state.get();
+        return s.coords[2 * Objects.checkIndex(i, s.size) + 1];
+    }
+
+    /** Copia de las coordenadas intercaladas {@code x0,y0,x1,y1,...} (longitud {@code 2·pointCount()}). */
+    public int[] copyCoordinates() {
+        State s = state.get();
+        return Arrays.copyOf(s.coords, 2 * s.size);
+    }
+
+    /** Recorre en orden los puntos de un snapshot consistente, sin copiar ni crear objetos Point. */
+    public void forEachPoint(PointConsumer action) {
+        State s = state.get();
+        int[] c = s.coords;
+        for (int i = 0, end = 2 * s.size; i < end; i += 2) {
+            action.accept(c[i], c[i + 1]);
+        }
+    }
+
+    public void addPoint(Point p) { addPoint(p.x(), p.y()); }
+
+    /** Agrega un punto al final. Seguro entre hilos y libre de bloqueo. */
+    public void addPoint(int x, int y) {
+        for (;;) {
+            State s = state.get();
+            if (s.pending) {
+                complete(s);
+            } else {
+                State p = State.pending(s, x, y);
+                if (state.compareAndSet(s, p)) {
+                    complete(p);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Completa una operación pendiente: escribe la coordenada en la posición {@code size} (todos los
+     * hilos que ayudan escriben el mismo valor) y publica el snapshot con un punto más.
+     */
+    private void complete(State p) {
+        int[] c = p.coords;
+        int k = p.size;
+        if (2 * k == c.length) c = Arrays.copyOf(c, Math.max(8, c.length * 2));
+        c[2 * k]     = p.pendingX;
+        c[2 * k + 1] = p.pendingY;
+        state.compareAndSet(p, State.committed(c, k + 1));
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -34,4 +167,50 @@ public class Blueprint {
     public int hashCode() {
         return Objects.hash(author, name);
     }
+
+    /**
+     * Estado inmutable: las posiciones {@code [0, 2·size)} de {@code coords} son definitivas.
+     * Si {@code pending} es verdadero hay un punto en curso de añadirse en la posición {@code size}.
+     */
+    private static final class State {
+
+        final int[] coords;
+        final int size;
+        final boolean pending;
+        final int pendingX;
+        final int pendingY;
+
+        private State(int[] coords, int size, boolean pending, int pendingX, int pendingY) {
+            this.coords = coords;
+            this.size = size;
+            this.pending = pending;
+            this.pendingX = pendingX;
+            this.pendingY = pendingY;
+        }
+
+        static State committed(int[] coords, int size) { return new State(coords, size, false, 0, 0); }
+
+        static State pending(State base, int x, int y) { return new State(base.coords, base.size, true, x, y); }
+    }
+
+    /** Vista {@code List<Point>} sobre un prefijo del arreglo empaquetado; crea cada Point al leerlo. */
+    private static final class PointsView extends AbstractList<Point> implements RandomAccess {
+
+        private final int[] coords;
+        private final int size;
+
+        PointsView(int[] coords, int size) {
+            this.coords = coords;
+            this.size = size;
+        }
+
+        @Override
+        public Point get(int index) {
+            int i = 2 * Objects.checkIndex(index, size);
+            return new Point(coords[i], coords[i + 1]);
+        }
+
+        @Override
+        public int size() { return size; }
+    }
 }
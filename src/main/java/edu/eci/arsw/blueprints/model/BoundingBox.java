@@ -0,0 +1,35 @@
+package edu.eci.arsw.blueprints.model;
+
+/**
+ * Rectángulo cerrado alineado con los ejes: incluye sus bordes, así que un punto sobre el borde de
+ * una consulta cuenta como intersección. Un plano sin puntos no tiene caja ({@link #of} retorna
+ * {@code null}).
+ */
+public record BoundingBox(int minX, int minY, int maxX, int maxY) {
+
+    public BoundingBox {
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("min must not exceed max: (%d,%d)-(%d,%d)".formatted(minX, minY, maxX, maxY));
+        }
+    }
+
+    /** Caja mínima que contiene todos los puntos del plano, o {@code null} si no tiene puntos. */
+    public static BoundingBox of(Blueprint bp) {
+        int[] b = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        bp.forEachPoint((x, y) -> {
+            if (x < b[0]) b[0] = x;
+            if (y < b[1]) b[1] = y;
+            if (x > b[2]) b[2] = x;
+            if (y > b[3]) b[3] = y;
+        });
+        return b[0] > b[2] ? null : new BoundingBox(b[0], b[1], b[2], b[3]);
+    }
+
+    public boolean intersects(BoundingBox o) {
+        return minX <= o.maxX && o.minX <= maxX && minY <= o.maxY && o.minY <= maxY;
+    }
+
+    public boolean contains(int x, int y) {
+        return minX <= x && x <= maxX && minY <= y && y <= maxY;
+    }
+}
@@ -0,0 +1,7 @@
+package edu.eci.arsw.blueprints.model;
+
+/** Receptor de coordenadas sin boxing, usado para recorrer los puntos de un {@link Blueprint}. */
+@FunctionalInterface
+public interface PointConsumer {
+    void accept(int x, int y);
+}
@@ -1,17 +1,112 @@
 package edu.eci.arsw.blueprints.persistence;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BlueprintPersistence {
 
     void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException;
 
+    /**
+     * Guarda varios planos en una sola operación. Un plano en conflicto (ya existe uno con el mismo
+     * autor y nombre, en el almacén o antes en el mismo lote) no impide guardar los demás.
+     *
+     * @return Los planos que no se guardaron por conflicto, en el orden de entrada.
+     */
+    default List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        List<Blueprint> conflicts = new ArrayList<>();
+        for (Blueprint bp : bps) {
+            try {
+                saveBlueprint(bp);
+            } catch (BlueprintPersistenceException e) {
+                conflicts.add(bp);
+            }
+        }
+        return conflicts;
+    }
+
     Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException;
 
     Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException;
 
     Set<Blueprint> getAllBlueprints();
 
+    /**
+     * Paginación por cursor (keyset): hasta {@code limit} planos ordenados por (autor, nombre)
+     * estrictamente posteriores a ({@code afterAuthor}, {@code afterName}).
+     * Con {@code afterAuthor == null} la página empieza desde el primer plano.
+     */
+    List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit);
+
+    /**
+     * Recorre todos los planos entregándolos uno a uno a {@code action}, sin reunirlos antes en
+     * memoria. Las implementaciones deben mantener el consumo de memoria constante respecto al
+     * tamaño del catálogo; la implementación por defecto solo sirve para backends pequeños.
+     */
+    default void forEachBlueprint(Consumer<? super Blueprint> action) {
+        getAllBlueprints().forEach(action);
+    }
+
+    /**
+     * Planos cuya caja envolvente ({@link BoundingBox}) intersecta {@code area}, ordenados por
+     * (autor, nombre); los planos sin puntos no aparecen. Las implementaciones deben responder con un
+     * índice espacial, en tiempo proporcional a los resultados; la implementación por defecto recorre
+     * el catálogo completo y solo sirve para backends pequeños.
+     */
+    default List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        List<Blueprint> hits = new ArrayList<>();
+        forEachBlueprint(bp -> {
+            BoundingBox box = BoundingBox.of(bp);
+            if (box != null && box.intersects(area)) hits.add(bp);
+        });
+        hits.sort(Comparator.comparing(Blueprint::getAuthor).thenComparing(Blueprint::getName));
+        return hits;
+    }
+
+    // ── Versiones (ETags) ────────────────────────────────────────────────────
+    //
+    // La versión de un plano es su número de puntos: solo crece, con cada addPoint. La de un
+    // conjunto de planos (un autor, el catálogo) es la suma de (1 + puntos) de cada plano, que crece
+    // con cada alta y cada punto agregado. Las implementaciones deben poder responderlas sin cargar
+    // puntos; las versiones por defecto sí los cargan y solo sirven para backends pequeños.
+
+    /** Versión de un conjunto de planos según la definición de arriba. */
+    static long versionOf(Collection<Blueprint> bps) {
+        long v = 0;
+        for (Blueprint bp : bps) v += 1 + bp.version();
+        return v;
+    }
+
+    default long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return getBlueprint(author, name).version();
+    }
+
+    default long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        return versionOf(getBlueprintsByAuthor(author));
+    }
+
+    default long getCatalogVersion() {
+        long[] v = {0};
+        forEachBlueprint(bp -> v[0] += 1 + bp.version());
+        return v[0];
+    }
+
     void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException;
+
+    /**
+     * Agrega varios puntos al final del plano, en orden. Las implementaciones que puedan hacerlo
+     * deben reservar posiciones contiguas; la implementación por defecto agrega de a uno, así que
+     * los puntos pueden intercalarse con appends concurrentes.
+     */
+    default void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        if (points.isEmpty()) getBlueprint(author, name);
+        for (Point p : points) addPoint(author, name, p.x(), p.y());
+    }
 }
@@ -1,13 +1,18 @@
 package edu.eci.arsw.blueprints.persistence.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
 import java.util.List;
-import static jakarta.persistence.FetchType.EAGER;
 
 /**
  * Entidad JPA que representa un Blueprint en la base de datos PostgreSQL.
- * Se mapea a la tabla "blueprints"; los puntos se almacenan en "blueprint_points".
+ * Se mapea a la tabla "blueprints". Los puntos se almacenan en una de dos formas, por fila:
+ * una fila por punto en "blueprint_points", o empaquetados en la columna {@code points_packed}
+ * (8 bytes por punto) cuando esta no es nula.
+ *
+ * <p>{@code min_x}, {@code min_y}, {@code max_x} y {@code max_y} guardan la caja envolvente de los
+ * puntos, indexada con GiST para las consultas por área (ver {@code PostgresBlueprintPersistence}).
  */
 @Entity
 @Table(
@@ -29,7 +34,34 @@ public class BlueprintEntity {
     @Column(nullable = false)
     private String name;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    /**
+     * Siguiente {@code point_order} libre. Lo incrementa atómicamente el append de
+     * PostgresBlueprintPersistence; las filas previas a esta columna arrancan en 0 y se corrigen
+     * en su primer append.
+     */
+    @Column(name = "point_count", nullable = false)
+    @ColumnDefault("0")
+    private int pointCount;
+
+    /**
+     * Puntos empaquetados ({@code x},{@code y} int32 big-endian). Nulo para los planos que guardan
+     * sus puntos en {@code blueprint_points}.
+     */
+    @Column(name = "points_packed")
+    private byte[] pointsPacked;
+
+    /**
+     * Caja envolvente de los puntos. Un plano sin puntos guarda mínimos en {@code Integer.MAX_VALUE}
+     * y máximos en {@code Integer.MIN_VALUE}; {@code null} indica una fila anterior a estas columnas,
+     * aún sin calcular.
+     */
+    @Column(name = "min_x") private Integer minX;
+    @Column(name = "min_y") private Integer minY;
+    @Column(name = "max_x") private Integer maxX;
+    @Column(name = "max_y") private Integer maxY;
+
+    /** Solo se inicializa para planos sin {@link #pointsPacked}; siempre se accede dentro de una transacción. */
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(
         name = "blueprint_points",
         joinColumns = @JoinColumn(name = "blueprint_id")
@@ -44,15 +76,39 @@ public class BlueprintEntity {
         this.author = author;
         this.name   = name;
         if (points != null) this.points.addAll(points);
+        this.pointCount = this.points.size();
+    }
+
+    /** Plano con los puntos empaquetados en {@code points_packed}, sin filas en blueprint_points. */
+    public BlueprintEntity(String author, String name, byte[] pointsPacked, int pointCount) {
+        this.author       = author;
+        this.name         = name;
+        this.pointsPacked = pointsPacked;
+        this.pointCount   = pointCount;
     }
 
     public Long getId()                      { return id; }
     public String getAuthor()                { return author; }
     public String getName()                  { return name; }
     public List<PointEmbeddable> getPoints() { return points; }
+    public int getPointCount()               { return pointCount; }
+    public byte[] getPointsPacked()          { return pointsPacked; }
+    public Integer getMinX()                 { return minX; }
+    public Integer getMinY()                 { return minY; }
+    public Integer getMaxX()                 { return maxX; }
+    public Integer getMaxY()                 { return maxY; }
 
     public void setId(Long id)               { this.id = id; }
     public void setAuthor(String author)     { this.author = author; }
     public void setName(String name)         { this.name = name; }
     public void setPoints(List<PointEmbeddable> points) { this.points = points; }
+    public void setPointCount(int pointCount) { this.pointCount = pointCount; }
+    public void setPointsPacked(byte[] pointsPacked) { this.pointsPacked = pointsPacked; }
+
+    public void setBounds(int minX, int minY, int maxX, int maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
 }
@@ -0,0 +1,131 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot de {@link DurableBlueprintPersistence}: todos los planos con sus coordenadas empaquetadas,
+ * equivalentes a las generaciones del log hasta la suya inclusive. Formato (little-endian):
+ * {@code int} magic, {@code int} versión, {@code long} generación, {@code int} planos y por plano
+ * autor, nombre ({@code int} longitud + UTF-8), {@code int} n y 2·n coordenadas {@code int} — el
+ * mismo arreglo que {@link Blueprint} tiene en memoria, de modo que leerlo es una copia en bloque
+ * desde el archivo mapeado.
+ *
+ * <p>Se escribe en {@code snapshot-<generación>.tmp}, se hace fsync y se renombra atómicamente a
+ * {@code snapshot-<generación>.bin}: un snapshot con su nombre final siempre está completo. El
+ * directorio también se sincroniza, así que al retornar {@link #write} el rename es durable y se
+ * pueden borrar los logs que cubre.
+ */
+final class BlueprintSnapshot {
+
+    private static final int MAGIC = 0x4E535042;   // "BPSN"
+    private static final int FORMAT = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int BUFFER = 1 << 20;
+
+    private BlueprintSnapshot() { }
+
+    static Path file(Path dir, long generation) {
+        return dir.resolve(PREFIX + "%016d".formatted(generation) + SUFFIX);
+    }
+
+    /** Snapshots completos de {@code dir} por generación. */
+    static NavigableMap<Long, Path> files(Path dir) throws IOException {
+        return WriteAheadLog.generations(dir, PREFIX, SUFFIX);
+    }
+
+    /** Snapshots que quedaron a medio escribir (caída durante {@link #write}); se pueden borrar. */
+    static NavigableMap<Long, Path> incomplete(Path dir) throws IOException {
+        return WriteAheadLog.generations(dir, PREFIX, TMP_SUFFIX);
+    }
+
+    /**
+     * Escribe el snapshot de la generación {@code generation}: de cada plano de {@code blueprints}
+     * solo sus primeros {@code counts[i]} puntos (los que tenía al cerrarse esa generación).
+     */
+    static Path write(Path dir, long generation, List<Blueprint> blueprints, int[] counts) throws IOException {
+        Path target = file(dir, generation);
+        Path tmp = target.resolveSibling(PREFIX + "%016d".formatted(generation) + TMP_SUFFIX);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(FORMAT).putLong(generation).putInt(blueprints.size());
+            for (int i = 0; i < blueprints.size(); i++) {
+                Blueprint bp = blueprints.get(i);
+                putString(ch, buf, bp.getAuthor());
+                putString(ch, buf, bp.getName());
+                int count = counts[i];
+                room(ch, buf, 4).putInt(count);
+                int[] xy = bp.copyCoordinates();
+                for (int off = 0, end = 2 * count; off < end; ) {
+                    int n = Math.min(end - off, room(ch, buf, 4).remaining() / 4);
+                    buf.asIntBuffer().put(xy, off, n);
+                    buf.position(buf.position() + 4 * n);
+                    off += n;
+                }
+            }
+            drain(ch, buf);
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        WriteAheadLog.syncDirectory(dir);
+        return target;
+    }
+
+    private static void putString(FileChannel ch, ByteBuffer buf, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        room(ch, buf, 4).putInt(bytes.length);
+        for (int off = 0; off < bytes.length; ) {
+            int n = Math.min(bytes.length - off, room(ch, buf, 1).remaining());
+            buf.put(bytes, off, n);
+            off += n;
+        }
+    }
+
+    /** {@code buf} con al menos {@code bytes} libres, escribiendo su contenido al archivo si hace falta. */
+    private static ByteBuffer room(FileChannel ch, ByteBuffer buf, int bytes) throws IOException {
+        if (buf.remaining() < bytes) drain(ch, buf);
+        return buf;
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /** Entrega a {@code sink} los planos de {@code file} y retorna la generación que cubre. */
+    static long read(Path file, Consumer<Blueprint> sink) throws IOException {
+        try (MappedFileReader in = new MappedFileReader(file)) {
+            if (in.getInt() != MAGIC) throw new IOException("not a blueprint snapshot: " + file);
+            int format = in.getInt();
+            if (format != FORMAT) throw new IOException("unsupported snapshot format " + format + ": " + file);
+            long generation = in.getLong();
+            int blueprints = in.getInt();
+            for (int i = 0; i < blueprints; i++) {
+                String author = in.getString();
+                String name = in.getString();
+                int count = in.getInt();
+                if (count < 0 || 8L * count > in.remaining()) throw new IOException("bad point count in " + file);
+                int[] xy = new int[2 * count];
+                in.getInts(xy);
+                sink.accept(Blueprint.ofCoordinates(author, name, xy, count));
+            }
+            return generation;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepara al arrancar las consultas por área en PostgreSQL: crea el índice de cajas envolventes si
+ * no existe y calcula la caja de los planos guardados antes de esas columnas, por lotes de
+ * {@code blueprints.postgres.bounds-backfill.batch-size} (por defecto 500), cada uno en su propia
+ * transacción. Mientras tanto esos planos no aparecen en las consultas por área; el resto de la
+ * aplicación atiende peticiones con normalidad.
+ *
+ * <p>Los appends no calculan una caja NULL, así que el backfill no termina hasta que
+ * {@link PostgresBlueprintPersistence#countUnbounded()} es 0: si todas las filas pendientes tienen
+ * escrituras en curso ({@code SKIP LOCKED}), espera y reintenta, como {@link PackedPointsMigration}.
+ */
+@Component
+@Profile("postgres")
+public class BoundingBoxBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundingBoxBackfill.class);
+
+    private final PostgresBlueprintPersistence persistence;
+    private final int batchSize;
+
+    public BoundingBoxBackfill(PostgresBlueprintPersistence persistence,
+                               @Value("${blueprints.postgres.bounds-backfill.batch-size:500}") int batchSize) {
+        this.persistence = persistence;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        persistence.createBoundsIndex();
+        long total = 0;
+        long backoff = PackedPointsMigration.MIN_BACKOFF_MS;
+        while (true) {
+            int filled = persistence.backfillBounds(batchSize);
+            total += filled;
+            if (filled > 0) {
+                backoff = PackedPointsMigration.MIN_BACKOFF_MS;
+                continue;
+            }
+            long remaining = persistence.countUnbounded();
+            if (remaining == 0) break;
+            log.debug("{} blueprints locked by concurrent writes; retrying in {} ms", remaining, backoff);
+            Thread.sleep(backoff);
+            backoff = Math.min(2 * backoff, PackedPointsMigration.MAX_BACKOFF_MS);
+        }
+        if (total > 0) log.info("Computed bounding boxes for {} blueprints", total);
+    }
+}
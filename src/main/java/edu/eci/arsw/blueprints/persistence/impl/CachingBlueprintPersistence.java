@@ -0,0 +1,226 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de lectura a través (read-through) sobre cualquier {@link BlueprintPersistence}.
+ * Cachea las lecturas por clave ({@code getBlueprint}) y por autor ({@code getBlueprintsByAuthor})
+ * en dos cachés Caffeine acotadas por número de entradas (expulsión W-TinyLFU). Los recorridos
+ * completos, las páginas y las consultas por área pasan directo al backend: cachearlos desplazaría
+ * las entradas calientes.
+ *
+ * <p>Las entradas vencen {@code ttl} después de cargarse, y las búsquedas sin resultado (caché
+ * negativa) tras {@code negativeTtl}, más corto: las escrituras que no pasan por esta instancia
+ * (otro nodo, {@link PackedPointsMigration}, {@link BoundingBoxBackfill} o SQL manual) se ven en un
+ * tiempo acotado. Mientras tanto el cuerpo puede quedar atrás de la versión que el backend ya
+ * informa en {@code get*Version}; {@code ttl} acota también ese desfase.
+ * Las escrituras hechas a través del decorador ({@code saveBlueprint(s)}, {@code addPoint(s)})
+ * invalidan la clave y el autor afectados después de que el backend confirma la escritura; una
+ * carga en curso para esa clave termina antes de que la invalidación la descarte.
+ *
+ * <p>Las estadísticas de ambas cachés se publican con {@link CaffeineCacheMetrics} ({@code cache.gets},
+ * {@code cache.evictions}, {@code cache.size}, ...) con {@code cache=blueprints} y {@code cache=authors};
+ * como es un {@link MeterBinder}, Spring Boot lo registra en el {@link MeterRegistry} de la aplicación.
+ *
+ * <p>Lo registra {@code PersistenceCacheConfig} cuando {@code blueprints.persistence-cache.enabled=true}.
+ */
+public class CachingBlueprintPersistence implements BlueprintPersistence, MeterBinder {
+
+    private final BlueprintPersistence delegate;
+    private final Cache<Key, Optional<Blueprint>> byKey;
+    private final Cache<String, Optional<Set<Blueprint>>> byAuthor;
+
+    public CachingBlueprintPersistence(BlueprintPersistence delegate, long maxEntries, long maxAuthors,
+                                       Duration ttl, Duration negativeTtl) {
+        this.delegate = delegate;
+        this.byKey = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new EntryExpiry<Key, Blueprint>(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        this.byAuthor = Caffeine.newBuilder()
+                .maximumSize(maxAuthors)
+                .expireAfter(new EntryExpiry<String, Set<Blueprint>>(ttl, negativeTtl))
+                .recordStats()
+                .build();
+    }
+
+    /** Clave (autor, nombre) de {@code byKey}; ambos pueden contener cualquier carácter, así que no se concatenan. */
+    private record Key(String author, String name) { }
+
+    private void invalidate(String author, String name) {
+        byKey.invalidate(new Key(author, name));
+        byAuthor.invalidate(author);
+    }
+
+    // ── Escrituras: delegan e invalidan ──────────────────────────────────────
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        try {
+            delegate.saveBlueprint(bp);
+        } finally {
+            invalidate(bp.getAuthor(), bp.getName());
+        }
+    }
+
+    @Override
+    public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        try {
+            return delegate.saveBlueprints(bps);
+        } finally {
+            for (Blueprint bp : bps) invalidate(bp.getAuthor(), bp.getName());
+        }
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        try {
+            delegate.addPoint(author, name, x, y);
+        } finally {
+            invalidate(author, name);
+        }
+    }
+
+    @Override
+    public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        try {
+            delegate.addPoints(author, name, points);
+        } finally {
+            invalidate(author, name);
+        }
+    }
+
+    // ── Lecturas ─────────────────────────────────────────────────────────────
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        return byKey.get(new Key(author, name), k -> {
+            try {
+                return Optional.of(delegate.getBlueprint(author, name));
+            } catch (BlueprintNotFoundException e) {
+                return Optional.empty();
+            }
+        }).orElseThrow(() -> new BlueprintNotFoundException(
+                "Blueprint not found: %s/%s".formatted(author, name)));
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return byAuthor.get(author, a -> {
+            try {
+                return Optional.of(Collections.unmodifiableSet(delegate.getBlueprintsByAuthor(a)));
+            } catch (BlueprintNotFoundException e) {
+                return Optional.empty();
+            }
+        }).orElseThrow(() -> new BlueprintNotFoundException("No blueprints for author: " + author));
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return delegate.getAllBlueprints();
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        delegate.forEachBlueprint(action);
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        return delegate.getBlueprintsIntersecting(area);
+    }
+
+    // ── Versiones: siempre del backend, para que un ETag nunca salga de una entrada vieja ──
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return delegate.getBlueprintVersion(author, name);
+    }
+
+    @Override
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        return delegate.getAuthorVersion(author);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return delegate.getCatalogVersion();
+    }
+
+    // ── Estadísticas ─────────────────────────────────────────────────────────
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byKey, "blueprints");
+        CaffeineCacheMetrics.monitor(registry, byAuthor, "authors");
+    }
+
+    /** Contadores acumulados desde el arranque, por caché: {@code blueprints} y {@code authors}. */
+    public Map<String, Stats> stats() {
+        Map<String, Stats> out = new LinkedHashMap<>();
+        out.put("blueprints", Stats.of(byKey));
+        out.put("authors", Stats.of(byAuthor));
+        return out;
+    }
+
+    /**
+     * @param hits      Lecturas servidas desde la caché, incluidas las negativas.
+     * @param misses    Lecturas que tuvieron que ir al backend.
+     * @param evictions Entradas expulsadas por tamaño o por vencimiento.
+     * @param size      Entradas actuales (aproximado).
+     */
+    public record Stats(long hits, long misses, long evictions, long size) {
+        private static Stats of(Cache<?, ?> cache) {
+            cache.cleanUp();
+            CacheStats s = cache.stats();
+            return new Stats(s.hitCount(), s.missCount(), s.evictionCount(), cache.estimatedSize());
+        }
+    }
+
+    /** Vencimiento desde la carga: {@code ttl} para las entradas presentes, {@code negativeTtl} para las negativas. */
+    private record EntryExpiry<K, V>(Duration ttl, Duration negativeTtl) implements Expiry<K, Optional<V>> {
+
+        @Override
+        public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.impl.WriteAheadLog.FsyncPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Persistencia en memoria que sobrevive a reinicios. Lee y escribe sobre un
+ * {@link InMemoryBlueprintPersistence} y registra cada {@code saveBlueprint}/{@code addPoint} en un
+ * {@link WriteAheadLog} antes de retornar. Activa con el perfil "durable":
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=durable
+ *
+ * <p>Las escrituras se aplican en memoria y se agregan al log bajo un mismo lock, así que el orden
+ * de los puntos en el log es el de la memoria; el fsync ocurre fuera del lock y lo comparten las
+ * escrituras concurrentes (group commit). Un lector puede ver una escritura un instante antes de que
+ * esté en disco; quien la hizo recibe respuesta después. Tras un error de E/S del log las escrituras
+ * fallan con {@link UncheckedIOException} y las lecturas siguen funcionando.
+ *
+ * <p>Periódicamente, o cuando el log actual supera un tamaño, se toma un {@link BlueprintSnapshot}:
+ * se cierra la generación del log, se anota cuántos puntos tiene cada plano en ese instante y se
+ * escriben fuera del lock; luego se borran snapshots y logs anteriores. Al arrancar se mapea el
+ * último snapshot, se reaplica la cola del log y se abre una generación nueva. Si el directorio está
+ * vacío se cargan los mismos datos de ejemplo que en memoria. El tiempo de recuperación se mide con
+ * {@code RecoveryBenchmark}.
+ *
+ * <p>Propiedades bajo {@code blueprints.durable}: {@code dir} (por defecto {@code data/blueprints}),
+ * {@code fsync} ({@code always}, {@code interval} o {@code never}; ver {@link FsyncPolicy}),
+ * {@code fsync-interval} (1s), {@code snapshot-interval} (5m) y {@code snapshot-log-size} (64MB);
+ * 0 en cualquiera de los dos últimos desactiva ese disparador.
+ */
+@Repository
+@Profile("durable")
+public class DurableBlueprintPersistence implements BlueprintPersistence, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableBlueprintPersistence.class);
+
+    private final InMemoryBlueprintPersistence memory = InMemoryBlueprintPersistence.empty();
+    private final Path dir;
+    private final WriteAheadLog wal;
+    private final long snapshotLogBytes;
+
+    /** Serializa cada escritura en memoria con su append al log, y la rotación del log. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /** Un snapshot a la vez. */
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final AtomicBoolean snapshotQueued = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    public DurableBlueprintPersistence(@Value("${blueprints.durable.dir:data/blueprints}") String dir,
+                                       @Value("${blueprints.durable.fsync:always}") String fsync,
+                                       @Value("${blueprints.durable.fsync-interval:1s}") Duration fsyncInterval,
+                                       @Value("${blueprints.durable.snapshot-interval:5m}") Duration snapshotInterval,
+                                       @Value("${blueprints.durable.snapshot-log-size:64MB}") DataSize snapshotLogSize)
+            throws IOException {
+        this.dir = Path.of(dir);
+        this.snapshotLogBytes = snapshotLogSize.toBytes();
+        FsyncPolicy policy = FsyncPolicy.valueOf(fsync.trim().toUpperCase(Locale.ROOT));
+
+        Files.createDirectories(this.dir);
+        long replayedBytes = recover();
+        long next = Math.max(lastGeneration(BlueprintSnapshot.files(this.dir)),
+                             lastGeneration(WriteAheadLog.files(this.dir))) + 1;
+        this.wal = new WriteAheadLog(this.dir, next, policy);
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "blueprint-wal");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler = executor;
+        if (policy == FsyncPolicy.INTERVAL) {
+            long ms = fsyncInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::forceLog, ms, ms, TimeUnit.MILLISECONDS);
+        }
+        if (!snapshotInterval.isZero()) {
+            long ms = snapshotInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::snapshotIfLogged, ms, ms, TimeUnit.MILLISECONDS);
+        }
+        if (next == 1) {
+            saveBlueprints(InMemoryBlueprintPersistence.sampleBlueprints());
+        } else if (snapshotLogBytes > 0 && replayedBytes >= snapshotLogBytes) {
+            queueSnapshot();
+        }
+    }
+
+    private static long lastGeneration(NavigableMap<Long, Path> files) {
+        return files.isEmpty() ? 0 : files.lastKey();
+    }
+
+    // ── Recuperación ─────────────────────────────────────────────────────────
+
+    /** Carga el último snapshot y reaplica los logs posteriores. Retorna los bytes de log reaplicados. */
+    private long recover() throws IOException {
+        long start = System.nanoTime();
+        for (Path tmp : BlueprintSnapshot.incomplete(dir).values()) delete(tmp);
+        NavigableMap<Long, Path> snapshots = BlueprintSnapshot.files(dir);
+        long covered = 0;
+        if (!snapshots.isEmpty()) {
+            covered = BlueprintSnapshot.read(snapshots.lastEntry().getValue(), this::restore);
+        }
+        long records = 0;
+        long bytes = 0;
+        WriteAheadLog.RecordHandler replay = new WriteAheadLog.RecordHandler() {
+            @Override
+            public void save(String author, String name, int[] xy, int count) {
+                restore(Blueprint.ofCoordinates(author, name, xy, count));
+            }
+
+            @Override
+            public void points(String author, String name, int[] xy, int count) {
+                try {
+                    for (int i = 0; i < count; i++) memory.addPoint(author, name, xy[2 * i], xy[2 * i + 1]);
+                } catch (BlueprintNotFoundException e) {
+                    log.warn("Log appends points to a missing blueprint: {}/{}", author, name);
+                }
+            }
+        };
+        for (Path file : WriteAheadLog.files(dir).tailMap(covered, false).values()) {
+            records += WriteAheadLog.replay(file, replay);
+            bytes += Files.size(file);
+        }
+        long points = 0;
+        int blueprints = 0;
+        for (Blueprint bp : memory.getAllBlueprints()) {
+            blueprints++;
+            points += bp.pointCount();
+        }
+        log.info("Recovered {} blueprints ({} points) from {} in {} ms: snapshot of generation {} + {} log records",
+                blueprints, points, dir, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), covered, records);
+        return bytes;
+    }
+
+    private void restore(Blueprint bp) {
+        try {
+            memory.saveBlueprint(bp);
+        } catch (BlueprintPersistenceException e) {
+            log.warn("Duplicate blueprint during recovery: {}/{}", bp.getAuthor(), bp.getName());
+        }
+    }
+
+    // ── Snapshots ────────────────────────────────────────────────────────────
+
+    /**
+     * Toma un snapshot y borra los archivos que cubre. Las escrituras solo esperan mientras se rota
+     * el log y se cuentan los puntos de cada plano; la escritura del archivo ocurre en paralelo.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            List<Blueprint> blueprints = new ArrayList<>();
+            int[] counts;
+            long generation;
+            writeLock.lock();
+            try {
+                generation = wal.rotate();
+                memory.forEachBlueprint(blueprints::add);
+                counts = new int[blueprints.size()];
+                for (int i = 0; i < counts.length; i++) counts[i] = blueprints.get(i).pointCount();
+            } finally {
+                writeLock.unlock();
+            }
+            long start = System.nanoTime();
+            Path file = BlueprintSnapshot.write(dir, generation, blueprints, counts);
+            for (Path old : BlueprintSnapshot.files(dir).headMap(generation, false).values()) delete(old);
+            for (Path old : WriteAheadLog.files(dir).headMap(generation, true).values()) delete(old);
+            log.info("Snapshot {} ({} blueprints, {} bytes) in {} ms", file.getFileName(), blueprints.size(),
+                    Files.size(file), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // En Windows un archivo aún mapeado no se puede borrar; se reintenta en el siguiente snapshot.
+            log.debug("Could not delete {}: {}", file, e.toString());
+        }
+    }
+
+    private void snapshotIfLogged() {
+        if (wal.fileBytes() > 0) runSnapshot();
+    }
+
+    private void queueSnapshot() {
+        if (snapshotQueued.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                snapshotQueued.set(false);
+                runSnapshot();
+            });
+        }
+    }
+
+    private void runSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Snapshot failed in {}", dir, e);
+        }
+    }
+
+    private void forceLog() {
+        try {
+            wal.force();
+        } catch (IOException e) {
+            log.error("Log fsync failed in {}", dir, e);
+        }
+    }
+
+    /** Espera a que el registro {@code seq} sea durable según la política y dispara un snapshot si el log creció. */
+    private void sync(long seq) {
+        try {
+            wal.sync(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("write-ahead log failed", e);
+        }
+        if (snapshotLogBytes > 0 && wal.fileBytes() >= snapshotLogBytes) queueSnapshot();
+    }
+
+    // ── Escrituras ───────────────────────────────────────────────────────────
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        long seq;
+        writeLock.lock();
+        try {
+            wal.checkWritable();
+            memory.saveBlueprint(bp);
+            seq = wal.appendSave(bp);
+        } finally {
+            writeLock.unlock();
+        }
+        sync(seq);
+    }
+
+    @Override
+    public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        List<Blueprint> conflicts = new ArrayList<>();
+        long seq = 0;
+        writeLock.lock();
+        try {
+            wal.checkWritable();
+            for (Blueprint bp : bps) {
+                try {
+                    memory.saveBlueprint(bp);
+                    seq = wal.appendSave(bp);
+                } catch (BlueprintPersistenceException e) {
+                    conflicts.add(bp);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (seq > 0) sync(seq);
+        return conflicts;
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        long seq;
+        writeLock.lock();
+        try {
+            wal.checkWritable();
+            memory.addPoint(author, name, x, y);
+            seq = wal.appendPoints(author, name, new int[]{x, y}, 1);
+        } finally {
+            writeLock.unlock();
+        }
+        sync(seq);
+    }
+
+    /** Los puntos quedan contiguos y en un solo registro del log. */
+    @Override
+    public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        int[] xy = new int[2 * points.size()];
+        int i = 0;
+        for (Point p : points) {
+            xy[i++] = p.x();
+            xy[i++] = p.y();
+        }
+        long seq;
+        writeLock.lock();
+        try {
+            wal.checkWritable();
+            memory.getBlueprint(author, name);
+            if (points.isEmpty()) return;
+            for (int k = 0; k < xy.length; k += 2) memory.addPoint(author, name, xy[k], xy[k + 1]);
+            seq = wal.appendPoints(author, name, xy, points.size());
+        } finally {
+            writeLock.unlock();
+        }
+        sync(seq);
+    }
+
+    // ── Lecturas (sin lock, directo de memoria) ──────────────────────────────
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        return memory.getBlueprint(author, name);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return memory.getBlueprintsByAuthor(author);
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return memory.getAllBlueprints();
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return memory.getBlueprintsPage(afterAuthor, afterName, limit);
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        memory.forEachBlueprint(action);
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        return memory.getBlueprintsIntersecting(area);
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return memory.getBlueprintVersion(author, name);
+    }
+
+    @Override
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        return memory.getAuthorVersion(author);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return memory.getCatalogVersion();
+    }
+
+    /** Detiene las tareas periódicas y cierra el log con lo pendiente escrito (y en disco, salvo {@code fsync=never}). */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            wal.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
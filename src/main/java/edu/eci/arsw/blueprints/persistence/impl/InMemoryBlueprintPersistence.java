@@ -1,6 +1,7 @@
 package edu.eci.arsw.blueprints.persistence.impl;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
@@ -10,15 +11,56 @@ import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Repository
-@Profile("!postgres")   // activo en cualquier perfil que NO sea "postgres"
+@Profile("!postgres & !durable")   // activo en cualquier perfil que NO sea "postgres" ni "durable"
 public class InMemoryBlueprintPersistence implements BlueprintPersistence {
 
-    private final Map<String, Blueprint> blueprints = new ConcurrentHashMap<>();
+    /** Clave (autor, nombre) de un plano; ambos pueden contener cualquier carácter, así que no se concatenan. */
+    private record Key(String author, String name) {
+        static Key of(Blueprint bp) { return new Key(bp.getAuthor(), bp.getName()); }
+    }
+
+    private final Map<Key, Blueprint> blueprints = new ConcurrentHashMap<>();
+
+    /**
+     * Índice secundario autor → (nombre → plano), ordenado por autor y nombre. Se actualiza en
+     * {@link #saveBlueprint} justo después de insertar en {@code blueprints}, de modo que todo
+     * plano visible en el índice ya es visible por clave. Las consultas por autor cuestan
+     * O(planos del autor) y la paginación por cursor O(log n + tamaño de página).
+     */
+    private final ConcurrentNavigableMap<String, ConcurrentNavigableMap<String, Blueprint>> byAuthor =
+            new ConcurrentSkipListMap<>();
+
+    /**
+     * Versiones por autor y del catálogo (ver {@link BlueprintPersistence}). Se incrementan después
+     * de publicar cada escritura, así que una versión leída nunca es más nueva que los datos
+     * visibles en ese momento.
+     */
+    private final Map<String, AtomicLong> authorVersions = new ConcurrentHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    /** Cajas envolventes de los planos con puntos; se actualiza después de publicar cada escritura. */
+    private final SpatialIndex spatial = new SpatialIndex();
 
     public InMemoryBlueprintPersistence() {
+        this(true);
+    }
+
+    private InMemoryBlueprintPersistence(boolean sampleData) {
+        if (sampleData) sampleBlueprints().forEach(this::store);
+    }
+
+    /** Instancia sin los datos de ejemplo, para backends que reconstruyen su contenido (ver {@link DurableBlueprintPersistence}). */
+    static InMemoryBlueprintPersistence empty() {
+        return new InMemoryBlueprintPersistence(false);
+    }
+
+    static List<Blueprint> sampleBlueprints() {
         // Sample data 1:1 style (author/name key)
         Blueprint bp1 = new Blueprint("john", "house",
                 List.of(new Point(0,0), new Point(10,0), new Point(10,10), new Point(0,10)));
@@ -26,35 +68,50 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
                 List.of(new Point(5,5), new Point(15,5), new Point(15,15)));
         Blueprint bp3 = new Blueprint("jane", "garden",
                 List.of(new Point(2,2), new Point(3,4), new Point(6,7)));
-        blueprints.put(keyOf(bp1), bp1);
-        blueprints.put(keyOf(bp2), bp2);
-        blueprints.put(keyOf(bp3), bp3);
+        return List.of(bp1, bp2, bp3);
     }
 
-    private String keyOf(Blueprint bp) { return bp.getAuthor() + ":" + bp.getName(); }
-    private String keyOf(String author, String name) { return author + ":" + name; }
+    /** Inserta el plano si no existe y lo registra en el índice por autor. */
+    private boolean store(Blueprint bp) {
+        if (blueprints.putIfAbsent(Key.of(bp), bp) != null) return false;
+        byAuthor.computeIfAbsent(bp.getAuthor(), a -> new ConcurrentSkipListMap<>()).put(bp.getName(), bp);
+        spatial.add(Key.of(bp), bp);
+        bumpVersions(bp.getAuthor(), 1 + bp.version());
+        return true;
+    }
+
+    private void bumpVersions(String author, long delta) {
+        authorVersions.computeIfAbsent(author, a -> new AtomicLong()).addAndGet(delta);
+        catalogVersion.addAndGet(delta);
+    }
 
     @Override
     public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
-        String k = keyOf(bp);
-        if (blueprints.containsKey(k)) throw new BlueprintPersistenceException("Blueprint already exists: " + k);
-        blueprints.put(k, bp);
+        if (!store(bp)) throw new BlueprintPersistenceException(
+                "Blueprint already exists: %s:%s".formatted(bp.getAuthor(), bp.getName()));
+    }
+
+    @Override
+    public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        List<Blueprint> conflicts = new ArrayList<>();
+        for (Blueprint bp : bps) {
+            if (!store(bp)) conflicts.add(bp);
+        }
+        return conflicts;
     }
 
     @Override
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        Blueprint bp = blueprints.get(keyOf(author, name));
+        Blueprint bp = blueprints.get(new Key(author, name));
         if (bp == null) throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
         return bp;
     }
 
     @Override
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        Set<Blueprint> set = blueprints.values().stream()
-                .filter(bp -> bp.getAuthor().equals(author))
-                .collect(Collectors.toSet());
-        if (set.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
-        return set;
+        Map<String, Blueprint> names = byAuthor.get(author);
+        if (names == null || names.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return new HashSet<>(names.values());
     }
 
     @Override
@@ -62,9 +119,57 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
         return new HashSet<>(blueprints.values());
     }
 
+    @Override
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        blueprints.values().forEach(action);
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        List<Blueprint> page = new ArrayList<>(Math.min(limit, 256));
+        if (limit <= 0) return page;
+        Map<String, ConcurrentNavigableMap<String, Blueprint>> authors =
+                afterAuthor == null ? byAuthor : byAuthor.tailMap(afterAuthor, true);
+        for (Map.Entry<String, ConcurrentNavigableMap<String, Blueprint>> e : authors.entrySet()) {
+            Map<String, Blueprint> names = e.getKey().equals(afterAuthor)
+                    ? e.getValue().tailMap(afterName, false)
+                    : e.getValue();
+            for (Blueprint bp : names.values()) {
+                page.add(bp);
+                if (page.size() == limit) return page;
+            }
+        }
+        return page;
+    }
+
     @Override
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
         Blueprint bp = getBlueprint(author, name);
-        bp.addPoint(new Point(x, y));
+        bp.addPoint(x, y);
+        spatial.extend(new Key(author, name), bp, x, y);
+        bumpVersions(author, 1);
+    }
+
+    /** Consulta el R-tree ({@link SpatialIndex}): no recorre los planos que quedan fuera del área. */
+    @Override
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        return spatial.search(area);
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return getBlueprint(author, name).version();
+    }
+
+    @Override
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        AtomicLong v = authorVersions.get(author);
+        if (v == null) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return v.get();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
     }
 }
@@ -0,0 +1,176 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Lecturas de planos con SQL escrito a mano, sin entidades JPA ni contexto de persistencia.
+ * Cada fila trae los puntos ya empaquetados en una sola columna {@code bytea} (el formato de
+ * {@link PackedPoints}): {@code points_packed} si el plano lo usa, o las filas de blueprint_points
+ * agregadas en el servidor en orden de {@code point_order}. El mapeo decodifica ese arreglo
+ * directamente a un {@link Blueprint}, sin objetos intermedios por punto.
+ *
+ * <p>Los puntos se agregan con un JOIN y {@code GROUP BY b.id} en lugar de una subconsulta por
+ * plano: así el planificador resuelve todo el conjunto en una pasada (hash o merge join) también
+ * cuando las estadísticas de blueprint_points están desactualizadas. La excepción es
+ * {@link #forEach}: ahí importa la primera fila y no el total, y un {@code GROUP BY} sobre toda la
+ * tabla no entrega nada hasta agregarla completa.
+ *
+ * <p>Los métodos no abren transacción propia: se invocan desde las lecturas {@code readOnly} de
+ * {@link PostgresBlueprintPersistence}.
+ */
+@Repository
+@Profile("postgres")
+public class JdbcBlueprintReader {
+
+    /** Filas por viaje al servidor en {@link #forEach}; requiere transacción para usar cursor. */
+    static final int FETCH_SIZE = 256;
+
+    /** Consulta base; {@code %s} es el filtro WHERE (o vacío) y tras ella va el ORDER BY. */
+    private static final String SELECT = """
+            SELECT b.author, b.name,
+                   COALESCE(b.points_packed,
+                            string_agg(int4send(p.x) || int4send(p.y), ''::bytea ORDER BY p.point_order)) AS points,
+                   b.id
+              FROM blueprints b
+              LEFT JOIN blueprint_points p ON p.blueprint_id = b.id AND b.points_packed IS NULL
+              %s
+             GROUP BY b.id
+            """;
+
+    private static final String FIND = SELECT.formatted("WHERE b.author = ? AND b.name = ?");
+    private static final String FIND_BY_AUTHOR = SELECT.formatted("WHERE b.author = ?");
+    private static final String FIND_ALL = SELECT.formatted("") + " ORDER BY b.id";
+
+    /**
+     * Todos los planos por {@code id}, agregando los puntos de cada uno en una subconsulta LATERAL:
+     * el plan recorre la clave primaria en orden y entrega cada fila en cuanto agrega sus puntos,
+     * sin ordenar ni agrupar la tabla entera antes de la primera.
+     */
+    private static final String STREAM_ALL = """
+            SELECT b.author, b.name, COALESCE(b.points_packed, pts.points) AS points, b.id
+              FROM blueprints b
+             CROSS JOIN LATERAL (
+                   SELECT string_agg(int4send(p.x) || int4send(p.y), ''::bytea ORDER BY p.point_order) AS points
+                     FROM blueprint_points p
+                    WHERE p.blueprint_id = b.id AND b.points_packed IS NULL) pts
+             ORDER BY b.id
+            """;
+    private static final String FIRST_PAGE = SELECT.formatted("""
+            WHERE b.id IN (SELECT id FROM blueprints ORDER BY author, name LIMIT ?)""")
+            + " ORDER BY b.author, b.name";
+    private static final String PAGE_AFTER = SELECT.formatted("""
+            WHERE b.id IN (SELECT id FROM blueprints WHERE (author, name) > (?, ?) ORDER BY author, name LIMIT ?)""")
+            + " ORDER BY b.author, b.name";
+
+    /**
+     * Intersección de cajas con {@code &&} (bordes incluidos). La expresión y el predicado
+     * {@code min_x <= max_x} coinciden con los del índice parcial de las cajas, así que el
+     * planificador puede resolverla con un recorrido del índice GiST.
+     */
+    private static final String FIND_INTERSECTING = SELECT.formatted("""
+            WHERE b.min_x <= b.max_x
+              AND box(point(b.min_x, b.min_y), point(b.max_x, b.max_y)) && box(point(?, ?), point(?, ?))""")
+            + " ORDER BY b.author, b.name";
+    private static final String FIND_BY_IDS = SELECT.formatted("WHERE b.id = ANY(?)");
+
+    /**
+     * Puntos de un plano sin leerlos: {@code point_count}, salvo en filas anteriores a esa columna
+     * (quedaron en 0 y sin {@code points_packed}), donde se cuentan las filas de blueprint_points.
+     */
+    private static final String POINTS = """
+            CASE WHEN b.point_count > 0 OR b.points_packed IS NOT NULL THEN b.point_count
+                 ELSE (SELECT COUNT(*) FROM blueprint_points p WHERE p.blueprint_id = b.id) END""";
+
+    private static final String VERSION = "SELECT " + POINTS + " FROM blueprints b WHERE b.author = ? AND b.name = ?";
+    private static final String AUTHOR_VERSION =
+            "SELECT COUNT(*) + COALESCE(SUM(" + POINTS + "), 0) FROM blueprints b WHERE b.author = ?";
+    private static final String CATALOG_VERSION =
+            "SELECT COUNT(*) + COALESCE(SUM(" + POINTS + "), 0) FROM blueprints b";
+
+    private static final RowMapper<Blueprint> MAPPER = (rs, rowNum) -> {
+        byte[] packed = rs.getBytes(3);
+        int[] xy = packed == null ? new int[0] : PackedPoints.decode(packed);
+        return Blueprint.ofCoordinates(rs.getString(1), rs.getString(2), xy, xy.length / 2);
+    };
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streaming;
+
+    public JdbcBlueprintReader(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        this.streaming = new JdbcTemplate(jdbc.getDataSource());
+        this.streaming.setFetchSize(FETCH_SIZE);
+    }
+
+    public Optional<Blueprint> find(String author, String name) {
+        return jdbc.query(FIND, MAPPER, author, name).stream().findFirst();
+    }
+
+    public List<Blueprint> findByAuthor(String author) {
+        return jdbc.query(FIND_BY_AUTHOR, MAPPER, author);
+    }
+
+    public List<Blueprint> findAll() {
+        return jdbc.query(FIND_ALL, MAPPER);
+    }
+
+    /**
+     * Página keyset ordenada por (author, name), estrictamente posterior al cursor; sin cursor
+     * empieza desde el principio. Los ids de la página salen de un range scan sobre
+     * {@code uk_blueprint_author_name} y solo esos planos se agregan.
+     */
+    public List<Blueprint> findPage(String afterAuthor, String afterName, int limit) {
+        return afterAuthor == null
+                ? jdbc.query(FIRST_PAGE, MAPPER, limit)
+                : jdbc.query(PAGE_AFTER, MAPPER, afterAuthor, afterName, limit);
+    }
+
+    /** Planos cuya caja envolvente intersecta {@code area}, ordenados por (autor, nombre). */
+    public List<Blueprint> findIntersecting(BoundingBox area) {
+        return jdbc.query(FIND_INTERSECTING, MAPPER, area.minX(), area.minY(), area.maxX(), area.maxY());
+    }
+
+    /** Planos con los ids dados, por id; los que no existen no aparecen. */
+    public Map<Long, Blueprint> findByIds(long[] ids) {
+        Map<Long, Blueprint> bps = new HashMap<>();
+        jdbc.query(FIND_BY_IDS, ps -> ps.setObject(1, ids),
+                rs -> { bps.put(rs.getLong(4), MAPPER.mapRow(rs, 0)); });
+        return bps;
+    }
+
+    /** Versión del plano (su número de puntos), o vacío si no existe. */
+    public Optional<Long> version(String author, String name) {
+        return jdbc.query(VERSION, (rs, i) -> rs.getLong(1), author, name).stream().findFirst();
+    }
+
+    /** Versión de los planos del autor; 0 si no tiene ninguno. */
+    public long authorVersion(String author) {
+        Long v = jdbc.queryForObject(AUTHOR_VERSION, Long.class, author);
+        return v == null ? 0 : v;
+    }
+
+    /** Versión del catálogo completo; recorre solo la tabla blueprints. */
+    public long catalogVersion() {
+        Long v = jdbc.queryForObject(CATALOG_VERSION, Long.class);
+        return v == null ? 0 : v;
+    }
+
+    /**
+     * Recorre todos los planos con un cursor del servidor, de {@link #FETCH_SIZE} en {@link #FETCH_SIZE}
+     * filas, con {@link #STREAM_ALL}: la primera fila sale sin esperar a que se lea la tabla.
+     */
+    public void forEach(Consumer<? super Blueprint> action) {
+        streaming.query(STREAM_ALL, rs -> { action.accept(MAPPER.mapRow(rs, 0)); });
+    }
+}
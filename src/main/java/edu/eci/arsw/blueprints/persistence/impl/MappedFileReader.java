@@ -0,0 +1,97 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lectura secuencial little-endian de un archivo mapeado en memoria, para la recuperación de
+ * {@link DurableBlueprintPersistence}. Un {@link MappedByteBuffer} no puede pasar de 2GB, así que el
+ * archivo se recorre por ventanas: cuando el siguiente campo no cabe en la actual se mapea otra a
+ * partir de la posición de lectura. Las coordenadas se copian en bloque con {@link #getInts}.
+ */
+final class MappedFileReader implements Closeable {
+
+    static final long DEFAULT_WINDOW = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private long base;
+    private ByteBuffer window;
+
+    MappedFileReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW);
+    }
+
+    MappedFileReader(Path file, long windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.window = map(0);
+    }
+
+    private ByteBuffer map(long at) throws IOException {
+        base = at;
+        return channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(windowSize, size - at))
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    long position() { return base + window.position(); }
+
+    long remaining() { return size - position(); }
+
+    /**
+     * Ventana actual con al menos {@code n} bytes contiguos desde su posición ({@code n} no puede
+     * superar el tamaño de ventana). La posición de la ventana es la de lectura.
+     */
+    ByteBuffer need(long n) throws IOException {
+        if (window.remaining() >= n) return window;
+        if (remaining() < n) throw new EOFException("need " + n + " bytes at " + position() + ", file has " + size);
+        if (n > windowSize) throw new IOException("field of " + n + " bytes exceeds the mapping window");
+        window = map(position());
+        return window;
+    }
+
+    byte get() throws IOException { return need(1).get(); }
+
+    int getInt() throws IOException { return need(4).getInt(); }
+
+    long getLong() throws IOException { return need(8).getLong(); }
+
+    String getString() throws IOException {
+        int len = getInt();
+        if (len < 0 || len > remaining()) throw new IOException("bad string length " + len + " at " + position());
+        byte[] bytes = new byte[len];
+        need(len).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Llena {@code dst} con los siguientes enteros, aunque crucen varias ventanas. */
+    void getInts(int[] dst) throws IOException {
+        if (4L * dst.length > remaining()) throw new EOFException("need " + dst.length + " ints at " + position());
+        int off = 0;
+        while (off < dst.length) {
+            int n = (int) Math.min(dst.length - off, window.remaining() / 4);
+            if (n == 0) {
+                need(4);
+                continue;
+            }
+            window.asIntBuffer().get(dst, off, n);
+            window.position(window.position() + 4 * n);
+            off += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,201 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decorador que mide cada método de {@link BlueprintPersistence} en el timer
+ * {@code blueprints.persistence}, etiquetado con {@code method}. Se cuentan también las llamadas
+ * que terminan en excepción (por ejemplo, un plano inexistente). Los timers se registran una sola
+ * vez en el constructor, así que medir una llamada no busca etiquetas ni asigna memoria.
+ *
+ * <p>{@code forEachBlueprint} incluye el tiempo de la acción que recibe cada plano: en la
+ * exportación NDJSON eso es filtrado y escritura de la respuesta, no solo lectura.
+ */
+public class MeteredBlueprintPersistence implements BlueprintPersistence {
+
+    private final BlueprintPersistence delegate;
+    private final Timer save;
+    private final Timer saveBatch;
+    private final Timer get;
+    private final Timer getByAuthor;
+    private final Timer getAll;
+    private final Timer getPage;
+    private final Timer forEach;
+    private final Timer intersecting;
+    private final Timer version;
+    private final Timer authorVersion;
+    private final Timer catalogVersion;
+    private final Timer addPoint;
+    private final Timer addPoints;
+
+    public MeteredBlueprintPersistence(BlueprintPersistence delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.save           = timer(registry, "saveBlueprint");
+        this.saveBatch      = timer(registry, "saveBlueprints");
+        this.get            = timer(registry, "getBlueprint");
+        this.getByAuthor    = timer(registry, "getBlueprintsByAuthor");
+        this.getAll         = timer(registry, "getAllBlueprints");
+        this.getPage        = timer(registry, "getBlueprintsPage");
+        this.forEach        = timer(registry, "forEachBlueprint");
+        this.intersecting   = timer(registry, "getBlueprintsIntersecting");
+        this.version        = timer(registry, "getBlueprintVersion");
+        this.authorVersion  = timer(registry, "getAuthorVersion");
+        this.catalogVersion = timer(registry, "getCatalogVersion");
+        this.addPoint       = timer(registry, "addPoint");
+        this.addPoints      = timer(registry, "addPoints");
+    }
+
+    private static Timer timer(MeterRegistry registry, String method) {
+        return Timer.builder("blueprints.persistence")
+                .description("Tiempo de cada llamada a BlueprintPersistence")
+                .tag("method", method)
+                .register(registry);
+    }
+
+    private static void stop(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        long start = System.nanoTime();
+        try {
+            delegate.saveBlueprint(bp);
+        } finally {
+            stop(save, start);
+        }
+    }
+
+    @Override
+    public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        long start = System.nanoTime();
+        try {
+            return delegate.saveBlueprints(bps);
+        } finally {
+            stop(saveBatch, start);
+        }
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprint(author, name);
+        } finally {
+            stop(get, start);
+        }
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintsByAuthor(author);
+        } finally {
+            stop(getByAuthor, start);
+        }
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAllBlueprints();
+        } finally {
+            stop(getAll, start);
+        }
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+        } finally {
+            stop(getPage, start);
+        }
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        long start = System.nanoTime();
+        try {
+            delegate.forEachBlueprint(action);
+        } finally {
+            stop(forEach, start);
+        }
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintsIntersecting(area);
+        } finally {
+            stop(intersecting, start);
+        }
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintVersion(author, name);
+        } finally {
+            stop(version, start);
+        }
+    }
+
+    @Override
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAuthorVersion(author);
+        } finally {
+            stop(authorVersion, start);
+        }
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getCatalogVersion();
+        } finally {
+            stop(catalogVersion, start);
+        }
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            delegate.addPoint(author, name, x, y);
+        } finally {
+            stop(addPoint, start);
+        }
+    }
+
+    @Override
+    public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            delegate.addPoints(author, name, points);
+        } finally {
+            stop(addPoints, start);
+        }
+    }
+}
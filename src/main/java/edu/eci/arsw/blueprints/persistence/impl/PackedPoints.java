@@ -0,0 +1,46 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Codificación de la columna {@code blueprints.points_packed}: cada punto ocupa 8 bytes,
+ * {@code x} e {@code y} como int de 32 bits big-endian, en orden. El ancho fijo permite agregar
+ * puntos concatenando bytes en SQL ({@code points_packed || ?}) sin leer ni decodificar lo anterior,
+ * y coincide con {@code int4send()} de PostgreSQL, que usa la migración desde {@code blueprint_points}.
+ */
+final class PackedPoints {
+
+    static final int BYTES_PER_POINT = 8;
+
+    private PackedPoints() { }
+
+    /** Codifica las primeras {@code count} coordenadas intercaladas {@code x0,y0,x1,y1,...}. */
+    static byte[] encode(int[] xy, int count) {
+        byte[] out = new byte[count * BYTES_PER_POINT];
+        ByteBuffer.wrap(out).asIntBuffer().put(xy, 0, 2 * count);
+        return out;
+    }
+
+    /** Codifica puntos dados como arreglos separados de x e y. */
+    static byte[] encode(int[] xs, int[] ys) {
+        byte[] out = new byte[xs.length * BYTES_PER_POINT];
+        IntBuffer buf = ByteBuffer.wrap(out).asIntBuffer();
+        for (int i = 0; i < xs.length; i++) buf.put(xs[i]).put(ys[i]);
+        return out;
+    }
+
+    /** Decodifica a coordenadas intercaladas; la longitud del resultado es {@code 2·pointCount(bytes)}. */
+    static int[] decode(byte[] bytes) {
+        int[] xy = new int[2 * pointCount(bytes)];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(xy);
+        return xy;
+    }
+
+    static int pointCount(byte[] bytes) {
+        if (bytes.length % BYTES_PER_POINT != 0) {
+            throw new IllegalArgumentException("Corrupt packed points: " + bytes.length + " bytes");
+        }
+        return bytes.length / BYTES_PER_POINT;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migra al arrancar los planos guardados en blueprint_points a la columna {@code points_packed},
+ * por lotes de {@code blueprints.postgres.migrate-to-packed.batch-size} (por defecto 500), cada uno en
+ * su propia transacción. Se activa con {@code blueprints.postgres.migrate-to-packed=true}; normalmente
+ * junto con {@code blueprints.postgres.point-storage=packed} para que los planos nuevos ya se creen así.
+ * La aplicación atiende peticiones mientras tanto: lecturas y appends aceptan ambas formas.
+ *
+ * <p>Un lote salta los planos con escrituras en curso, así que un lote vacío no significa que haya
+ * terminado: la migración sigue mientras {@link PostgresBlueprintPersistence#countUnpacked()} no sea
+ * 0, esperando entre intentos (de {@value #MIN_BACKOFF_MS} ms hasta {@value #MAX_BACKOFF_MS} ms) cuando
+ * todos los pendientes están bloqueados.
+ */
+@Component
+@Profile("postgres")
+@ConditionalOnProperty(name = "blueprints.postgres.migrate-to-packed", havingValue = "true")
+public class PackedPointsMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PackedPointsMigration.class);
+
+    static final long MIN_BACKOFF_MS = 50;
+    static final long MAX_BACKOFF_MS = 5_000;
+
+    private final PostgresBlueprintPersistence persistence;
+    private final int batchSize;
+
+    public PackedPointsMigration(PostgresBlueprintPersistence persistence,
+                                 @Value("${blueprints.postgres.migrate-to-packed.batch-size:500}") int batchSize) {
+        this.persistence = persistence;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long total = 0;
+        long backoff = MIN_BACKOFF_MS;
+        while (true) {
+            int migrated = persistence.migrateToPacked(batchSize);
+            total += migrated;
+            if (migrated > 0) {
+                backoff = MIN_BACKOFF_MS;
+                continue;
+            }
+            long remaining = persistence.countUnpacked();
+            if (remaining == 0) break;
+            log.debug("{} blueprints locked by concurrent writes; retrying in {} ms", remaining, backoff);
+            Thread.sleep(backoff);
+            backoff = Math.min(2 * backoff, MAX_BACKOFF_MS);
+        }
+        log.info("Migrated {} blueprints to packed point storage", total);
+    }
+}
@@ -1,52 +1,263 @@
 package edu.eci.arsw.blueprints.persistence.impl;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
 import edu.eci.arsw.blueprints.persistence.entity.BlueprintEntity;
 import edu.eci.arsw.blueprints.persistence.entity.PointEmbeddable;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
- * Implementación de BlueprintPersistence usando PostgreSQL a través de Spring Data JPA.
+ * Implementación de BlueprintPersistence usando PostgreSQL. Las altas por plano usan Spring Data
+ * JPA; las lecturas van por {@link JdbcBlueprintReader} y los appends y cargas masivas por SQL directo.
  * Activa únicamente con el perfil "postgres":
  *   mvn spring-boot:run -Dspring-boot.run.profiles=postgres
+ *
+ * <p>{@code blueprints.postgres.point-storage} elige cómo se guardan los puntos de los planos nuevos:
+ * {@code rows} (una fila por punto en blueprint_points, por defecto) o {@code packed} (columna
+ * {@code points_packed}, ver {@link PackedPoints}). Lecturas y appends aceptan ambas formas en la
+ * misma tabla; {@link #migrateToPacked(int)} convierte los planos existentes por lotes.
+ * {@code packed} lee y crea planos grandes en una fila, pero cada append reescribe la columna
+ * completa (MVCC): conviene para planos que se leen mucho más de lo que crecen
+ * (ver {@code PointStorageBenchmark}).
+ *
+ * <p>Cada plano guarda su caja envolvente en {@code min_x}, {@code min_y}, {@code max_x} y
+ * {@code max_y}: las altas la calculan y los appends la agrandan en la misma sentencia. Las consultas
+ * por área usan el índice GiST parcial {@value #BOUNDS_INDEX} sobre
+ * {@code box(point(min_x, min_y), point(max_x, max_y))}, que crea {@link BoundingBoxBackfill} al
+ * arrancar junto con el cálculo de las cajas de filas anteriores a esas columnas.
  */
 @Repository
 @Profile("postgres")
 @Transactional
 public class PostgresBlueprintPersistence implements BlueprintPersistence {
 
+    /** Forma de almacenamiento de los puntos de los planos nuevos. */
+    public enum PointStorage { ROWS, PACKED }
+
+    /** Planos por sentencia en {@link #saveBlueprints}: acota el tamaño de los arreglos enviados. */
+    static final int BATCH_CHUNK = 1000;
+
+    static final String BOUNDS_INDEX = "ix_blueprints_bounds";
+
+    /** Clave (autor, nombre) de un plano; ambos pueden contener cualquier carácter, así que no se concatenan. */
+    private record Key(String author, String name) {
+        static Key of(Blueprint bp) { return new Key(bp.getAuthor(), bp.getName()); }
+    }
+
+    /**
+     * Índice de las cajas. Es parcial: deja fuera los planos sin puntos (caja vacía, mínimo mayor que
+     * máximo, que {@code box} normalizaría a una caja enorme) y las cajas aún sin calcular (NULL).
+     * {@code CONCURRENTLY} no bloquea las escrituras mientras se construye, pero no admite una
+     * transacción.
+     */
+    private static final String CREATE_BOUNDS_INDEX = """
+            CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON blueprints
+             USING gist (box(point(min_x, min_y), point(max_x, max_y)))
+             WHERE min_x <= max_x
+            """.formatted(BOUNDS_INDEX);
+
+    /** 1 si {@value #BOUNDS_INDEX} existe pero quedó inválido (un {@code CONCURRENTLY} interrumpido). */
+    private static final String INVALID_BOUNDS_INDEX = """
+            SELECT COUNT(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+             WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace AND NOT i.indisvalid
+            """;
+
+    /**
+     * SET que agranda la caja del plano {@code b} con los valores dados. Una caja NULL se deja en
+     * NULL: no se sabe qué puntos tenía la fila, así que la calcula entera {@link #backfillBounds}.
+     */
+    private static final String GROW_BOUNDS = """
+            min_x = CASE WHEN b.min_x IS NOT NULL THEN LEAST(b.min_x, %1$s) END,
+                   min_y = CASE WHEN b.min_y IS NOT NULL THEN LEAST(b.min_y, %2$s) END,
+                   max_x = CASE WHEN b.max_x IS NOT NULL THEN GREATEST(b.max_x, %3$s) END,
+                   max_y = CASE WHEN b.max_y IS NOT NULL THEN GREATEST(b.max_y, %4$s) END""";
+
+    /** Toma hasta {@code ?} filas con caja sin calcular; {@code SKIP LOCKED} deja pasar las que tienen escrituras en curso. */
+    private static final String LOCK_UNBOUNDED = """
+            SELECT id FROM blueprints WHERE min_x IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SET_BOUNDS = """
+            UPDATE blueprints t SET min_x = v.min_x, min_y = v.min_y, max_x = v.max_x, max_y = v.max_y
+              FROM unnest(?::bigint[], ?::int[], ?::int[], ?::int[], ?::int[]) AS v(id, min_x, min_y, max_x, max_y)
+             WHERE t.id = v.id
+            """;
+
+    /**
+     * Inserta todas las cabeceras de un bloque en una sentencia. Los conflictos no producen fila en
+     * RETURNING, así que las filas retornadas son exactamente los planos creados.
+     */
+    private static final String INSERT_BLUEPRINTS = """
+            INSERT INTO blueprints (author, name, point_count, min_x, min_y, max_x, max_y)
+            SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[])
+            ON CONFLICT (author, name) DO NOTHING
+            RETURNING id, author, name
+            """;
+
+    /** Variante de {@link #INSERT_BLUEPRINTS} con los puntos empaquetados en la misma fila. */
+    private static final String INSERT_PACKED_BLUEPRINTS = """
+            INSERT INTO blueprints (author, name, point_count, min_x, min_y, max_x, max_y, points_packed)
+            SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::int[], ?::int[], ?::int[], ?::int[], ?::int[], ?::bytea[])
+            ON CONFLICT (author, name) DO NOTHING
+            RETURNING id, author, name
+            """;
+
+    private static final String INSERT_POINTS = """
+            INSERT INTO blueprint_points (blueprint_id, point_order, x, y)
+            SELECT * FROM unnest(?::bigint[], ?::int[], ?::int[], ?::int[])
+            """;
+
+    /**
+     * Reserva el siguiente {@code point_order} e inserta el punto en una sola sentencia. El UPDATE
+     * toma el lock de la fila del plano, así que los appends concurrentes se serializan y cada uno
+     * ve el contador ya incrementado por el anterior. {@code GREATEST} con el máximo existente
+     * corrige filas creadas antes de la columna {@code point_count} (arrancan en 0).
+     */
+    private static final String APPEND_POINT = """
+            WITH pt AS (
+                SELECT ?::int AS x, ?::int AS y
+            ), bp AS (
+                UPDATE blueprints b
+                   SET point_count = GREATEST(b.point_count,
+                           (SELECT COALESCE(MAX(p.point_order) + 1, 0)
+                              FROM blueprint_points p WHERE p.blueprint_id = b.id)) + 1,
+                       %s
+                  FROM pt
+                 WHERE b.author = ? AND b.name = ? AND b.points_packed IS NULL
+                RETURNING b.id, b.point_count - 1 AS point_order, pt.x, pt.y
+            )
+            INSERT INTO blueprint_points (blueprint_id, point_order, x, y)
+            SELECT id, point_order, x, y FROM bp
+            """.formatted(GROW_BOUNDS.formatted("pt.x", "pt.y", "pt.x", "pt.y"));
+
+    /** Variante de {@link #APPEND_POINT} que reserva un rango contiguo para varios puntos. */
+    private static final String APPEND_POINTS = """
+            WITH pts AS (
+                SELECT * FROM unnest(?::int[], ?::int[]) WITH ORDINALITY AS t(x, y, ord)
+            ), bp AS (
+                UPDATE blueprints b
+                   SET point_count = GREATEST(b.point_count,
+                           (SELECT COALESCE(MAX(p.point_order) + 1, 0)
+                              FROM blueprint_points p WHERE p.blueprint_id = b.id))
+                           + (SELECT COUNT(*) FROM pts),
+                       %s
+                 WHERE b.author = ? AND b.name = ? AND b.points_packed IS NULL
+                RETURNING b.id, b.point_count - (SELECT COUNT(*) FROM pts) AS first_order
+            )
+            INSERT INTO blueprint_points (blueprint_id, point_order, x, y)
+            SELECT bp.id, bp.first_order + pts.ord - 1, pts.x, pts.y FROM bp CROSS JOIN pts
+            """.formatted(GROW_BOUNDS.formatted("(SELECT MIN(x) FROM pts)", "(SELECT MIN(y) FROM pts)",
+                                                "(SELECT MAX(x) FROM pts)", "(SELECT MAX(y) FROM pts)"));
+
+    /**
+     * Append sobre un plano empaquetado: concatena los bytes nuevos. Como el UPDATE reevalúa la
+     * fila más reciente tras esperar el lock, los appends concurrentes no se pisan.
+     */
+    private static final String APPEND_PACKED = """
+            UPDATE blueprints b
+               SET points_packed = b.points_packed || ?, point_count = b.point_count + ?,
+                   %s
+             WHERE b.author = ? AND b.name = ? AND b.points_packed IS NOT NULL
+            """.formatted(GROW_BOUNDS.formatted("?", "?", "?", "?"));
+
+    /**
+     * Migra a {@code points_packed} un lote de planos que aún usan blueprint_points y borra sus filas.
+     * {@code SKIP LOCKED} deja pasar planos con escrituras en curso; se toman en un lote posterior.
+     */
+    private static final String MIGRATE_TO_PACKED = """
+            WITH batch AS (
+                SELECT id FROM blueprints WHERE points_packed IS NULL
+                ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED
+            ), packed AS (
+                SELECT b.id,
+                       COALESCE(string_agg(int4send(p.x) || int4send(p.y), ''::bytea ORDER BY p.point_order),
+                                ''::bytea) AS bytes,
+                       COUNT(p.blueprint_id) AS n
+                  FROM batch b LEFT JOIN blueprint_points p ON p.blueprint_id = b.id
+                 GROUP BY b.id
+            ), upd AS (
+                UPDATE blueprints t SET points_packed = packed.bytes, point_count = packed.n
+                  FROM packed WHERE t.id = packed.id
+                RETURNING t.id
+            ), del AS (
+                DELETE FROM blueprint_points WHERE blueprint_id IN (SELECT id FROM upd)
+            )
+            SELECT COUNT(*) FROM upd
+            """;
+
     private final BlueprintJpaRepository jpaRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbc;
+    private final JdbcBlueprintReader reader;
+    private final PointStorage storage;
 
-    public PostgresBlueprintPersistence(BlueprintJpaRepository jpaRepository) {
+    public PostgresBlueprintPersistence(BlueprintJpaRepository jpaRepository, EntityManager entityManager,
+                                        JdbcTemplate jdbc, JdbcBlueprintReader reader,
+                                        @Value("${blueprints.postgres.point-storage:rows}") String storage) {
         this.jpaRepository = jpaRepository;
+        this.entityManager = entityManager;
+        this.jdbc = jdbc;
+        this.reader = reader;
+        this.storage = PointStorage.valueOf(storage.trim().toUpperCase(Locale.ROOT));
     }
 
+    public PointStorage storage() { return storage; }
+
     // ── Conversión dominio → entidad ─────────────────────────────────────────
 
     private BlueprintEntity toEntity(Blueprint bp) {
-        List<PointEmbeddable> pts = bp.getPoints().stream()
-                .map(p -> new PointEmbeddable(p.x(), p.y()))
-                .collect(Collectors.toList());
-        return new BlueprintEntity(bp.getAuthor(), bp.getName(), pts);
+        int[] xy = bp.copyCoordinates();
+        int n = xy.length / 2;
+        BlueprintEntity entity;
+        if (storage == PointStorage.PACKED) {
+            entity = new BlueprintEntity(bp.getAuthor(), bp.getName(), PackedPoints.encode(xy, n), n);
+        } else {
+            List<PointEmbeddable> pts = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                pts.add(new PointEmbeddable(xy[2 * i], xy[2 * i + 1]));
+            }
+            entity = new BlueprintEntity(bp.getAuthor(), bp.getName(), pts);
+        }
+        int[] b = bounds(xy, n);
+        entity.setBounds(b[0], b[1], b[2], b[3]);
+        return entity;
     }
 
-    // ── Conversión entidad → dominio ─────────────────────────────────────────
-
-    private Blueprint toDomain(BlueprintEntity entity) {
-        List<Point> pts = entity.getPoints().stream()
-                .map(p -> new Point(p.getX(), p.getY()))
-                .collect(Collectors.toList());
-        return new Blueprint(entity.getAuthor(), entity.getName(), pts);
+    /**
+     * Caja {minX, minY, maxX, maxY} de {@code n} puntos intercalados. Sin puntos retorna la caja
+     * vacía (mínimos en {@code MAX_VALUE}, máximos en {@code MIN_VALUE}), neutra para LEAST/GREATEST.
+     */
+    static int[] bounds(int[] xy, int n) {
+        int[] b = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        for (int i = 0; i < 2 * n; i += 2) {
+            b[0] = Math.min(b[0], xy[i]);
+            b[1] = Math.min(b[1], xy[i + 1]);
+            b[2] = Math.max(b[2], xy[i]);
+            b[3] = Math.max(b[3], xy[i + 1]);
+        }
+        return b;
     }
 
     // ── Implementación del contrato BlueprintPersistence ─────────────────────
@@ -60,36 +271,328 @@ public class PostgresBlueprintPersistence implements BlueprintPersistence {
         jpaRepository.save(toEntity(bp));
     }
 
+    /**
+     * Carga masiva con dos sentencias por bloque de {@link #BATCH_CHUNK} planos: un INSERT multi-fila
+     * de cabeceras con {@code ON CONFLICT DO NOTHING} y un INSERT de todos los puntos vía
+     * {@code unnest}. Evita el {@code exists} previo y los round-trips por plano y por punto
+     * (con ids IDENTITY Hibernate no puede agrupar los inserts en lotes JDBC).
+     */
     @Override
+    public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        // El contexto de persistencia no ve estas filas: vaciarlo antes evita mezclar escrituras pendientes.
+        entityManager.flush();
+        List<Blueprint> conflicts = new ArrayList<>();
+        List<Blueprint> chunk = new ArrayList<>(Math.min(bps.size(), BATCH_CHUNK));
+        for (Blueprint bp : bps) {
+            chunk.add(bp);
+            if (chunk.size() == BATCH_CHUNK) {
+                saveChunk(chunk, conflicts);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) saveChunk(chunk, conflicts);
+        return conflicts;
+    }
+
+    private void saveChunk(List<Blueprint> chunk, List<Blueprint> conflicts) {
+        String[] authors = new String[chunk.size()];
+        String[] names = new String[chunk.size()];
+        int[] counts = new int[chunk.size()];
+        int[][] coords = new int[chunk.size()][];
+        int[][] box = new int[4][chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            authors[i] = chunk.get(i).getAuthor();
+            names[i] = chunk.get(i).getName();
+            coords[i] = chunk.get(i).copyCoordinates();
+            counts[i] = coords[i].length / 2;
+            int[] b = bounds(coords[i], counts[i]);
+            for (int k = 0; k < 4; k++) box[k][i] = b[k];
+        }
+        boolean packed = storage == PointStorage.PACKED;
+        Map<Key, Long> created = new HashMap<>();
+        jdbc.query(packed ? INSERT_PACKED_BLUEPRINTS : INSERT_BLUEPRINTS,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("varchar", authors));
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", names));
+                    ps.setObject(3, counts);
+                    for (int k = 0; k < 4; k++) ps.setObject(4 + k, box[k]);
+                    if (packed) {
+                        byte[][] bytes = new byte[coords.length][];
+                        for (int i = 0; i < bytes.length; i++) bytes[i] = PackedPoints.encode(coords[i], counts[i]);
+                        ps.setArray(8, ps.getConnection().createArrayOf("bytea", bytes));
+                    }
+                },
+                rs -> { created.put(new Key(rs.getString(2), rs.getString(3)), rs.getLong(1)); });
+        if (packed) {
+            for (Blueprint bp : chunk) {
+                if (created.remove(Key.of(bp)) == null) conflicts.add(bp);
+            }
+            return;
+        }
+
+        // Cada id creado se asigna a la primera aparición de su clave; las siguientes son conflictos.
+        int total = 0;
+        long[] ids = new long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Blueprint bp = chunk.get(i);
+            Long id = created.remove(Key.of(bp));
+            if (id == null) {
+                conflicts.add(bp);
+                coords[i] = null;
+            } else {
+                ids[i] = id;
+                total += counts[i];
+            }
+        }
+        if (total == 0) return;
+
+        long[] pointIds = new long[total];
+        int[] order = new int[total];
+        int[] xs = new int[total];
+        int[] ys = new int[total];
+        int k = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            int[] xy = coords[i];
+            if (xy == null) continue;
+            for (int p = 0; p < xy.length / 2; p++, k++) {
+                pointIds[k] = ids[i];
+                order[k] = p;
+                xs[k] = xy[2 * p];
+                ys[k] = xy[2 * p + 1];
+            }
+        }
+        // El driver de PostgreSQL envía arreglos primitivos como int8[]/int4[] sin boxing.
+        jdbc.update(INSERT_POINTS, ps -> {
+            ps.setObject(1, pointIds);
+            ps.setObject(2, order);
+            ps.setObject(3, xs);
+            ps.setObject(4, ys);
+        });
+    }
+
+    // ── Lecturas: SQL directo en transacciones de solo lectura (JdbcBlueprintReader) ──
+
+    @Override
+    @Transactional(readOnly = true)
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        return jpaRepository.findByAuthorAndName(author, name)
-                .map(this::toDomain)
-                .orElseThrow(() -> new BlueprintNotFoundException(
-                        "Blueprint not found: %s/%s".formatted(author, name)));
+        return reader.find(author, name).orElseThrow(() -> notFound(author, name));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        List<BlueprintEntity> entities = jpaRepository.findByAuthor(author);
-        if (entities.isEmpty()) {
+        List<Blueprint> bps = reader.findByAuthor(author);
+        if (bps.isEmpty()) {
             throw new BlueprintNotFoundException("No blueprints for author: " + author);
         }
-        return entities.stream().map(this::toDomain).collect(Collectors.toSet());
+        return new HashSet<>(bps);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<Blueprint> getAllBlueprints() {
-        return jpaRepository.findAll().stream()
-                .map(this::toDomain)
-                .collect(Collectors.toSet());
+        return new HashSet<>(reader.findAll());
+    }
+
+    // ── Versiones: sin leer puntos, salvo filas anteriores a point_count ─────
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return reader.version(author, name).orElseThrow(() -> notFound(author, name));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        long v = reader.authorVersion(author);
+        if (v == 0) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return v;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCatalogVersion() {
+        return reader.catalogVersion();
+    }
+
+    /**
+     * Recorre la tabla con un cursor del lado del servidor: cada plano se entrega en cuanto se lee
+     * su fila, así la memoria no crece con el número de planos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        reader.forEach(action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        if (limit <= 0) return List.of();
+        return reader.findPage(afterAuthor, afterName, limit);
+    }
+
+    /** Range scan sobre {@value #BOUNDS_INDEX}: solo lee los planos cuya caja intersecta el área. */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        return reader.findIntersecting(area);
     }
 
+    /**
+     * Agrega un punto sin cargar ni reescribir los existentes: una fila nueva en blueprint_points o
+     * 8 bytes concatenados a {@code points_packed}, según la forma del plano.
+     */
     @Override
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
-        BlueprintEntity entity = jpaRepository.findByAuthorAndName(author, name)
-                .orElseThrow(() -> new BlueprintNotFoundException(
-                        "Blueprint not found: %s/%s".formatted(author, name)));
-        entity.getPoints().add(new PointEmbeddable(x, y));
-        jpaRepository.save(entity);
+        append(author, name, new int[] {x}, new int[] {y});
+    }
+
+    /** Agrega los puntos en posiciones contiguas con una sola sentencia, aunque haya appends concurrentes. */
+    @Override
+    public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        int[] xs = new int[points.size()];
+        int[] ys = new int[points.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = points.get(i).x();
+            ys[i] = points.get(i).y();
+        }
+        if (xs.length == 0) {
+            if (!jpaRepository.existsByAuthorAndName(author, name)) throw notFound(author, name);
+            return;
+        }
+        append(author, name, xs, ys);
+    }
+
+    /**
+     * Prueba primero la forma configurada y luego la otra. Si ninguna actualiza filas y el plano
+     * existe, una migración lo cambió de forma entre ambas sentencias: se reintenta (la migración
+     * solo va de filas a empaquetado, así que basta una vuelta más).
+     */
+    private void append(String author, String name, int[] xs, int[] ys) throws BlueprintNotFoundException {
+        boolean packedFirst = storage == PointStorage.PACKED;
+        for (;;) {
+            if (packedFirst ? appendPacked(author, name, xs, ys) : appendRows(author, name, xs, ys)) break;
+            if (packedFirst ? appendRows(author, name, xs, ys) : appendPacked(author, name, xs, ys)) break;
+            if (!jpaRepository.existsByAuthorAndName(author, name)) throw notFound(author, name);
+        }
+        evict(author, name);
+    }
+
+    /**
+     * Saca del contexto de persistencia la entidad del plano, si esta transacción la cargó: no vería
+     * el punto que el SQL directo acaba de agregar. Las demás entidades cargadas siguen gestionadas.
+     */
+    private void evict(String author, String name) {
+        Session session = entityManager.unwrap(Session.class);
+        if (session.getStatistics().getEntityCount() == 0) return;
+        // Copia: detach modifica el conjunto que se recorre.
+        for (Object k : List.copyOf(session.getStatistics().getEntityKeys())) {
+            EntityKey key = (EntityKey) k;
+            if (!BlueprintEntity.class.getName().equals(key.getEntityName())) continue;
+            BlueprintEntity entity = entityManager.find(BlueprintEntity.class, key.getIdentifier());
+            if (author.equals(entity.getAuthor()) && name.equals(entity.getName())) {
+                entityManager.detach(entity);
+                return;
+            }
+        }
+    }
+
+    private boolean appendPacked(String author, String name, int[] xs, int[] ys) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return jdbc.update(APPEND_PACKED, PackedPoints.encode(xs, ys), xs.length,
+                minX, minY, maxX, maxY, author, name) > 0;
+    }
+
+    private boolean appendRows(String author, String name, int[] xs, int[] ys) {
+        if (xs.length == 1) return jdbc.update(APPEND_POINT, xs[0], ys[0], author, name) > 0;
+        return jdbc.update(APPEND_POINTS, ps -> {
+            ps.setObject(1, xs);
+            ps.setObject(2, ys);
+            ps.setString(3, author);
+            ps.setString(4, name);
+        }) > 0;
+    }
+
+    private static BlueprintNotFoundException notFound(String author, String name) {
+        return new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
+    }
+
+    // ── Migración blueprint_points → points_packed ───────────────────────────
+
+    /**
+     * Convierte a {@code points_packed} hasta {@code batchSize} planos que aún usan blueprint_points,
+     * en la transacción de la llamada. Retorna cuántos convirtió. Un 0 no indica que no queden
+     * pendientes: puede que los restantes tengan escrituras en curso ({@code SKIP LOCKED}); eso lo
+     * dice {@link #countUnpacked()}. Es seguro ejecutarla con la aplicación en servicio.
+     */
+    public int migrateToPacked(int batchSize) {
+        entityManager.flush();
+        Integer migrated = jdbc.queryForObject(MIGRATE_TO_PACKED, Integer.class, batchSize);
+        entityManager.clear();
+        return migrated == null ? 0 : migrated;
+    }
+
+    /** Planos que aún guardan sus puntos en blueprint_points. */
+    @Transactional(readOnly = true)
+    public long countUnpacked() {
+        Long n = jdbc.queryForObject("SELECT COUNT(*) FROM blueprints WHERE points_packed IS NULL", Long.class);
+        return n == null ? 0 : n;
+    }
+
+    // ── Cajas envolventes ────────────────────────────────────────────────────
+
+    /**
+     * Crea {@value #BOUNDS_INDEX} si no existe, sin bloquear las escrituras de la tabla. Corre fuera
+     * de toda transacción (autocommit), como exige {@code CREATE INDEX CONCURRENTLY}. Si una
+     * construcción anterior se interrumpió y dejó el índice inválido, lo borra y lo vuelve a crear.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void createBoundsIndex() {
+        Integer invalid = jdbc.queryForObject(INVALID_BOUNDS_INDEX, Integer.class, BOUNDS_INDEX);
+        if (invalid != null && invalid > 0) jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + BOUNDS_INDEX);
+        jdbc.execute(CREATE_BOUNDS_INDEX);
+    }
+
+    /**
+     * Calcula la caja de hasta {@code batchSize} planos que aún no la tienen (filas anteriores a las
+     * columnas), en la transacción de la llamada. Las filas se bloquean antes de leer sus puntos, así
+     * que un append concurrente espera y luego agranda la caja ya calculada. Retorna cuántas calculó.
+     * Como en {@link #migrateToPacked}, un 0 puede deberse a filas bloqueadas: lo que queda lo dice
+     * {@link #countUnbounded()}.
+     */
+    public int backfillBounds(int batchSize) {
+        entityManager.flush();
+        List<Long> locked = jdbc.queryForList(LOCK_UNBOUNDED, Long.class, batchSize);
+        if (locked.isEmpty()) return 0;
+        long[] ids = locked.stream().mapToLong(Long::longValue).toArray();
+        Map<Long, Blueprint> bps = reader.findByIds(ids);
+        int[][] box = new int[4][ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            Blueprint bp = bps.get(ids[i]);
+            int[] xy = bp == null ? new int[0] : bp.copyCoordinates();
+            int[] b = bounds(xy, xy.length / 2);
+            for (int k = 0; k < 4; k++) box[k][i] = b[k];
+        }
+        jdbc.update(SET_BOUNDS, ps -> {
+            ps.setObject(1, ids);
+            for (int k = 0; k < 4; k++) ps.setObject(2 + k, box[k]);
+        });
+        entityManager.clear();
+        return ids.length;
+    }
+
+    /** Planos cuya caja aún no se calculó. */
+    @Transactional(readOnly = true)
+    public long countUnbounded() {
+        Long n = jdbc.queryForObject("SELECT COUNT(*) FROM blueprints WHERE min_x IS NULL", Long.class);
+        return n == null ? 0 : n;
     }
 }
@@ -0,0 +1,274 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * R-tree sobre las cajas envolventes de los planos, para {@link InMemoryBlueprintPersistence}.
+ * Cada hoja guarda hasta {@value #MAX_CHILDREN} planos y cada nodo interno la caja que cubre a sus
+ * hijos; una consulta solo baja por los nodos cuya caja intersecta el área, así que cuesta
+ * O(log n + resultados) mientras las cajas de los planos no se solapen demasiado.
+ *
+ * <p>Los planos nunca se borran y sus puntos solo se agregan, así que la caja de un plano solo crece:
+ * un punto nuevo fuera de ella la agranda en su hoja y en los ancestros que no lo cubrían, sin
+ * reinsertar. Eso mantiene el árbol correcto aunque con el tiempo menos ajustado que uno
+ * reconstruido. Un plano entra al índice con su primer punto.
+ *
+ * <p>Escrituras y consultas comparten un {@link ReentrantReadWriteLock}; un punto que cae dentro de
+ * la caja actual de su plano (el caso común) solo toma el lock de lectura.
+ */
+final class SpatialIndex {
+
+    static final int MAX_CHILDREN = 16;
+    static final int MIN_CHILDREN = 6;
+
+    private static final Comparator<Blueprint> BY_KEY =
+            Comparator.comparing(Blueprint::getAuthor).thenComparing(Blueprint::getName);
+
+    /** Caja mutable de un plano o un nodo; solo se modifica con el lock de escritura. */
+    private abstract static class Box {
+        int minX, minY, maxX, maxY;
+        Node parent;
+
+        boolean intersects(BoundingBox q) {
+            return minX <= q.maxX() && q.minX() <= maxX && minY <= q.maxY() && q.minY() <= maxY;
+        }
+
+        boolean contains(int x, int y) {
+            return minX <= x && x <= maxX && minY <= y && y <= maxY;
+        }
+
+        boolean covers(Box b) {
+            return minX <= b.minX && b.maxX <= maxX && minY <= b.minY && b.maxY <= maxY;
+        }
+
+        void set(Box b) {
+            minX = b.minX; minY = b.minY; maxX = b.maxX; maxY = b.maxY;
+        }
+
+        void include(Box b) {
+            minX = Math.min(minX, b.minX); minY = Math.min(minY, b.minY);
+            maxX = Math.max(maxX, b.maxX); maxY = Math.max(maxY, b.maxY);
+        }
+
+        double area() {
+            return ((double) maxX - minX) * ((double) maxY - minY);
+        }
+
+        /** Área de la unión con {@code b}, sin construirla. */
+        double unionArea(Box b) {
+            return ((double) Math.max(maxX, b.maxX) - Math.min(minX, b.minX))
+                    * ((double) Math.max(maxY, b.maxY) - Math.min(minY, b.minY));
+        }
+    }
+
+    private static final class Entry extends Box {
+        final Blueprint blueprint;
+
+        Entry(Blueprint blueprint, BoundingBox b) {
+            this.blueprint = blueprint;
+            minX = b.minX(); minY = b.minY(); maxX = b.maxX(); maxY = b.maxY();
+        }
+    }
+
+    private static final class Node extends Box {
+        final boolean leaf;
+        final List<Box> children = new ArrayList<>(MAX_CHILDREN + 1);
+
+        Node(boolean leaf) { this.leaf = leaf; }
+
+        void add(Box child) {
+            if (children.isEmpty()) set(child);
+            else include(child);
+            children.add(child);
+            child.parent = this;
+        }
+
+        void recompute() {
+            set(children.get(0));
+            for (int i = 1; i < children.size(); i++) include(children.get(i));
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Entrada de cada plano, por la clave que le da el llamador (solo se usa con equals/hashCode). */
+    private final Map<Object, Entry> entries = new HashMap<>();
+    private Node root = new Node(true);
+
+    /**
+     * Registra o agranda la caja de {@code bp} con todos sus puntos actuales. Se llama al guardar el
+     * plano; si un {@link #extend} concurrente lo registró antes, las cajas se unen.
+     */
+    void add(Object key, Blueprint bp) {
+        BoundingBox box = BoundingBox.of(bp);
+        if (box == null) return;
+        lock.writeLock().lock();
+        try {
+            grow(key, bp, box);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Asegura que la caja de {@code bp} contenga el punto ({@code x}, {@code y}). */
+    void extend(Object key, Blueprint bp, int x, int y) {
+        lock.readLock().lock();
+        try {
+            Entry e = entries.get(key);
+            if (e != null && e.contains(x, y)) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            grow(key, bp, new BoundingBox(x, y, x, y));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Planos cuya caja intersecta {@code area}, ordenados por (autor, nombre). */
+    List<Blueprint> search(BoundingBox area) {
+        List<Blueprint> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (root.children.isEmpty() || !root.intersects(area)) return hits;
+            ArrayDeque<Node> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node n = stack.pop();
+                for (Box child : n.children) {
+                    if (!child.intersects(area)) continue;
+                    if (n.leaf) hits.add(((Entry) child).blueprint);
+                    else stack.push((Node) child);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(BY_KEY);
+        return hits;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ── Con el lock de escritura ─────────────────────────────────────────────
+
+    private void grow(Object key, Blueprint bp, BoundingBox box) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            e = new Entry(bp, box);
+            entries.put(key, e);
+            insert(e);
+            return;
+        }
+        Entry probe = new Entry(bp, box);
+        if (e.covers(probe)) return;
+        e.include(probe);
+        for (Node n = e.parent; n != null && !n.covers(e); n = n.parent) n.include(e);
+    }
+
+    private void insert(Entry e) {
+        Node leaf = chooseLeaf(e);
+        leaf.add(e);
+        Node n = leaf;
+        while (n != null) {
+            Node split = n.children.size() > MAX_CHILDREN ? split(n) : null;
+            Node parent = n.parent;
+            if (split != null) {
+                if (parent == null) {
+                    root = new Node(false);
+                    root.add(n);
+                    root.add(split);
+                    return;
+                }
+                parent.add(split);
+            }
+            if (parent != null) parent.include(n);
+            n = parent;
+        }
+    }
+
+    /** Baja por el hijo cuya caja crece menos al incluir {@code e}; a igual crecimiento, el de menor área. */
+    private Node chooseLeaf(Box e) {
+        Node n = root;
+        while (!n.leaf) {
+            Box best = null;
+            double bestGrowth = Double.MAX_VALUE;
+            double bestArea = Double.MAX_VALUE;
+            for (Box child : n.children) {
+                double area = child.area();
+                double growth = child.unionArea(e) - area;
+                if (growth < bestGrowth || (growth == bestGrowth && area < bestArea)) {
+                    best = child;
+                    bestGrowth = growth;
+                    bestArea = area;
+                }
+            }
+            n = (Node) best;
+        }
+        return n;
+    }
+
+    /**
+     * División cuadrática de Guttman: las semillas son el par que más área desperdicia juntas; el
+     * resto va al grupo que menos crece, salvo que el otro necesite todos los que quedan para llegar
+     * a {@value #MIN_CHILDREN}. Deja el primer grupo en {@code n} y retorna el segundo.
+     */
+    private static Node split(Node n) {
+        List<Box> pending = new ArrayList<>(n.children);
+        int seedA = 0, seedB = 1;
+        double worst = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < pending.size(); i++) {
+            for (int j = i + 1; j < pending.size(); j++) {
+                Box a = pending.get(i), b = pending.get(j);
+                double waste = a.unionArea(b) - a.area() - b.area();
+                if (waste > worst) {
+                    worst = waste;
+                    seedA = i;
+                    seedB = j;
+                }
+            }
+        }
+        Box a = pending.get(seedA);
+        Box b = pending.get(seedB);
+        pending.remove(seedB);
+        pending.remove(seedA);
+
+        n.children.clear();
+        Node sibling = new Node(n.leaf);
+        n.add(a);
+        sibling.add(b);
+        while (!pending.isEmpty()) {
+            if (n.children.size() + pending.size() == MIN_CHILDREN) {
+                for (Box child : pending) n.add(child);
+                break;
+            }
+            if (sibling.children.size() + pending.size() == MIN_CHILDREN) {
+                for (Box child : pending) sibling.add(child);
+                break;
+            }
+            Box child = pending.remove(pending.size() - 1);
+            double growA = n.unionArea(child) - n.area();
+            double growB = sibling.unionArea(child) - sibling.area();
+            if (growA < growB || (growA == growB && n.children.size() <= sibling.children.size())) n.add(child);
+            else sibling.add(child);
+        }
+        return sibling;
+    }
+}
@@ -0,0 +1,370 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de escritura anticipada de {@link DurableBlueprintPersistence}. Cada escritura se agrega a un
+ * buffer en memoria ({@link #appendSave}, {@link #appendPoints}) y luego quien la hizo llama a
+ * {@link #sync} fuera de su lock: el primero en llegar escribe al archivo todo lo acumulado (y hace
+ * fsync si la política lo pide) y los demás encuentran su registro ya cubierto. Así un fsync sirve a
+ * todas las escrituras concurrentes de ese momento (group commit).
+ *
+ * <p>Registro (little-endian): {@code int} longitud del cuerpo, {@code int} CRC32C del cuerpo y el
+ * cuerpo: {@code byte} tipo ({@link #SAVE} o {@link #POINTS}), autor, nombre (ambos {@code int}
+ * longitud + UTF-8), {@code int} n y 2·n coordenadas {@code int}. Los archivos se llaman
+ * {@code wal-<generación>.log}; cada arranque y cada snapshot abren una generación nueva, así que un
+ * registro incompleto (caída a mitad de escritura) solo puede estar al final de un archivo, y la
+ * recuperación lo descarta.
+ */
+final class WriteAheadLog implements Closeable {
+
+    /** Cuándo se hace fsync del log. En los tres casos la escritura retorna con el registro ya en el archivo. */
+    enum FsyncPolicy {
+        /** Antes de retornar cada escritura (compartido entre escrituras concurrentes). */
+        ALWAYS,
+        /** Periódicamente (ver {@link #force()}); una caída del sistema operativo pierde a lo sumo ese intervalo. */
+        INTERVAL,
+        /** Nunca: lo decide el sistema operativo. */
+        NEVER
+    }
+
+    static final byte SAVE = 1;
+    static final byte POINTS = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = 8;
+    private static final int BUFFER = 64 * 1024;
+    /** Windows no permite abrir un directorio como canal; ahí el rename ya es durable (NTFS). */
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+    /** Tope de un registro; también asegura que cabe en una ventana de {@link MappedFileReader}. */
+    static final int MAX_RECORD = (int) MappedFileReader.DEFAULT_WINDOW;
+
+    private final Path dir;
+    private final FsyncPolicy policy;
+
+    /** Protege {@code buffer} y {@code appended}. */
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private ByteBuffer buffer = newBuffer(BUFFER);
+    /** Bytes agregados desde que se abrió el log; la posición final de cada registro es su secuencia. */
+    private long appended;
+
+    /** Protege el archivo; lo toma quien escribe el buffer (el líder del group commit). */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ByteBuffer spare = newBuffer(BUFFER);
+    private FileChannel channel;
+    private long generation;
+    private volatile long fileBytes;
+    private volatile long written;
+    private volatile long forced;
+    private volatile IOException failure;
+
+    WriteAheadLog(Path dir, long generation, FsyncPolicy policy) throws IOException {
+        this.dir = dir;
+        this.policy = policy;
+        open(generation);
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void open(long gen) throws IOException {
+        channel = FileChannel.open(file(dir, gen), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        generation = gen;
+        fileBytes = 0;
+        // Sin esto, tras una caída el archivo podría no existir aunque se hayan hecho fsync de sus registros.
+        syncDirectory(dir);
+    }
+
+    /**
+     * fsync de {@code dir}: hace durables las entradas creadas, renombradas o borradas en él. El
+     * fsync de un archivo no cubre su entrada en el directorio.
+     */
+    static void syncDirectory(Path dir) throws IOException {
+        if (WINDOWS) return;
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        }
+    }
+
+    static Path file(Path dir, long generation) {
+        return dir.resolve(PREFIX + "%016d".formatted(generation) + SUFFIX);
+    }
+
+    /** Archivos de log de {@code dir} por generación. */
+    static NavigableMap<Long, Path> files(Path dir) throws IOException {
+        return generations(dir, PREFIX, SUFFIX);
+    }
+
+    static NavigableMap<Long, Path> generations(Path dir, String prefix, String suffix) throws IOException {
+        NavigableMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> entries = Files.list(dir)) {
+            entries.forEach(p -> {
+                String name = p.getFileName().toString();
+                if (!name.startsWith(prefix) || !name.endsWith(suffix)) return;
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), p);
+                } catch (NumberFormatException e) {
+                    // no es un archivo nuestro
+                }
+            });
+        }
+        return files;
+    }
+
+    /** Generación del archivo en el que se escribe ahora. */
+    long generation() {
+        flushLock.lock();
+        try {
+            return generation;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Bytes escritos en el archivo de la generación actual. */
+    long fileBytes() { return fileBytes; }
+
+    /** Falla si un error de E/S anterior dejó el log inutilizable; se llama antes de aplicar una escritura. */
+    void checkWritable() {
+        IOException e = failure;
+        if (e != null) throw new UncheckedIOException("write-ahead log unavailable", e);
+    }
+
+    // ── Append ───────────────────────────────────────────────────────────────
+
+    /** Registra el alta de {@code bp} con sus puntos actuales. Retorna la secuencia para {@link #sync}. */
+    long appendSave(Blueprint bp) {
+        int[] xy = bp.copyCoordinates();
+        return append(SAVE, bp.getAuthor(), bp.getName(), xy, xy.length / 2);
+    }
+
+    /** Registra {@code count} puntos agregados al final del plano. Retorna la secuencia para {@link #sync}. */
+    long appendPoints(String author, String name, int[] xy, int count) {
+        return append(POINTS, author, name, xy, count);
+    }
+
+    private long append(byte type, String author, String name, int[] xy, int count) {
+        byte[] a = author.getBytes(StandardCharsets.UTF_8);
+        byte[] n = name.getBytes(StandardCharsets.UTF_8);
+        long body = 1L + 4 + a.length + 4 + n.length + 4 + 8L * count;
+        if (body > MAX_RECORD) throw new IllegalArgumentException("record too large: " + body + " bytes");
+        int len = (int) body;
+        bufferLock.lock();
+        try {
+            ByteBuffer buf = reserve(HEADER + len);
+            int start = buf.position();
+            buf.position(start + HEADER);
+            buf.put(type);
+            buf.putInt(a.length).put(a);
+            buf.putInt(n.length).put(n);
+            buf.putInt(count);
+            buf.asIntBuffer().put(xy, 0, 2 * count);
+            buf.position(buf.position() + 8 * count);
+            CRC32C crc = new CRC32C();
+            crc.update(buf.slice(start + HEADER, len));
+            buf.putInt(start, len).putInt(start + 4, (int) crc.getValue());
+            appended += HEADER + len;
+            return appended;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private ByteBuffer reserve(int bytes) {
+        if (buffer.remaining() < bytes) {
+            long need = (long) buffer.position() + bytes;
+            if (need > Integer.MAX_VALUE - 8) throw new IllegalStateException("write-ahead log buffer full");
+            ByteBuffer bigger = newBuffer((int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * buffer.capacity(), need)));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        return buffer;
+    }
+
+    // ── Group commit ─────────────────────────────────────────────────────────
+
+    /**
+     * Retorna cuando el registro que terminó en {@code seq} está en el archivo y, con
+     * {@link FsyncPolicy#ALWAYS}, en disco. Si otro hilo ya lo cubrió no hace E/S.
+     */
+    void sync(long seq) throws IOException {
+        boolean force = policy == FsyncPolicy.ALWAYS;
+        if ((force ? forced : written) >= seq) return;
+        flushLock.lock();
+        try {
+            if ((force ? forced : written) >= seq) return;
+            writePending();
+            if (force) forceChannel();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Escribe y hace fsync de lo pendiente; lo usa la tarea periódica de {@link FsyncPolicy#INTERVAL}. */
+    void force() throws IOException {
+        flushLock.lock();
+        try {
+            writePending();
+            forceChannel();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Cierra la generación actual (con fsync) y abre la siguiente. Quien llama debe impedir nuevos
+     * appends mientras tanto, de modo que la generación cerrada contenga exactamente las escrituras
+     * aplicadas hasta ese momento. Retorna la generación cerrada.
+     */
+    long rotate() throws IOException {
+        flushLock.lock();
+        try {
+            writePending();
+            forceChannel();
+            channel.close();
+            long closed = generation;
+            open(closed + 1);
+            return closed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Con {@code flushLock}: toma el buffer acumulado (dejando otro vacío en su lugar) y lo escribe. */
+    private void writePending() throws IOException {
+        checkFailure();
+        ByteBuffer batch;
+        long end;
+        bufferLock.lock();
+        try {
+            if (appended == written) return;
+            batch = buffer;
+            end = appended;
+            buffer = spare;
+            spare = null;
+        } finally {
+            bufferLock.unlock();
+        }
+        try {
+            batch.flip();
+            long bytes = batch.remaining();
+            while (batch.hasRemaining()) channel.write(batch);
+            fileBytes += bytes;
+            written = end;
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        // Un lote enorme (un plano grande) no deja su buffer retenido.
+        spare = batch.capacity() > 16 * BUFFER ? newBuffer(BUFFER) : batch.clear();
+    }
+
+    private void forceChannel() throws IOException {
+        checkFailure();
+        long end = written;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        forced = end;
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) throw new IOException("write-ahead log unavailable", e);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushLock.lock();
+        try {
+            if (!channel.isOpen()) return;
+            try {
+                if (failure == null) {
+                    writePending();
+                    if (policy != FsyncPolicy.NEVER) forceChannel();
+                }
+            } finally {
+                channel.close();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ── Recuperación ─────────────────────────────────────────────────────────
+
+    /** Recibe los registros en el orden del log. Los arreglos son nuevos y quedan para el receptor. */
+    interface RecordHandler {
+        void save(String author, String name, int[] xy, int count);
+
+        void points(String author, String name, int[] xy, int count);
+    }
+
+    /**
+     * Entrega a {@code handler} los registros completos de {@code file}, en orden. Se detiene en el
+     * primer registro incompleto o con CRC inválido: lo que sigue es la cola de una escritura
+     * interrumpida. Retorna el número de registros leídos.
+     */
+    static long replay(Path file, RecordHandler handler) throws IOException {
+        long records = 0;
+        try (MappedFileReader in = new MappedFileReader(file)) {
+            CRC32C crc = new CRC32C();
+            while (in.remaining() > 0) {
+                long at = in.position();
+                if (in.remaining() < HEADER) return tornTail(file, at, records);
+                int len = in.getInt();
+                int checksum = in.getInt();
+                if (len <= 0 || len > in.remaining() || len > MAX_RECORD) return tornTail(file, at, records);
+                ByteBuffer body = in.need(len);
+                crc.reset();
+                crc.update(body.slice(body.position(), len));
+                if ((int) crc.getValue() != checksum) return tornTail(file, at, records);
+                byte type = in.get();
+                String author = in.getString();
+                String name = in.getString();
+                int count = in.getInt();
+                if (count < 0 || 8L * count > in.remaining()) throw new IOException("bad point count at " + at + " in " + file);
+                int[] xy = new int[2 * count];
+                in.getInts(xy);
+                switch (type) {
+                    case SAVE -> handler.save(author, name, xy, count);
+                    case POINTS -> handler.points(author, name, xy, count);
+                    default -> throw new IOException("unknown record type " + type + " at " + at + " in " + file);
+                }
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static long tornTail(Path file, long at, long records) {
+        log.warn("Torn record in {} at byte {}; discarding the tail of the log", file, at);
+        return records;
+    }
+}
@@ -0,0 +1,491 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Persistencia write-behind: lecturas y escrituras sobre un {@link InMemoryBlueprintPersistence} y
+ * volcado asíncrono a PostgreSQL. Activa con los perfiles "postgres" y "write-behind":
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=postgres,write-behind
+ *
+ * <p>Al arrancar se carga en memoria todo el catálogo de PostgreSQL. Cada escritura se aplica en
+ * memoria y se encola como mutación bajo un mismo lock, así que el orden de la cola es el de la
+ * memoria. Un hilo propio vacía la cola cada {@code flush-interval}, o antes si se acumulan
+ * {@code max-batch} mutaciones, y escribe cada lote en una transacción: las altas del lote van en un
+ * solo {@code saveBlueprints} (con los puntos agregados después ya incluidos) y los puntos de cada
+ * plano existente en un solo {@code addPoints}, es decir, un INSERT multi-fila por plano en vez de
+ * uno por {@code addPoint}.
+ *
+ * <p>La cola admite a lo sumo {@code queue-capacity} mutaciones pendientes (una por llamada, sin
+ * importar cuántos puntos lleve). Con la cola llena las escrituras esperan hasta
+ * {@code offer-timeout} y luego fallan con {@link RejectedExecutionException}, antes de tocar la
+ * memoria. Si un lote falla (por ejemplo, la base no responde) se revierte su transacción y se
+ * reintenta entero en la siguiente vuelta; mientras tanto la cola se llena y frena a los escritores.
+ * {@link #close()} detiene el hilo y vuelca lo pendiente antes de que Spring cierre el datasource.
+ *
+ * <p>Lo escrito es visible de inmediato pero puede perderse si el proceso muere antes del volcado;
+ * el retraso se publica en {@code blueprints.write-behind.lag} (segundos desde que se encoló la
+ * mutación más antigua sin volcar), junto a {@code blueprints.write-behind.pending} (mutaciones en
+ * cola), {@code blueprints.write-behind.flush} (tiempo por lote) y
+ * {@code blueprints.write-behind.failures} (lotes fallidos). Asume que solo esta instancia escribe en
+ * la base: los cambios hechos por otros no se ven hasta reiniciar.
+ *
+ * <p>Propiedades bajo {@code blueprints.write-behind}: {@code queue-capacity} (por defecto 100000),
+ * {@code max-batch} (5000), {@code flush-interval} (200ms) y {@code offer-timeout} (5s).
+ */
+@Repository
+@Primary
+@Profile("postgres & write-behind")
+public class WriteBehindBlueprintPersistence implements BlueprintPersistence, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBlueprintPersistence.class);
+
+    /** Alta de un plano ({@code save}) o puntos agregados a uno existente, con las coordenadas de ese instante. */
+    private record Mutation(String author, String name, int[] xy, int count, boolean save, long queuedAt) {
+        Key key() { return new Key(author, name); }
+    }
+
+    /** Clave (autor, nombre) para agrupar un lote; ambos pueden contener cualquier carácter, así que no se concatenan. */
+    private record Key(String author, String name) { }
+
+    /** Coordenadas acumuladas de un plano dentro de un lote. */
+    private static final class Run {
+        final String author;
+        final String name;
+        int[] xy;
+        int count;
+
+        Run(String author, String name) {
+            this.author = author;
+            this.name = name;
+            this.xy = new int[8];
+        }
+
+        void append(int[] src, int n) {
+            if (2 * (count + n) > xy.length) xy = Arrays.copyOf(xy, Math.max(2 * xy.length, 2 * (count + n)));
+            System.arraycopy(src, 0, xy, 2 * count, 2 * n);
+            count += n;
+        }
+    }
+
+    private final InMemoryBlueprintPersistence memory = InMemoryBlueprintPersistence.empty();
+    private final BlueprintPersistence backend;
+    private final TransactionOperations tx;
+    private final int maxBatch;
+    private final long offerTimeoutNanos;
+
+    /** La cola no tiene límite propio: lo pone {@link #permits}, que se reserva antes de tocar la memoria. */
+    private final LinkedBlockingQueue<Mutation> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    /** Serializa cada escritura en memoria con su encolado. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /** Un volcado a la vez. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    /**
+     * Lote sacado de la cola y aún no confirmado en la base; solo lo cambia quien tiene
+     * {@link #flushLock}. Es volatile porque {@link #pendingMutations()} lo lee sin el lock.
+     */
+    private volatile List<Mutation> inflight;
+    private volatile long inflightSince;
+    /** Hay una racha de volcados fallidos: solo el primero registra la traza completa. */
+    private final AtomicBoolean flushFailing = new AtomicBoolean();
+
+    private final Timer flushTimer;
+    private final Counter failures;
+
+    @Autowired
+    public WriteBehindBlueprintPersistence(PostgresBlueprintPersistence backend,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry registry,
+                                           @Value("${blueprints.write-behind.queue-capacity:100000}") int queueCapacity,
+                                           @Value("${blueprints.write-behind.max-batch:5000}") int maxBatch,
+                                           @Value("${blueprints.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                           @Value("${blueprints.write-behind.offer-timeout:5s}") Duration offerTimeout) {
+        this(backend, new TransactionTemplate(transactionManager), registry,
+                queueCapacity, maxBatch, flushInterval, offerTimeout);
+    }
+
+    WriteBehindBlueprintPersistence(BlueprintPersistence backend, TransactionOperations tx, MeterRegistry registry,
+                                    int queueCapacity, int maxBatch, Duration flushInterval, Duration offerTimeout) {
+        if (queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("queue-capacity and max-batch must be positive");
+        }
+        this.backend = backend;
+        this.tx = tx;
+        this.maxBatch = maxBatch;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.permits = new Semaphore(queueCapacity);
+        load();
+
+        Gauge.builder("blueprints.write-behind.pending", queue, LinkedBlockingQueue::size)
+                .description("Mutaciones en cola sin volcar a la base")
+                .register(registry);
+        Gauge.builder("blueprints.write-behind.lag", this, WriteBehindBlueprintPersistence::lagSeconds)
+                .description("Antigüedad de la mutación más vieja sin volcar")
+                .baseUnit("seconds")
+                .register(registry);
+        this.flushTimer = Timer.builder("blueprints.write-behind.flush")
+                .description("Tiempo de escritura de cada lote en la base")
+                .register(registry);
+        this.failures = Counter.builder("blueprints.write-behind.failures")
+                .description("Lotes que fallaron y se reintentarán")
+                .register(registry);
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "blueprint-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler = executor;
+        long ms = Math.max(1, flushInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::runFlush, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        backend.forEachBlueprint(bp -> {
+            try {
+                // Copia propia: si el backend entrega sus instancias, los appends en memoria no deben
+                // llegarle antes del volcado.
+                int[] xy = bp.copyCoordinates();
+                memory.saveBlueprint(Blueprint.ofCoordinates(bp.getAuthor(), bp.getName(), xy, xy.length / 2));
+            } catch (BlueprintPersistenceException e) {
+                log.warn("Duplicate blueprint while loading: {}/{}", bp.getAuthor(), bp.getName());
+            }
+        });
+        log.info("Loaded {} blueprints into memory in {} ms", memory.getAllBlueprints().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private double lagSeconds() {
+        long since = inflightSince;
+        if (since == 0) {
+            Mutation head = queue.peek();
+            if (head == null) return 0;
+            since = head.queuedAt();
+        }
+        return Math.max(0, System.nanoTime() - since) / 1e9;
+    }
+
+    // ── Volcado ──────────────────────────────────────────────────────────────
+
+    /**
+     * Vuelca a la base todo lo encolado hasta ahora, en lotes de {@code max-batch} mutaciones. Si un
+     * lote falla la excepción se propaga y el lote queda pendiente para el siguiente intento.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (;;) {
+                if (inflight == null) {
+                    List<Mutation> batch = new ArrayList<>(Math.min(maxBatch, Math.max(queue.size(), 1)));
+                    queue.drainTo(batch, maxBatch);
+                    if (batch.isEmpty()) return;
+                    inflight = batch;
+                    inflightSince = batch.get(0).queuedAt();
+                }
+                long start = System.nanoTime();
+                try {
+                    List<Mutation> batch = inflight;
+                    tx.executeWithoutResult(status -> write(batch));
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    throw e;
+                } finally {
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                permits.release(inflight.size());
+                inflight = null;
+                inflightSince = 0;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Agrupa el lote por plano, conservando el orden de llegada: los puntos de un plano creado en el
+     * mismo lote se suman a su alta; los de un plano ya volcado se agregan en un solo {@code addPoints}.
+     */
+    private void write(List<Mutation> batch) {
+        Map<Key, Run> saves = new LinkedHashMap<>();
+        Map<Key, Run> appends = new LinkedHashMap<>();
+        for (Mutation m : batch) {
+            Key key = m.key();
+            Run run = m.save() ? null : saves.get(key);
+            if (run == null) {
+                Map<Key, Run> target = m.save() ? saves : appends;
+                run = target.computeIfAbsent(key, k -> new Run(m.author(), m.name()));
+            }
+            run.append(m.xy(), m.count());
+        }
+        if (!saves.isEmpty()) {
+            List<Blueprint> bps = new ArrayList<>(saves.size());
+            for (Run run : saves.values()) bps.add(Blueprint.ofCoordinates(run.author, run.name, run.xy, run.count));
+            for (Blueprint bp : backend.saveBlueprints(bps)) {
+                log.warn("Blueprint {}/{} already exists in the database; skipping the insert", bp.getAuthor(), bp.getName());
+            }
+        }
+        for (Run run : appends.values()) {
+            try {
+                backend.addPoints(run.author, run.name, Blueprint.packedPoints(run.xy, run.count));
+            } catch (BlueprintNotFoundException e) {
+                log.warn("Dropping {} points of a blueprint missing from the database: {}/{}",
+                        run.count, run.author, run.name);
+            }
+        }
+    }
+
+    private void queueFlush() {
+        if (flushQueued.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushQueued.set(false);
+                    runFlush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushQueued.set(false);   // cerrando: close() vuelca lo pendiente
+            }
+        }
+    }
+
+    /**
+     * Volcado de la tarea periódica. Con la base caída falla en cada intervalo: la traza se registra
+     * solo en el primer fallo de la racha, los siguientes en una línea, y al recuperarse se avisa.
+     */
+    private void runFlush() {
+        try {
+            flush();
+            if (flushFailing.getAndSet(false)) log.info("Write-behind flush recovered");
+        } catch (RuntimeException e) {
+            if (!flushFailing.getAndSet(true)) {
+                log.error("Write-behind flush failed; will retry ({} pending mutations)",
+                        pendingMutations(), e);
+            } else {
+                log.warn("Write-behind flush still failing ({} pending mutations): {}",
+                        pendingMutations(), e.toString());
+            }
+        }
+    }
+
+    /** Mutaciones aceptadas y aún no confirmadas en la base. */
+    public int pendingMutations() {
+        List<Mutation> batch = inflight;
+        return queue.size() + (batch == null ? 0 : batch.size());
+    }
+
+    // ── Escrituras ───────────────────────────────────────────────────────────
+
+    /** Reserva un lugar en la cola, esperando hasta {@code offer-timeout} si está llena. */
+    private void reserve() {
+        checkOpen();
+        try {
+            if (!permits.tryAcquire(offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("write-behind queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for the write-behind queue", e);
+        }
+    }
+
+    /** Se llama también bajo {@link #writeLock}: después de {@link #close()} no se encola nada más. */
+    private void checkOpen() {
+        if (closed) throw new RejectedExecutionException("write-behind persistence is closed");
+    }
+
+    private void enqueue(String author, String name, int[] xy, int count, boolean save) {
+        queue.add(new Mutation(author, name, xy, count, save, System.nanoTime()));
+    }
+
+    private void afterEnqueue() {
+        if (queue.size() >= maxBatch) queueFlush();
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        reserve();
+        boolean queued = false;
+        writeLock.lock();
+        try {
+            checkOpen();
+            memory.saveBlueprint(bp);
+            int[] xy = bp.copyCoordinates();
+            enqueue(bp.getAuthor(), bp.getName(), xy, xy.length / 2, true);
+            queued = true;
+        } finally {
+            writeLock.unlock();
+            if (!queued) permits.release();
+        }
+        afterEnqueue();
+    }
+
+    @Override
+    public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+        List<Blueprint> conflicts = new ArrayList<>();
+        for (Blueprint bp : bps) {
+            try {
+                saveBlueprint(bp);
+            } catch (BlueprintPersistenceException e) {
+                conflicts.add(bp);
+            }
+        }
+        return conflicts;
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        reserve();
+        boolean queued = false;
+        writeLock.lock();
+        try {
+            checkOpen();
+            memory.addPoint(author, name, x, y);
+            enqueue(author, name, new int[]{x, y}, 1, false);
+            queued = true;
+        } finally {
+            writeLock.unlock();
+            if (!queued) permits.release();
+        }
+        afterEnqueue();
+    }
+
+    /** Los puntos quedan contiguos en memoria y viajan como una sola mutación. */
+    @Override
+    public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        int[] xy = new int[2 * points.size()];
+        int i = 0;
+        for (Point p : points) {
+            xy[i++] = p.x();
+            xy[i++] = p.y();
+        }
+        reserve();
+        boolean queued = false;
+        writeLock.lock();
+        try {
+            checkOpen();
+            memory.getBlueprint(author, name);
+            if (points.isEmpty()) return;
+            for (int k = 0; k < xy.length; k += 2) memory.addPoint(author, name, xy[k], xy[k + 1]);
+            enqueue(author, name, xy, points.size(), false);
+            queued = true;
+        } finally {
+            writeLock.unlock();
+            if (!queued) permits.release();
+        }
+        afterEnqueue();
+    }
+
+    // ── Lecturas (sin lock, directo de memoria) ──────────────────────────────
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        return memory.getBlueprint(author, name);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return memory.getBlueprintsByAuthor(author);
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return memory.getAllBlueprints();
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return memory.getBlueprintsPage(afterAuthor, afterName, limit);
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        memory.forEachBlueprint(action);
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        return memory.getBlueprintsIntersecting(area);
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return memory.getBlueprintVersion(author, name);
+    }
+
+    @Override
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        return memory.getAuthorVersion(author);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return memory.getCatalogVersion();
+    }
+
+    /**
+     * Deja de aceptar escrituras, detiene el hilo de volcado y vuelca lo pendiente. Si la base falla
+     * en este último intento, lo no volcado se pierde y queda registrado en el log.
+     */
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Lost {} unflushed mutations on close", pendingMutations(), e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.util.List;
+
+/**
+ * Página de blueprints ordenada por (autor, nombre).
+ *
+ * @param items      Blueprints de la página, ya filtrados.
+ * @param nextAuthor Autor del cursor de la página siguiente, o {@code null} si es la última.
+ * @param nextName   Nombre del cursor de la página siguiente, o {@code null} si es la última.
+ */
+public record BlueprintPage(List<Blueprint> items, String nextAuthor, String nextName) {
+
+    public boolean hasNext() { return nextAuthor != null; }
+}
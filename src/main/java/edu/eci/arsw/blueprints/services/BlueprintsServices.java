@@ -1,46 +1,182 @@
 package edu.eci.arsw.blueprints.services;
 
 import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.MeteredFilter;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.impl.MeteredBlueprintPersistence;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
+/**
+ * Casos de uso sobre planos: persistencia, filtro activo y caché de resultados filtrados.
+ *
+ * <p>Métricas (Micrometer, expuestas en {@code /actuator/metrics} y {@code /actuator/prometheus}):
+ * {@code blueprints.persistence} por método, {@code blueprints.filter} por filtro y
+ * {@code blueprints.points.processed}, los puntos leídos por cada consulta. El tiempo por endpoint
+ * lo registra Spring en {@code http.server.requests}.
+ */
 @Service
 public class BlueprintsServices {
 
     private final BlueprintPersistence persistence;
     private final BlueprintsFilter filter;
+    private final FilteredBlueprintCache filterCache;
+    private final ParallelFilterExecutor executor;
+    private final DistributionSummary pointsProcessed;
 
-    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter) {
-        this.persistence = persistence;
-        this.filter = filter;
+    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter,
+                              FilteredBlueprintCache filterCache, ParallelFilterExecutor executor,
+                              MeterRegistry registry) {
+        this.persistence = new MeteredBlueprintPersistence(persistence, registry);
+        this.filter = new MeteredFilter(filter, registry);
+        this.filterCache = filterCache;
+        this.executor = executor;
+        this.pointsProcessed = DistributionSummary.builder("blueprints.points.processed")
+                .description("Puntos leídos por consulta, antes de filtrar")
+                .baseUnit("points")
+                .register(registry);
+    }
+
+    private void countPoints(Collection<Blueprint> blueprints) {
+        long points = 0;
+        for (Blueprint bp : blueprints) points += bp.pointCount();
+        pointsProcessed.record(points);
+    }
+
+    /** Aplica el filtro activo reutilizando resultados cacheados por versión. */
+    private Blueprint filtered(Blueprint bp) {
+        return filterCache.apply(bp, filter);
     }
 
     public void addNewBlueprint(Blueprint bp) throws BlueprintPersistenceException {
         persistence.saveBlueprint(bp);
+        filterCache.invalidate(bp.getAuthor(), bp.getName());
+    }
+
+    /** Filtra una colección completa; en paralelo si el total de puntos supera el umbral configurado. */
+    private Set<Blueprint> filteredAll(Set<Blueprint> blueprints) {
+        return new HashSet<>(executor.map(blueprints, this::filtered));
+    }
+
+    /**
+     * Registra un lote de planos. Los que ya existían no se guardan y se retornan en el orden de entrada.
+     */
+    public List<Blueprint> addNewBlueprints(Collection<Blueprint> bps) {
+        List<Blueprint> conflicts = persistence.saveBlueprints(bps);
+        for (Blueprint bp : bps) filterCache.invalidate(bp.getAuthor(), bp.getName());
+        return conflicts;
     }
 
     public Set<Blueprint> getAllBlueprints() {
-        return persistence.getAllBlueprints().stream()
-                .map(filter::apply)
-                .collect(java.util.stream.Collectors.toSet());
+        return getAllBlueprintsVersioned().value();
+    }
+
+    /** Todos los blueprints filtrados, con la versión del catálogo calculada sobre los datos leídos. */
+    public Versioned<Set<Blueprint>> getAllBlueprintsVersioned() {
+        Set<Blueprint> all = persistence.getAllBlueprints();
+        countPoints(all);
+        return new Versioned<>(filteredAll(all), BlueprintPersistence.versionOf(all));
+    }
+
+    /**
+     * Entrega cada blueprint filtrado a {@code action} a medida que la persistencia lo produce,
+     * sin construir el conjunto completo (exportación en streaming). No pasa por la caché de
+     * filtros: un recorrido completo la vaciaría de las entradas calientes.
+     */
+    public void forEachBlueprint(Consumer<? super Blueprint> action) {
+        long[] points = {0};
+        try {
+            persistence.forEachBlueprint(bp -> {
+                points[0] += bp.pointCount();
+                action.accept(filter.apply(bp));
+            });
+        } finally {
+            pointsProcessed.record(points[0]);
+        }
+    }
+
+    /**
+     * Página de hasta {@code limit} blueprints posteriores al cursor ({@code afterAuthor}, {@code afterName}).
+     * Se pide un elemento extra a la persistencia para saber si existe página siguiente.
+     */
+    public BlueprintPage getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        List<Blueprint> raw = persistence.getBlueprintsPage(afterAuthor, afterName, limit + 1);
+        boolean more = raw.size() > limit;
+        countPoints(more ? raw.subList(0, limit) : raw);
+        List<Blueprint> items = List.copyOf(executor.map(more ? raw.subList(0, limit) : raw, this::filtered));
+        if (!more) return new BlueprintPage(items, null, null);
+        Blueprint last = raw.get(limit - 1);
+        return new BlueprintPage(items, last.getAuthor(), last.getName());
+    }
+
+    /**
+     * Blueprints cuya caja envolvente (de los puntos sin filtrar) intersecta {@code area}, filtrados
+     * y ordenados por (autor, nombre).
+     */
+    public List<Blueprint> getBlueprintsIntersecting(BoundingBox area) {
+        List<Blueprint> hits = persistence.getBlueprintsIntersecting(area);
+        countPoints(hits);
+        return List.copyOf(executor.map(hits, this::filtered));
     }
 
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        return persistence.getBlueprintsByAuthor(author).stream()
-                .map(filter::apply)
-                .collect(java.util.stream.Collectors.toSet());
+        return getBlueprintsByAuthorVersioned(author).value();
+    }
+
+    public Versioned<Set<Blueprint>> getBlueprintsByAuthorVersioned(String author) throws BlueprintNotFoundException {
+        Set<Blueprint> bps = persistence.getBlueprintsByAuthor(author);
+        countPoints(bps);
+        return new Versioned<>(filteredAll(bps), BlueprintPersistence.versionOf(bps));
     }
 
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        return filter.apply(persistence.getBlueprint(author, name));
+        return getBlueprintVersioned(author, name).value();
+    }
+
+    /**
+     * Blueprint filtrado junto con la versión del plano leído. La versión se toma antes de filtrar:
+     * el resultado filtrado puede tener menos puntos que el original.
+     */
+    public Versioned<Blueprint> getBlueprintVersioned(String author, String name) throws BlueprintNotFoundException {
+        Blueprint bp = persistence.getBlueprint(author, name);
+        long version = bp.version();
+        pointsProcessed.record(version);
+        return new Versioned<>(filtered(bp), version);
+    }
+
+    // ── Versiones actuales, sin cargar puntos ni filtrar (peticiones condicionales) ──
+
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return persistence.getBlueprintVersion(author, name);
+    }
+
+    public long getAuthorVersion(String author) throws BlueprintNotFoundException {
+        return persistence.getAuthorVersion(author);
+    }
+
+    public long getCatalogVersion() {
+        return persistence.getCatalogVersion();
     }
 
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
         persistence.addPoint(author, name, x, y);
+        filterCache.invalidate(author, name);
+    }
+
+    public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+        persistence.addPoints(author, name, points);
+        filterCache.invalidate(author, name);
     }
 }
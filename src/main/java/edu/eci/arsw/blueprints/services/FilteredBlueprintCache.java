@@ -0,0 +1,108 @@
+package edu.eci.arsw.blueprints.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada de resultados de {@link BlueprintsFilter#apply}.
+ * La clave es la identidad del plano (autor, nombre) y cada entrada guarda la
+ * {@link Blueprint#version() versión} sobre la que se calculó: si el plano cambió, la entrada
+ * se descarta y se vuelve a filtrar. {@link BlueprintsServices} además invalida explícitamente
+ * en {@code addPoint} y {@code addNewBlueprint}.
+ *
+ * <p>Los contadores de {@link #stats()} se publican como {@code cache.gets} ({@code result=hit|miss}),
+ * {@code cache.evictions} y {@code cache.size} con {@code cache=filtered-blueprints}; Spring Boot
+ * registra este {@link MeterBinder} en el {@link MeterRegistry} de la aplicación.
+ *
+ * <p>Propiedad: {@code blueprints.filter-cache.max-entries} (por defecto 10000).
+ */
+@Component
+public class FilteredBlueprintCache implements MeterBinder {
+
+    static final String CACHE_NAME = "filtered-blueprints";
+
+
+    private final Cache<Key, Entry> cache;
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FilteredBlueprintCache(@Value("${blueprints.filter-cache.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    /** Identidad del plano; ambos campos pueden contener cualquier carácter, así que no se concatenan. */
+    private record Key(String author, String name) { }
+
+    /**
+     * Retorna {@code filter.apply(bp)} reutilizando el resultado previo si la versión no cambió.
+     * La versión se lee antes de filtrar: si llega un punto durante el filtrado el resultado es,
+     * como mínimo, tan reciente como la versión registrada.
+     */
+    public Blueprint apply(Blueprint bp, BlueprintsFilter filter) {
+        Key key = new Key(bp.getAuthor(), bp.getName());
+        long version = bp.version();
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return cached.result;
+        }
+        misses.increment();
+        Blueprint result = filter.apply(bp);
+        // Un filtro que retorna la misma instancia no ahorra nada al cachearse.
+        if (result != bp) cache.put(key, new Entry(version, result));
+        return result;
+    }
+
+    public void invalidate(String author, String name) {
+        cache.invalidate(new Key(author, name));
+    }
+
+    /** Contadores acumulados desde el arranque. */
+    public Stats stats() {
+        cache.cleanUp();
+        return new Stats(hits.sum(), misses.sum(), cache.stats().evictionCount(), cache.estimatedSize());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Lecturas servidas desde la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Lecturas que tuvieron que ejecutar el filtro")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                .tag("cache", CACHE_NAME)
+                .description("Entradas expulsadas por exceder el tamaño máximo")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                .tag("cache", CACHE_NAME)
+                .description("Entradas actuales (aproximado)")
+                .register(registry);
+    }
+
+    /**
+     * @param hits      Lecturas servidas desde la caché.
+     * @param misses    Lecturas que tuvieron que ejecutar el filtro.
+     * @param evictions Entradas expulsadas por exceder el tamaño máximo.
+     * @param size      Entradas actuales (aproximado).
+     */
+    public record Stats(long hits, long misses, long evictions, long size) { }
+
+    private record Entry(long version, Blueprint result) { }
+}
@@ -0,0 +1,73 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.UnaryOperator;
+
+/**
+ * Aplica el filtro a colecciones de blueprints de forma secuencial o en paralelo según el
+ * trabajo total: solo cuando la suma de puntos alcanza {@code blueprints.filters.parallel.min-points}
+ * compensa repartir. El paralelismo usa un {@link ForkJoinPool} propio, no el común, para que un
+ * filtro costoso no compita con otros usos del pool común ni quede limitado por ellos.
+ *
+ * <p>Propiedades: {@code blueprints.filters.parallel.min-points} (por defecto 200000; 0 o negativo
+ * desactiva el modo paralelo) y {@code blueprints.filters.parallel.parallelism} (por defecto 0 =
+ * número de procesadores). El punto de corte se mide con {@code ParallelFilterBenchmark}.
+ */
+@Component
+public class ParallelFilterExecutor implements AutoCloseable {
+
+    private final long minPoints;
+    private final ForkJoinPool pool;
+
+    public ParallelFilterExecutor(@Value("${blueprints.filters.parallel.min-points:200000}") long minPoints,
+                                  @Value("${blueprints.filters.parallel.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.minPoints = minPoints;
+        this.pool = minPoints > 0 && threads > 1
+                ? new ForkJoinPool(threads, ParallelFilterExecutor::newWorker, null, false)
+                : null;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("blueprint-filter-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }
+
+    /** Aplica {@code fn} a cada blueprint; el orden del resultado es el de iteración de {@code blueprints}. */
+    public List<Blueprint> map(Collection<Blueprint> blueprints, UnaryOperator<Blueprint> fn) {
+        if (!shouldParallelize(blueprints)) {
+            List<Blueprint> out = new ArrayList<>(blueprints.size());
+            for (Blueprint bp : blueprints) out.add(fn.apply(bp));
+            return out;
+        }
+        // Dentro de una tarea del pool, el parallelStream reparte en ese mismo pool.
+        List<Blueprint> source = List.copyOf(blueprints);
+        return pool.submit(() -> source.parallelStream().map(fn).toList()).join();
+    }
+
+    /** Verdadero si hay pool propio, más de un blueprint y al menos {@code minPoints} puntos en total. */
+    boolean shouldParallelize(Collection<Blueprint> blueprints) {
+        if (pool == null || blueprints.size() < 2) return false;
+        long total = 0;
+        for (Blueprint bp : blueprints) {
+            total += bp.pointCount();
+            if (total >= minPoints) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package edu.eci.arsw.blueprints.services;
+
+/**
+ * Resultado de una consulta junto con la versión de los datos de los que salió
+ * (ver {@link edu.eci.arsw.blueprints.persistence.BlueprintPersistence}). Sirve para emitir un
+ * ETag que corresponde exactamente al cuerpo, aunque los datos cambien durante la petición.
+ *
+ * @param value   Resultado ya filtrado.
+ * @param version Versión de los planos leídos, antes de filtrar.
+ * @param <T>     Tipo del resultado.
+ */
+public record Versioned<T>(T value, long version) { }
@@ -68,6 +68,15 @@ class ApiResponseTest {
         assertNull(r.getData());
     }
 
+    @Test
+    @DisplayName("serviceUnavailable() retorna código 503")
+    void serviceUnavailableShouldReturn503() {
+        ApiResponse<Object> r = ApiResponse.serviceUnavailable("cola llena");
+        assertEquals(503, r.getCode());
+        assertEquals("cola llena", r.getMessage());
+        assertNull(r.getData());
+    }
+
     @Test
     @DisplayName("withLinks() agrega el mapa _links a una respuesta existente")
     void withLinksShouldAttachHypermediaLinks() {
@@ -0,0 +1,128 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del formato binario de planos.
+ * Verifican ida y vuelta sin pérdida, validación de mensajes mal formados y tamaño frente a JSON.
+ */
+class BinaryBlueprintCodecTest {
+
+    private static byte[] encode(Blueprint bp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBlueprintCodec.Writer writer = new BinaryBlueprintCodec.Writer(Channels.newChannel(out));
+        writer.writeBlueprint(bp);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    private static NewBlueprintRequest decode(byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        assertEquals(BinaryBlueprintCodec.BLUEPRINT, BinaryBlueprintCodec.readHeader(buf));
+        NewBlueprintRequest req = BinaryBlueprintCodec.readBlueprint(buf);
+        assertFalse(buf.hasRemaining());
+        return req;
+    }
+
+    private static int[] coordinates(NewBlueprintRequest req) {
+        return new Blueprint(req.author(), req.name(), req.points()).copyCoordinates();
+    }
+
+    /** Trazo de pasos cortos, como un dibujo a mano alzada. */
+    private static Blueprint randomWalk(int points, long seed) {
+        Random rnd = new Random(seed);
+        int[] xy = new int[2 * points];
+        int x = 5_000, y = 5_000;
+        for (int i = 0; i < xy.length; i += 2) {
+            x += rnd.nextInt(41) - 20;
+            y += rnd.nextInt(41) - 20;
+            xy[i] = x;
+            xy[i + 1] = y;
+        }
+        return Blueprint.ofCoordinates("john", "walk", xy, points);
+    }
+
+    @Test
+    @DisplayName("Ida y vuelta conserva autor, nombre y coordenadas, incluidos los extremos de int")
+    void roundTripShouldBeLossless() throws IOException {
+        int[] xy = {0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                -1, 1, 123_456, -987_654};
+        Blueprint bp = Blueprint.ofCoordinates("josé", "casa ✓", xy, xy.length / 2);
+
+        NewBlueprintRequest back = decode(encode(bp));
+
+        assertEquals("josé", back.author());
+        assertEquals("casa ✓", back.name());
+        assertArrayEquals(xy, coordinates(back));
+    }
+
+    @Test
+    @DisplayName("Un plano sin puntos y un plano mayor que el búfer de escritura también hacen ida y vuelta")
+    void emptyAndLargeBlueprintsShouldRoundTrip() throws IOException {
+        assertEquals(0, decode(encode(new Blueprint("a", "empty", List.of()))).points().size());
+
+        Blueprint large = randomWalk(200_000, 7);
+        assertArrayEquals(large.copyCoordinates(), coordinates(decode(encode(large))));
+    }
+
+    @Test
+    @DisplayName("Una lista de planos hace ida y vuelta en un mensaje de tipo 2")
+    void listShouldRoundTrip() throws IOException {
+        List<Blueprint> bps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) bps.add(randomWalk(100 * i, i));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBlueprintCodec.Writer writer = new BinaryBlueprintCodec.Writer(Channels.newChannel(out));
+        writer.writeList(bps);
+        writer.flush();
+
+        ByteBuffer buf = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(BinaryBlueprintCodec.LIST, BinaryBlueprintCodec.readHeader(buf));
+        List<NewBlueprintRequest> back = BinaryBlueprintCodec.readList(buf);
+        assertEquals(5, back.size());
+        for (int i = 0; i < 5; i++) assertArrayEquals(bps.get(i).copyCoordinates(), coordinates(back.get(i)));
+    }
+
+    @Test
+    @DisplayName("Mensajes truncados, con otro encabezado o con conteos imposibles se rechazan")
+    void malformedMessagesShouldBeRejected() throws IOException {
+        byte[] valid = encode(randomWalk(50, 1));
+
+        assertThrows(BinaryBlueprintCodec.MalformedException.class,
+                () -> decode(Arrays.copyOf(valid, valid.length - 3)));
+        byte[] wrongMagic = valid.clone();
+        wrongMagic[0] = 'X';
+        assertThrows(BinaryBlueprintCodec.MalformedException.class, () -> decode(wrongMagic));
+
+        // Encabezado + textos vacíos + 2^28 puntos declarados en un mensaje de pocos bytes.
+        byte[] hugeCount = {'B', 'P', 1, 1, 0, 0, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        assertThrows(BinaryBlueprintCodec.MalformedException.class, () -> decode(hugeCount));
+    }
+
+    @Test
+    @DisplayName("Un trazo de 10000 puntos ocupa menos de una quinta parte que en JSON")
+    void binaryShouldBeMuchSmallerThanJson() throws IOException {
+        Blueprint bp = randomWalk(10_000, 3);
+        int binary = encode(bp).length;
+        int json = new ObjectMapper().writeValueAsBytes(
+                new NewBlueprintRequest(bp.getAuthor(), bp.getName(), bp.getPoints())).length;
+
+        assertTrue(binary * 5 < json, "binary=" + binary + " json=" + json);
+        assertEquals(new Point(bp.x(9_999), bp.y(9_999)), decode(encode(bp)).points().get(9_999));
+    }
+}
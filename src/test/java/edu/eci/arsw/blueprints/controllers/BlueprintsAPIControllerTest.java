@@ -1,5 +1,8 @@
 package edu.eci.arsw.blueprints.controllers;
 
+import edu.eci.arsw.blueprints.controllers.BlueprintsAPIController.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,8 +12,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -43,6 +59,94 @@ class BlueprintsAPIControllerTest {
                 .andExpect(jsonPath("$._links.self").exists());
     }
 
+    @Test
+    @DisplayName("GET paginado → primera página ordenada por autor y nombre con link next")
+    void getFirstPageShouldReturnOrderedItemsAndNextLink() throws Exception {
+        mockMvc.perform(get(BASE).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].author").value("jane"))
+                .andExpect(jsonPath("$.data[1].name").value("garage"))
+                .andExpect(jsonPath("$._links.self").value(containsString("limit=2")))
+                .andExpect(jsonPath("$._links.next").value(containsString(
+                        "after=" + new PageCursor("john", "garage").encode())));
+    }
+
+    @Test
+    @DisplayName("GET paginado con cursor → última página sin link next")
+    void getLastPageShouldOmitNextLink() throws Exception {
+        mockMvc.perform(get(BASE).param("limit", "2").param("after", new PageCursor("john", "garage").encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name").value("house"))
+                .andExpect(jsonPath("$._links.first").exists())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET paginado con parámetros inválidos → 400")
+    void getPageWithInvalidParamsShouldReturn400() throws Exception {
+        mockMvc.perform(get(BASE).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(get(BASE).param("after", "john:garage"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BASE).param("after", "AAAAZGE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Paginar siguiendo next recorre cada plano una vez aunque autor y nombre tengan ':'")
+    void pagingShouldHandleKeysWithColons() throws Exception {
+        mockMvc.perform(post(BASE + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"author":"a:b","name":"c","points":[]},
+                                 {"author":"a","name":"b:c","points":[]},
+                                 {"author":"a","name":"b","points":[]},
+                                 {"author":"a:b:","name":":","points":[]}]
+                                """))
+                .andExpect(status().isCreated());
+
+        List<String> seen = new java.util.ArrayList<>();
+        String after = null;
+        for (int pages = 0; pages < 10; pages++) {
+            var request = get(BASE).param("limit", "1");
+            if (after != null) request.param("after", after);
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            String json = result.getResponse().getContentAsString();
+            List<String> authors = com.jayway.jsonpath.JsonPath.read(json, "$.data[*].author");
+            List<String> names = com.jayway.jsonpath.JsonPath.read(json, "$.data[*].name");
+            for (int i = 0; i < authors.size(); i++) seen.add(authors.get(i) + "/" + names.get(i));
+            java.util.Map<String, String> links = com.jayway.jsonpath.JsonPath.read(json, "$._links");
+            String next = links.get("next");
+            if (next == null) break;
+            after = next.substring(next.indexOf("after=") + "after=".length());
+        }
+        assertEquals(List.of("a/b", "a/b:c", "a:b/c", "a:b:/:", "jane/garden", "john/garage", "john/house"), seen);
+    }
+
+    @Test
+    @DisplayName("GET con Accept application/x-ndjson → un blueprint JSON por línea")
+    void exportAllShouldStreamNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get(BASE).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"author\":"), line);
+            assertTrue(line.endsWith("}"), line);
+        }
+        assertTrue(body.endsWith("\n"));
+    }
+
     // ── GET /api/v1/blueprints/{author} ─────────────────────────────────────
 
     @Test
@@ -82,6 +186,25 @@ class BlueprintsAPIControllerTest {
                 .andExpect(jsonPath("$._links.all-blueprints").exists());
     }
 
+    @Test
+    @DisplayName("Los links usan el origen de cada petición aunque la base quede cacheada")
+    void linksShouldFollowRequestOrigin() throws Exception {
+        mockMvc.perform(get(BASE + "/john/house"))
+                .andExpect(jsonPath("$._links.self").value("http://localhost/api/v1/blueprints/john/house"));
+        mockMvc.perform(get(BASE + "/john/house").with(r -> {
+                    r.setScheme("https");
+                    r.setServerName("api.example.com");
+                    r.setServerPort(8443);
+                    return r;
+                }))
+                .andExpect(jsonPath("$._links.self").value("https://api.example.com:8443/api/v1/blueprints/john/house"))
+                .andExpect(jsonPath("$._links.add-point").value("https://api.example.com:8443/api/v1/blueprints/john/house/points"))
+                .andExpect(jsonPath("$._links.author-blueprints").value("https://api.example.com:8443/api/v1/blueprints/john"))
+                .andExpect(jsonPath("$._links.all-blueprints").value("https://api.example.com:8443/api/v1/blueprints"));
+        mockMvc.perform(get(BASE + "/john"))
+                .andExpect(jsonPath("$._links.self").value("http://localhost/api/v1/blueprints/john"));
+    }
+
     @Test
     @DisplayName("GET blueprint inexistente → 404")
     void getUnknownBlueprintShouldReturn404() throws Exception {
@@ -111,6 +234,148 @@ class BlueprintsAPIControllerTest {
                 .andExpect(jsonPath("$._links.add-point").value(containsString("/points")));
     }
 
+    // ── JSON compacto de puntos ──────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Accept compacto o ?format=compact → points como [x0,y0,x1,y1,...]; sin Accept sigue el JSON estándar")
+    void compactMediaTypeShouldFlattenPoints() throws Exception {
+        mockMvc.perform(get(BASE + "/john/house").accept(CompactPointsModule.MEDIA))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CompactPointsModule.MEDIA))
+                .andExpect(jsonPath("$.data.points", contains(0, 0, 10, 0, 10, 10, 0, 10)))
+                .andExpect(jsonPath("$._links.self").value(containsString("/john/house")));
+        mockMvc.perform(get(BASE + "/john").param("format", "compact"))
+                .andExpect(content().contentTypeCompatibleWith(CompactPointsModule.MEDIA))
+                .andExpect(jsonPath("$.data[0].points[0]").isNumber());
+        mockMvc.perform(get(BASE + "/john/house"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.points[1].x").value(10));
+    }
+
+    @Test
+    @DisplayName("JSON y compacto tienen ETags distintos y Vary: Accept; un ETag no valida el otro formato")
+    void compactAndJsonShouldNotShareEtags() throws Exception {
+        String json = mockMvc.perform(get(BASE + "/john/house"))
+                .andExpect(header().string("ETag", "\"bp-4\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn().getResponse().getHeader("ETag");
+        String compact = mockMvc.perform(get(BASE + "/john/house").param("format", "compact"))
+                .andExpect(header().string("ETag", "\"bp-4-compact\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(BASE).accept(CompactPointsModule.MEDIA))
+                .andExpect(header().string("ETag", endsWith("-compact\"")));
+
+        mockMvc.perform(get(BASE + "/john/house").accept(CompactPointsModule.MEDIA).header("If-None-Match", compact))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get(BASE + "/john/house").header("If-None-Match", compact))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points[1].x").value(10));
+        mockMvc.perform(get(BASE + "/john/house").param("format", "compact").header("If-None-Match", json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points[0]").isNumber());
+    }
+
+    @Test
+    @DisplayName("POST con cuerpo compacto → 201; un número impar de coordenadas → 400")
+    void postCompactBodyShouldBeAccepted() throws Exception {
+        mockMvc.perform(post(BASE)
+                        .contentType(CompactPointsModule.MEDIA)
+                        .content("""
+                                {"author":"test","name":"flat","points":[1,2,3,4,5,6]}
+                                """))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get(BASE + "/test/flat"))
+                .andExpect(jsonPath("$.data.points", hasSize(3)))
+                .andExpect(jsonPath("$.data.points[2].x").value(5))
+                .andExpect(jsonPath("$.data.points[2].y").value(6));
+
+        mockMvc.perform(post(BASE)
+                        .contentType(CompactPointsModule.MEDIA)
+                        .content("""
+                                {"author":"test","name":"odd","points":[1,2,3]}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ── Formato binario ──────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET con Accept binario → mensaje de tipo 1 con las coordenadas del plano")
+    void getBinaryShouldReturnEncodedBlueprint() throws Exception {
+        byte[] body = mockMvc.perform(get(BASE + "/john/house").accept(BinaryBlueprintHttpMessageConverter.MEDIA))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryBlueprintHttpMessageConverter.MEDIA))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteBuffer buf = ByteBuffer.wrap(body);
+        assertEquals(BinaryBlueprintCodec.BLUEPRINT, BinaryBlueprintCodec.readHeader(buf));
+        NewBlueprintRequest bp = BinaryBlueprintCodec.readBlueprint(buf);
+        assertEquals("house", bp.name());
+        assertEquals(List.of(new Point(0, 0),
+                new Point(10, 0), new Point(10, 10),
+                new Point(0, 10)), bp.points());
+
+        byte[] list = mockMvc.perform(get(BASE + "/john").param("format", "binary"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        buf = ByteBuffer.wrap(list);
+        assertEquals(BinaryBlueprintCodec.LIST, BinaryBlueprintCodec.readHeader(buf));
+        assertEquals(2, BinaryBlueprintCodec.readList(buf).size());
+
+        byte[] notFound = mockMvc.perform(get(BASE + "/john/none").accept(BinaryBlueprintHttpMessageConverter.MEDIA))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsByteArray();
+        buf = ByteBuffer.wrap(notFound);
+        assertEquals(BinaryBlueprintCodec.STATUS, BinaryBlueprintCodec.readHeader(buf));
+        assertEquals(404, BinaryBlueprintCodec.getVarint(buf));
+    }
+
+    @Test
+    @DisplayName("El formato binario tiene su propio ETag y Vary: Accept; el ETag JSON no lo valida")
+    void binaryShouldNotShareEtags() throws Exception {
+        String binary = mockMvc.perform(get(BASE + "/john/house").accept(BinaryBlueprintHttpMessageConverter.MEDIA))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryBlueprintHttpMessageConverter.MEDIA))
+                .andExpect(header().string("ETag", "\"bp-4-binary\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(BASE + "/john").param("format", "binary"))
+                .andExpect(header().string("ETag", endsWith("-binary\"")));
+
+        mockMvc.perform(get(BASE + "/john/house").param("format", "binary").header("If-None-Match", binary))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(BASE + "/john/house").accept(BinaryBlueprintHttpMessageConverter.MEDIA)
+                        .header("If-None-Match", "\"bp-4\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryBlueprintHttpMessageConverter.MEDIA));
+        mockMvc.perform(get(BASE + "/john/house").header("If-None-Match", binary))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("POST con cuerpo binario → 201; un cuerpo truncado → 400")
+    void postBinaryBodyShouldBeAccepted() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryBlueprintCodec.Writer writer = new BinaryBlueprintCodec.Writer(Channels.newChannel(out));
+        writer.writeBlueprint(Blueprint.ofCoordinates(
+                "bin", "shape", new int[]{-5, 7, 100, 200, 101, 199}, 3));
+        writer.flush();
+        byte[] body = out.toByteArray();
+
+        mockMvc.perform(post(BASE).contentType(BinaryBlueprintHttpMessageConverter.MEDIA).content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get(BASE + "/bin/shape"))
+                .andExpect(jsonPath("$.data.points[0].x").value(-5))
+                .andExpect(jsonPath("$.data.points[2].y").value(199));
+
+        mockMvc.perform(post(BASE).contentType(BinaryBlueprintHttpMessageConverter.MEDIA)
+                        .content(Arrays.copyOf(body, body.length - 2)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("POST blueprint duplicado → 409 Conflict")
     void postDuplicateBlueprintShouldReturn409() throws Exception {
@@ -141,6 +406,66 @@ class BlueprintsAPIControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // ── POST /api/v1/blueprints/batch ────────────────────────────────────────
+
+    @Test
+    @DisplayName("POST lote sin conflictos → 201 con un resultado por elemento")
+    void postBatchShouldReturn201() throws Exception {
+        String body = """
+                [{"author":"ana","name":"a1","points":[{"x":1,"y":2}]},
+                 {"author":"ana","name":"a2","points":[]}]
+                """;
+
+        mockMvc.perform(post(BASE + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[*].status", everyItem(is(201))))
+                .andExpect(jsonPath("$.data[1].self").value(containsString("/ana/a2")));
+        mockMvc.perform(get(BASE + "/ana/a1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("POST lote con existentes y repetidos → 207 con 409 en esos elementos")
+    void postBatchWithConflictsShouldReturn207() throws Exception {
+        String body = """
+                [{"author":"john","name":"house","points":[]},
+                 {"author":"ana","name":"a1","points":[]},
+                 {"author":"ana","name":"a1","points":[]}]
+                """;
+
+        mockMvc.perform(post(BASE + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.code").value(207))
+                .andExpect(jsonPath("$.data[0].status").value(409))
+                .andExpect(jsonPath("$.data[0].self").doesNotExist())
+                .andExpect(jsonPath("$.data[1].status").value(201))
+                .andExpect(jsonPath("$.data[2].status").value(409));
+    }
+
+    @Test
+    @DisplayName("POST lote vacío o con nombre vacío → 400 sin guardar nada")
+    void postInvalidBatchShouldReturn400() throws Exception {
+        mockMvc.perform(post(BASE + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(BASE + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"author":"ana","name":"a1","points":[]},{"author":"ana","name":" ","points":[]}]
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("item 1")));
+        mockMvc.perform(get(BASE + "/ana"))
+                .andExpect(status().isNotFound());
+    }
+
     // ── PUT /api/v1/blueprints/{author}/{name}/points ────────────────────────
 
     @Test
@@ -165,4 +490,170 @@ class BlueprintsAPIControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(404));
     }
+
+    // ── GET /api/v1/blueprints?minX=&minY=&maxX=&maxY= ──────────────────────
+
+    @Test
+    @DisplayName("GET por área → 200 con los blueprints cuya caja intersecta el rectángulo")
+    void getByAreaShouldReturnIntersectingBlueprints() throws Exception {
+        mockMvc.perform(get(BASE).param("minX", "11").param("minY", "0").param("maxX", "20").param("maxY", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name").value("garage"))
+                .andExpect(jsonPath("$._links.self").value(containsString("minX=11")))
+                .andExpect(jsonPath("$._links.all-blueprints").exists());
+
+        mockMvc.perform(put(BASE + "/jane/garden/points")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"x\":18,\"y\":1}"))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get(BASE).param("minX", "11").param("minY", "0").param("maxX", "20").param("maxY", "20"))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].name").value("garden"));
+    }
+
+    @Test
+    @DisplayName("GET por área con mínimo mayor que máximo → 400 Bad Request")
+    void getByInvertedAreaShouldReturn400() throws Exception {
+        mockMvc.perform(get(BASE).param("minX", "5").param("minY", "0").param("maxX", "1").param("maxY", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+    }
+
+    @Test
+    @DisplayName("GET por área con parámetros incompletos → 400, no el catálogo completo")
+    void getByIncompleteAreaShouldReturn400() throws Exception {
+        mockMvc.perform(get(BASE).param("minX", "0").param("minY", "0").param("maxX", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(get(BASE).param("maxY", "10").param("limit", "5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ── Métricas ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET de un blueprint → tiempos de persistencia, filtro y endpoint en /actuator/metrics")
+    void getBlueprintShouldRecordMetrics() throws Exception {
+        mockMvc.perform(get(BASE + "/john/house")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/blueprints.persistence").param("tag", "method:getBlueprint"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").value(hasItem(1.0)));
+        mockMvc.perform(get("/actuator/metrics/blueprints.filter"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[0].values", hasItem("IdentityFilter")));
+        mockMvc.perform(get("/actuator/metrics/blueprints.points.processed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'TOTAL')].value").value(hasItem(4.0)));
+        mockMvc.perform(get("/actuator/metrics/http.server.requests").param("tag", "uri:/api/v1/blueprints/{author}/{bpname}"))
+                .andExpect(status().isOk());
+    }
+
+    // ── Caché de cuerpos de respuesta ────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET con Accept-Encoding: gzip → cuerpo gzip guardado; tras agregar un punto se regenera")
+    void gzipBodyShouldBeCachedUntilAddPoint() throws Exception {
+        byte[] plain = mockMvc.perform(get(BASE + "/john/house"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzip = mockMvc.perform(get(BASE + "/john/house").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andExpect(header().string("ETag", "\"bp-4-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(plain, new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes());
+
+        mockMvc.perform(put(BASE + "/john/house/points")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"x\":7,\"y\":7}"))
+                .andExpect(status().isAccepted());
+        byte[] updated = mockMvc.perform(get(BASE + "/john/house").header("Accept-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"bp-5-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(updated)).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(json.contains("{\"x\":7,\"y\":7}"), json);
+
+        mockMvc.perform(get(BASE + "/john").header("Accept-Encoding", "deflate"))
+                .andExpect(header().string("Content-Encoding", "deflate"))
+                .andExpect(header().string("ETag", endsWith("-deflate\"")));
+        // El formato compacto no pasa por la caché.
+        mockMvc.perform(get(BASE + "/john/house").accept(CompactPointsModule.MEDIA).header("Accept-Encoding", "gzip"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.data.points", hasSize(10)));
+    }
+
+    @Test
+    @DisplayName("Cada codificación tiene su ETag: el de identity no valida el cuerpo gzip ni al revés")
+    void codingsShouldNotShareEtags() throws Exception {
+        mockMvc.perform(get(BASE + "/john/house").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"bp-4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"bp-4-gzip\""));
+        mockMvc.perform(get(BASE + "/john/house").header("If-None-Match", "\"bp-4-gzip\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"bp-4\""));
+        mockMvc.perform(get(BASE + "/john/house").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"bp-4-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"bp-4-gzip\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"));
+    }
+
+    // ── ETag / If-None-Match ─────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET blueprint con If-None-Match vigente → 304; tras agregar un punto → 200 con ETag nuevo")
+    void conditionalGetBlueprintShouldFollowVersion() throws Exception {
+        String etag = mockMvc.perform(get(BASE + "/john/house"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"bp-4\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE + "/john/house").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put(BASE + "/john/house/points")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"x\":99,\"y\":88}"))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get(BASE + "/john/house").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"bp-5\""))
+                .andExpect(jsonPath("$.data.points", hasSize(5)));
+    }
+
+    @Test
+    @DisplayName("GET por autor y listado completo → 304 hasta que se crea un blueprint del autor")
+    void conditionalGetCollectionsShouldFollowVersion() throws Exception {
+        String authorTag = mockMvc.perform(get(BASE + "/jane")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String allTag = mockMvc.perform(get(BASE)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String pageTag = mockMvc.perform(get(BASE).param("limit", "2")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE + "/jane").header("If-None-Match", authorTag)).andExpect(status().isNotModified());
+        mockMvc.perform(get(BASE).header("If-None-Match", "\"other\", " + allTag)).andExpect(status().isNotModified());
+        mockMvc.perform(get(BASE).param("limit", "2").header("If-None-Match", pageTag)).andExpect(status().isNotModified());
+
+        mockMvc.perform(post(BASE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"author\":\"jane\",\"name\":\"pool\",\"points\":[{\"x\":1,\"y\":1}]}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(BASE + "/jane").header("If-None-Match", authorTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)));
+        mockMvc.perform(get(BASE).header("If-None-Match", allTag)).andExpect(status().isOk());
+    }
 }
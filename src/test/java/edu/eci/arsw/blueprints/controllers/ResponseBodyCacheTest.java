@@ -0,0 +1,141 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.controllers.ResponseBodyCache.Coding;
+import edu.eci.arsw.blueprints.services.Versioned;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la caché de cuerpos de respuesta.
+ * Verifican la negociación de Accept-Encoding, aciertos por versión, variantes comprimidas y el
+ * presupuesto en bytes.
+ */
+class ResponseBodyCacheTest {
+
+    private static final String ORIGIN = "http://localhost/api/v1/blueprints";
+    private static final ResponseBodyCache.Resource BP = ResponseBodyCache.blueprintKey("a", "b");
+    private static final ResponseBodyCache.Resource AUTHOR = ResponseBodyCache.authorKey("a");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ResponseBodyCache cache(String maxBytes) {
+        return new ResponseBodyCache(DataSize.parse(maxBytes));
+    }
+
+    private ResponseBodyCache.Loader loader(String json, long version) {
+        return () -> {
+            loads.incrementAndGet();
+            return new Versioned<>(json.getBytes(StandardCharsets.UTF_8), version);
+        };
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding: gzip primero, luego deflate; q=0 excluye la codificación")
+    void negotiateShouldPreferGzip() {
+        assertEquals(Coding.IDENTITY, ResponseBodyCache.negotiate(null));
+        assertEquals(Coding.GZIP, ResponseBodyCache.negotiate("deflate, gzip;q=0.5, br"));
+        assertEquals(Coding.DEFLATE, ResponseBodyCache.negotiate("gzip;q=0, deflate"));
+        assertEquals(Coding.GZIP, ResponseBodyCache.negotiate("*"));
+        assertEquals(Coding.IDENTITY, ResponseBodyCache.negotiate("br, gzip;q=0"));
+    }
+
+    @Test
+    @DisplayName("Misma versión → bytes guardados; otra versión → se vuelve a cargar")
+    void sameVersionShouldHit() throws Exception {
+        ResponseBodyCache cache = cache("1MB");
+
+        byte[] first = cache.body(BP, 3, ORIGIN, Coding.IDENTITY, loader("{\"v\":3}", 3)).value();
+        assertSame(first, cache.body(BP, 3, ORIGIN, Coding.IDENTITY, loader("x", 3)).value());
+        assertEquals(1, loads.get());
+
+        Versioned<byte[]> next = cache.body(BP, 4, ORIGIN, Coding.IDENTITY, loader("{\"v\":4}", 4));
+        assertEquals(4, next.version());
+        assertEquals(2, loads.get());
+        assertEquals(new ResponseBodyCache.Stats(1, 2, 0, cache.stats().bytes()), cache.stats());
+    }
+
+    @Test
+    @DisplayName("Los contadores se publican en el MeterRegistry con cache=response-bodies")
+    void statsShouldBeBoundToRegistry() throws Exception {
+        ResponseBodyCache cache = cache("1MB");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.body(BP, 1, ORIGIN, Coding.IDENTITY, loader("{}", 1));
+        cache.body(BP, 1, ORIGIN, Coding.IDENTITY, loader("{}", 1));
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "response-bodies", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "response-bodies", "result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").gauge().value());
+        assertEquals(cache.stats().bytes(), registry.get("cache.weight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Las variantes gzip y deflate se comprimen una vez desde el cuerpo ya serializado")
+    void compressedVariantsShouldReuseIdentity() throws Exception {
+        ResponseBodyCache cache = cache("1MB");
+        String json = "{\"points\":[" + "{\"x\":1,\"y\":2},".repeat(500) + "{\"x\":1,\"y\":2}]}";
+
+        byte[] gzip = cache.body(BP, 1, ORIGIN, Coding.GZIP, loader(json, 1)).value();
+        byte[] deflate = cache.body(BP, 1, ORIGIN, Coding.DEFLATE, loader(json, 1)).value();
+        assertSame(gzip, cache.body(BP, 1, ORIGIN, Coding.GZIP, loader(json, 1)).value());
+
+        assertEquals(1, loads.get());
+        assertTrue(gzip.length < json.length() / 10, "gzip=" + gzip.length);
+        assertEquals(json, new String(new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes(),
+                StandardCharsets.UTF_8));
+        assertEquals(json, new String(new InflaterInputStream(new ByteArrayInputStream(deflate)).readAllBytes(),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Autores y nombres con ':' son recursos distintos aunque tengan la misma versión")
+    void keysWithColonsShouldNotShareBodies() throws Exception {
+        ResponseBodyCache cache = cache("1MB");
+        cache.body(ResponseBodyCache.blueprintKey("a:b", "c"), 2, ORIGIN, Coding.IDENTITY, loader("{\"a\":\"a:b\"}", 2));
+
+        byte[] other = cache.body(ResponseBodyCache.blueprintKey("a", "b:c"), 2, ORIGIN, Coding.IDENTITY,
+                loader("{\"a\":\"a\"}", 2)).value();
+
+        assertEquals("{\"a\":\"a\"}", new String(other, StandardCharsets.UTF_8));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Invalidar un recurso obliga a recargarlo")
+    void invalidateShouldDropAllVariants() throws Exception {
+        ResponseBodyCache cache = cache("1MB");
+        cache.body(AUTHOR, 5, ORIGIN, Coding.GZIP, loader("{}", 5));
+
+        cache.invalidate(AUTHOR);
+        cache.body(AUTHOR, 5, ORIGIN, Coding.IDENTITY, loader("{}", 5));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("El peso total no supera max-bytes")
+    void budgetShouldBoundStoredBytes() throws Exception {
+        ResponseBodyCache cache = cache("64KB");
+        String body = "x".repeat(4096);
+        for (int i = 0; i < 100; i++) {
+            cache.body(ResponseBodyCache.blueprintKey("a", "bp" + i), 1, ORIGIN, Coding.IDENTITY, loader(body, 1));
+        }
+
+        ResponseBodyCache.Stats stats = cache.stats();
+        assertTrue(stats.bytes() <= 64 * 1024, "bytes=" + stats.bytes());
+        assertTrue(stats.evictions() > 0);
+    }
+}
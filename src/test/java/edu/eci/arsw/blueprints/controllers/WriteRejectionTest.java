@@ -0,0 +1,96 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.impl.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Escrituras rechazadas por la persistencia (cola write-behind llena): el controlador responde 503
+ * con {@code Retry-After}, no 500. La persistencia en memoria se reemplaza por una que rechaza toda
+ * escritura, como lo hace {@code WriteBehindBlueprintPersistence} al agotar {@code offer-timeout}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("inmemory")
+class WriteRejectionTest {
+
+    @TestConfiguration
+    static class RejectingPersistenceConfig {
+
+        @Bean
+        @Primary
+        InMemoryBlueprintPersistence rejectingPersistence() {
+            return new InMemoryBlueprintPersistence() {
+                @Override
+                public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+                    throw new RejectedExecutionException("write-behind queue is full");
+                }
+
+                @Override
+                public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+                    throw new RejectedExecutionException("write-behind queue is full");
+                }
+
+                @Override
+                public void addPoint(String author, String name, int x, int y) {
+                    throw new RejectedExecutionException("write-behind queue is full");
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static final String BASE = "/api/v1/blueprints";
+
+    @Test
+    @DisplayName("POST con la cola llena → 503 con Retry-After")
+    void addShouldReturn503WithRetryAfter() throws Exception {
+        mockMvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"author\":\"ana\",\"name\":\"shed\",\"points\":[]}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER,
+                        Integer.toString(BlueprintsAPIController.RETRY_AFTER_SECONDS)))
+                .andExpect(jsonPath("$.code").value(503))
+                .andExpect(jsonPath("$.message").value("write-behind queue is full"));
+    }
+
+    @Test
+    @DisplayName("POST /batch con la cola llena → 503 con Retry-After")
+    void addBatchShouldReturn503WithRetryAfter() throws Exception {
+        mockMvc.perform(post(BASE + "/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"author\":\"ana\",\"name\":\"shed\",\"points\":[]}]"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("PUT de un punto con la cola llena → 503 con Retry-After")
+    void addPointShouldReturn503WithRetryAfter() throws Exception {
+        mockMvc.perform(put(BASE + "/john/house/points").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"x\":1,\"y\":1}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.code").value(503));
+    }
+}
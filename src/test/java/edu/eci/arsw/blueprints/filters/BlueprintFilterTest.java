@@ -7,12 +7,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Tests unitarios para los tres filtros de blueprints.
+ * Tests unitarios para los filtros de blueprints y para la cadena fusionada FilterPipeline.
  * No requieren contexto de Spring — se instancian directamente.
  */
 class BlueprintFilterTest {
@@ -200,4 +203,160 @@ class BlueprintFilterTest {
             assertEquals("plano", result.getName());
         }
     }
+
+    // ── SimplificationFilter ─────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("SimplificationFilter")
+    class SimplificationFilterTests {
+
+        /** Perímetro de un cuadrado de lado {@code side} muestreado en cada unidad. */
+        private Blueprint densePerimeter(int side) {
+            List<Point> pts = new ArrayList<>();
+            for (int i = 0; i < side; i++) pts.add(new Point(i, 0));
+            for (int i = 0; i < side; i++) pts.add(new Point(side, i));
+            for (int i = side; i > 0; i--) pts.add(new Point(i, side));
+            for (int i = side; i >= 0; i--) pts.add(new Point(0, i));
+            return new Blueprint("test", "square", pts);
+        }
+
+        @Test
+        @DisplayName("Reduce un tramo recto a sus extremos")
+        void shouldCollapseStraightRun() {
+            List<Point> pts = new ArrayList<>();
+            for (int i = 0; i <= 100; i++) pts.add(new Point(i, 2 * i));
+            Blueprint result = new SimplificationFilter(1.0).apply(new Blueprint("test", "line", pts));
+
+            assertEquals(List.of(new Point(0, 0), new Point(100, 200)), result.getPoints());
+        }
+
+        @Test
+        @DisplayName("Conserva las esquinas y reduce mucho más que undersampling")
+        void shouldKeepCornersAndCutFarMoreThanUndersampling() {
+            Blueprint square = densePerimeter(1_000);
+            Blueprint simplified = new SimplificationFilter(1.0).apply(square);
+            Blueprint undersampled = new UndersamplingFilter().apply(square);
+
+            assertEquals(List.of(new Point(0, 0), new Point(1_000, 0), new Point(1_000, 1_000),
+                    new Point(0, 1_000), new Point(0, 0)), simplified.getPoints());
+            assertTrue(simplified.pointCount() * 100 < undersampled.pointCount(),
+                    "simplify=" + simplified.pointCount() + " undersampling=" + undersampled.pointCount());
+        }
+
+        @Test
+        @DisplayName("Con tolerancia 0 no elimina puntos no colineales")
+        void zeroToleranceShouldKeepNonCollinearPoints() {
+            Blueprint bp = new Blueprint("test", "zigzag",
+                    List.of(new Point(0, 0), new Point(1, 1), new Point(2, 0), new Point(3, 1)));
+
+            assertEquals(4, new SimplificationFilter(0).apply(bp).pointCount());
+        }
+
+        @Test
+        @DisplayName("No transforma blueprints con 2 o menos puntos y conserva metadatos")
+        void shouldHandleTinyBlueprints() {
+            Blueprint bp = new Blueprint("autor", "plano", List.of(new Point(1, 1), new Point(1, 1)));
+            Blueprint result = new SimplificationFilter(10).apply(bp);
+
+            assertEquals(2, result.pointCount());
+            assertEquals("autor", result.getAuthor());
+            assertEquals("plano", result.getName());
+        }
+
+        @Test
+        @DisplayName("Como etapa de pipeline produce lo mismo que apply()")
+        void stageShouldMatchApply() {
+            Random rnd = new Random(3);
+            SimplificationFilter filter = new SimplificationFilter(25);
+            for (int n = 0; n < 100; n++) {
+                List<Point> pts = new ArrayList<>();
+                for (int i = 0; i < n; i++) pts.add(new Point(rnd.nextInt(50), rnd.nextInt(50)));
+                Blueprint bp = new Blueprint("test", "bp", pts);
+
+                assertEquals(filter.apply(bp).getPoints(),
+                        new FilterPipeline(List.of(filter)).apply(bp).getPoints(), "n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("Procesa 10^6 vértices en tiempo acotado")
+        void shouldHandleMillionVertices() {
+            Random rnd = new Random(11);
+            int n = 1_000_000;
+            int[] xy = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                xy[2 * i]     = i;
+                xy[2 * i + 1] = (int) (1_000 * Math.sin(i / 5_000.0)) + rnd.nextInt(3);
+            }
+            Blueprint bp = Blueprint.ofCoordinates("test", "big", xy, n);
+
+            Blueprint result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> new SimplificationFilter(50).apply(bp));
+            assertTrue(result.pointCount() < n / 10, "puntos=" + result.pointCount());
+        }
+    }
+
+    // ── FilterPipeline ───────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("FilterPipeline")
+    class FilterPipelineTests {
+
+        private final RedundancyFilter redundancy = new RedundancyFilter();
+        private final UndersamplingFilter undersampling = new UndersamplingFilter();
+
+        private Blueprint randomBlueprint(Random rnd, int n) {
+            List<Point> pts = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) pts.add(new Point(rnd.nextInt(3), rnd.nextInt(3)));
+            return new Blueprint("test", "bp", pts);
+        }
+
+        @Test
+        @DisplayName("redundancy→undersampling fusionado equivale a aplicar los filtros uno tras otro")
+        void fusedChainShouldMatchSequentialApplication() {
+            FilterPipeline pipeline = new FilterPipeline(List.of(redundancy, undersampling));
+            Random rnd = new Random(42);
+            for (int n = 0; n < 200; n++) {
+                Blueprint bp = randomBlueprint(rnd, n);
+                Blueprint expected = undersampling.apply(redundancy.apply(bp));
+
+                assertEquals(expected.getPoints(), pipeline.apply(bp).getPoints(), "n=" + n);
+            }
+        }
+
+        @Test
+        @DisplayName("Cada etapa sola produce lo mismo que su apply()")
+        void singleStageShouldMatchFilter() {
+            Random rnd = new Random(7);
+            for (int n = 0; n < 50; n++) {
+                Blueprint bp = randomBlueprint(rnd, n);
+
+                assertEquals(redundancy.apply(bp).getPoints(),
+                        new FilterPipeline(List.of(redundancy)).apply(bp).getPoints());
+                assertEquals(undersampling.apply(bp).getPoints(),
+                        new FilterPipeline(List.of(undersampling)).apply(bp).getPoints());
+            }
+        }
+
+        @Test
+        @DisplayName("El orden de las etapas importa y se respeta")
+        void stageOrderShouldBeRespected() {
+            // (1,1),(1,1),(2,2),(3,3): redundancia primero → (1,1),(2,2),(3,3) → (1,1),(3,3)
+            //                          undersampling primero → (1,1),(2,2) → sin duplicados
+            Blueprint bp = new Blueprint("test", "bp",
+                    List.of(new Point(1, 1), new Point(1, 1), new Point(2, 2), new Point(3, 3)));
+
+            assertEquals(List.of(new Point(1, 1), new Point(3, 3)),
+                    new FilterPipeline(List.of(redundancy, undersampling)).apply(bp).getPoints());
+            assertEquals(List.of(new Point(1, 1), new Point(2, 2)),
+                    new FilterPipeline(List.of(undersampling, redundancy)).apply(bp).getPoints());
+        }
+
+        @Test
+        @DisplayName("Una cadena vacía retorna el blueprint sin cambios")
+        void emptyChainShouldBeIdentity() {
+            Blueprint bp = new Blueprint("test", "bp", List.of(new Point(1, 1)));
+            assertSame(bp, new FilterPipeline(List.of()).apply(bp));
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package edu.eci.arsw.blueprints.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests unitarios del almacenamiento empaquetado de puntos en Blueprint.
+ * Incluye una comparación de memoria frente a una {@code ArrayList<Point>} equivalente.
+ */
+class BlueprintTest {
+
+    @Test
+    @DisplayName("getPoints() expone los puntos del constructor en orden")
+    void getPointsShouldPreserveOrder() {
+        Blueprint bp = new Blueprint("john", "house",
+                List.of(new Point(1, 2), new Point(3, 4), new Point(5, 6)));
+
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4), new Point(5, 6)), bp.getPoints());
+    }
+
+    @Test
+    @DisplayName("Los accesores primitivos coinciden con la vista List<Point>")
+    void primitiveAccessorsShouldMatchListView() {
+        Blueprint bp = new Blueprint("john", "house", List.of(new Point(7, -1), new Point(0, 9)));
+
+        assertEquals(2, bp.pointCount());
+        assertEquals(7, bp.x(0));
+        assertEquals(-1, bp.y(0));
+        assertEquals(0, bp.x(1));
+        assertEquals(9, bp.y(1));
+        assertArrayEquals(new int[] {7, -1, 0, 9}, bp.copyCoordinates());
+        assertThrows(IndexOutOfBoundsException.class, () -> bp.x(2));
+    }
+
+    @Test
+    @DisplayName("addPoint crece el arreglo empaquetado más allá de su capacidad inicial")
+    void addPointShouldGrowStorage() {
+        Blueprint bp = new Blueprint("a", "b", null);
+        for (int i = 0; i < 1_000; i++) bp.addPoint(i, -i);
+        bp.addPoint(new Point(42, 24));
+
+        assertEquals(1_001, bp.pointCount());
+        assertEquals(new Point(999, -999), bp.getPoints().get(999));
+        assertEquals(new Point(42, 24), bp.getPoints().get(1_000));
+    }
+
+    @Test
+    @DisplayName("La vista de puntos es inmutable y no cambia con escrituras posteriores")
+    void pointsViewShouldBeImmutableSnapshot() {
+        Blueprint bp = new Blueprint("a", "b", List.of(new Point(1, 1)));
+        List<Point> view = bp.getPoints();
+        bp.addPoint(2, 2);
+
+        assertEquals(1, view.size());
+        assertEquals(2, bp.getPoints().size());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new Point(3, 3)));
+    }
+
+    @Test
+    @DisplayName("ofCoordinates copia solo las coordenadas indicadas")
+    void ofCoordinatesShouldCopyPrefix() {
+        int[] xy = {1, 2, 3, 4, 5, 6};
+        Blueprint bp = Blueprint.ofCoordinates("a", "b", xy, 2);
+        xy[0] = 100;
+
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4)), bp.getPoints());
+        assertThrows(IllegalArgumentException.class, () -> Blueprint.ofCoordinates("a", "b", xy, 4));
+    }
+
+    @Test
+    @DisplayName("packedPoints expone las coordenadas como lista y el constructor las copia")
+    void packedPointsShouldBeCopiedByConstructor() {
+        int[] xy = {1, 2, 3, 4, 99};
+        List<Point> pts = Blueprint.packedPoints(xy, 2);
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4)), pts);
+
+        Blueprint bp = new Blueprint("a", "b", pts);
+        xy[0] = 7;
+        assertArrayEquals(new int[]{1, 2, 3, 4}, bp.copyCoordinates());
+        assertThrows(IllegalArgumentException.class, () -> Blueprint.packedPoints(xy, 3));
+    }
+
+    @Test
+    @DisplayName("Huella de memoria: el arreglo empaquetado ocupa menos de un tercio que ArrayList<Point>")
+    void packedStorageShouldUseFarLessMemoryThanBoxedPoints() {
+        var mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(mx.isThreadAllocatedMemorySupported() && mx.isThreadAllocatedMemoryEnabled());
+        int n = 50_000;
+        int[] xy = new int[2 * n];
+        for (int i = 0; i < xy.length; i++) xy[i] = i;
+        long tid = Thread.currentThread().threadId();
+
+        long before = mx.getThreadAllocatedBytes(tid);
+        List<Point> boxed = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) boxed.add(new Point(xy[2 * i], xy[2 * i + 1]));
+        long boxedBytes = mx.getThreadAllocatedBytes(tid) - before;
+
+        before = mx.getThreadAllocatedBytes(tid);
+        Blueprint packed = Blueprint.ofCoordinates("a", "b", xy, n);
+        long packedBytes = mx.getThreadAllocatedBytes(tid) - before;
+
+        assertEquals(n, boxed.size());
+        assertEquals(n, packed.pointCount());
+        assertTrue(packedBytes * 3 < boxedBytes,
+                () -> "empaquetado=" + packedBytes + " boxed=" + boxedBytes);
+    }
+}
@@ -0,0 +1,187 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del decorador de caché sobre la persistencia en memoria.
+ * Verifican lectura a través, caché negativa, invalidación por escrituras y estadísticas.
+ */
+class CachingBlueprintPersistenceTest {
+
+    /**
+     * Backend en memoria que cuenta las lecturas que le llegan y, como una base de datos, entrega una
+     * copia en cada lectura: así lo que otro escritor le haga no alcanza a lo que ya está en caché.
+     */
+    private static class CountingBackend extends InMemoryBlueprintPersistence {
+        final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+            reads.incrementAndGet();
+            return copy(super.getBlueprint(author, name));
+        }
+
+        @Override
+        public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+            reads.incrementAndGet();
+            return super.getBlueprintsByAuthor(author).stream()
+                    .map(CountingBackend::copy)
+                    .collect(Collectors.toSet());
+        }
+
+        /** Lo que haría otro nodo: agrega el punto al plano guardado sin pasar por la caché. */
+        void addPointBehindCache(String author, String name, int x, int y) throws BlueprintNotFoundException {
+            super.getBlueprint(author, name).addPoint(x, y);
+        }
+
+        private static Blueprint copy(Blueprint bp) {
+            int[] xy = bp.copyCoordinates();
+            return Blueprint.ofCoordinates(bp.getAuthor(), bp.getName(), xy, xy.length / 2);
+        }
+    }
+
+    private final CountingBackend backend = new CountingBackend();
+
+    private CachingBlueprintPersistence cache(Duration negativeTtl) {
+        return cache(Duration.ofMinutes(10), negativeTtl);
+    }
+
+    private CachingBlueprintPersistence cache(Duration ttl, Duration negativeTtl) {
+        return new CachingBlueprintPersistence(backend, 100, 100, ttl, negativeTtl);
+    }
+
+    @Test
+    @DisplayName("Lecturas repetidas por clave y por autor → una sola lectura al backend")
+    void repeatedReadsShouldHitCache() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMinutes(1));
+
+        Blueprint first = persistence.getBlueprint("john", "house");
+        assertSame(first, persistence.getBlueprint("john", "house"));
+        assertEquals(2, persistence.getBlueprintsByAuthor("john").size());
+        persistence.getBlueprintsByAuthor("john");
+
+        assertEquals(2, backend.reads.get());
+        assertEquals(new CachingBlueprintPersistence.Stats(1, 1, 0, 1), persistence.stats().get("blueprints"));
+        assertEquals(new CachingBlueprintPersistence.Stats(1, 1, 0, 1), persistence.stats().get("authors"));
+    }
+
+    @Test
+    @DisplayName("Las estadísticas de ambas cachés se publican en el MeterRegistry")
+    void statsShouldBeBoundToRegistry() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        persistence.bindTo(registry);
+
+        persistence.getBlueprint("john", "house");
+        persistence.getBlueprint("john", "house");
+        persistence.getBlueprintsByAuthor("john");
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "blueprints", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "authors", "result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "authors").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Un plano inexistente se cachea como ausente y saveBlueprint lo invalida")
+    void notFoundShouldBeCachedUntilSaved() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMinutes(1));
+
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprint("ana", "shed"));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprintsByAuthor("ana"));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprint("ana", "shed"));
+        assertEquals(2, backend.reads.get());
+
+        persistence.saveBlueprint(new Blueprint("ana", "shed", List.of(new Point(1, 1))));
+
+        assertEquals(1, persistence.getBlueprint("ana", "shed").pointCount());
+        assertEquals(1, persistence.getBlueprintsByAuthor("ana").size());
+    }
+
+    @Test
+    @DisplayName("Las entradas negativas vencen tras negative-ttl")
+    void negativeEntriesShouldExpire() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMillis(50));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprint("ana", "shed"));
+
+        backend.saveBlueprint(new Blueprint("ana", "shed", List.of()));
+        Thread.sleep(100);
+
+        assertEquals("shed", persistence.getBlueprint("ana", "shed").getName());
+    }
+
+    @Test
+    @DisplayName("Una escritura que no pasa por la caché se ve por clave y por autor cuando vence ttl")
+    void writesBehindTheCacheShouldShowAfterTtl() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMillis(100), Duration.ofMillis(50));
+        int points = persistence.getBlueprint("john", "house").pointCount();
+        persistence.getBlueprintsByAuthor("john");
+
+        backend.addPointBehindCache("john", "house", 99, 99);
+        assertEquals(points, persistence.getBlueprint("john", "house").pointCount());
+        Thread.sleep(200);
+
+        assertEquals(points + 1, persistence.getBlueprint("john", "house").pointCount());
+        assertTrue(persistence.getBlueprintsByAuthor("john").stream()
+                .anyMatch(bp -> bp.getName().equals("house") && bp.pointCount() == points + 1));
+    }
+
+    @Test
+    @DisplayName("Autores y nombres con ':' no comparten entrada: a:b/c en caché no responde por a/b:c")
+    void keysWithColonsShouldNotShareEntries() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMinutes(1));
+        backend.saveBlueprint(new Blueprint("a:b", "c", List.of(new Point(1, 1))));
+
+        assertEquals("a:b", persistence.getBlueprint("a:b", "c").getAuthor());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprint("a", "b:c"));
+
+        persistence.saveBlueprint(new Blueprint("a", "b:c", List.of()));
+        assertEquals("a", persistence.getBlueprint("a", "b:c").getAuthor());
+        assertEquals("a:b", persistence.getBlueprint("a:b", "c").getAuthor());
+        assertEquals(1, persistence.stats().get("blueprints").hits());
+    }
+
+    @Test
+    @DisplayName("addPoint invalida la clave y el autor del plano")
+    void addPointShouldInvalidate() throws Exception {
+        CachingBlueprintPersistence persistence = cache(Duration.ofMinutes(1));
+        persistence.getBlueprint("john", "house");
+        persistence.getBlueprintsByAuthor("john");
+
+        persistence.addPoint("john", "house", 20, 20);
+        int before = backend.reads.get();
+        persistence.getBlueprint("john", "house");
+        persistence.getBlueprintsByAuthor("john");
+
+        assertEquals(before + 2, backend.reads.get());
+        assertEquals(0, persistence.stats().get("blueprints").hits());
+    }
+
+    @Test
+    @DisplayName("Superar max-entries expulsa entradas y lo refleja el contador de evictions")
+    void exceedingMaxEntriesShouldEvict() throws Exception {
+        CachingBlueprintPersistence persistence = new CachingBlueprintPersistence(backend, 5, 5, Duration.ofMinutes(10), Duration.ofMinutes(1));
+        for (int i = 0; i < 30; i++) {
+            backend.saveBlueprint(new Blueprint("bulk", "bp" + i, List.of()));
+            persistence.getBlueprint("bulk", "bp" + i);
+        }
+
+        CachingBlueprintPersistence.Stats stats = persistence.stats().get("blueprints");
+        assertTrue(stats.size() <= 5, "size=" + stats.size());
+        assertEquals(30 - stats.size(), stats.evictions());
+    }
+}
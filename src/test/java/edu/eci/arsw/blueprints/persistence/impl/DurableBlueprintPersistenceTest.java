@@ -0,0 +1,196 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la persistencia en memoria durable: cada test cierra y reabre la instancia sobre el mismo
+ * directorio y compara lo recuperado con lo escrito. Los disparadores automáticos de snapshot están
+ * desactivados; los snapshots se toman a mano.
+ */
+class DurableBlueprintPersistenceTest {
+
+    @TempDir
+    Path dir;
+
+    private DurableBlueprintPersistence persistence;
+
+    private DurableBlueprintPersistence open(String fsync) throws IOException {
+        persistence = new DurableBlueprintPersistence(dir.toString(), fsync, Duration.ofMillis(50),
+                Duration.ZERO, DataSize.ofBytes(0));
+        return persistence;
+    }
+
+    private DurableBlueprintPersistence reopen() throws IOException {
+        persistence.close();
+        return open("always");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (persistence != null) persistence.close();
+    }
+
+    @Test
+    @DisplayName("Directorio vacío: carga los datos de ejemplo y los conserva al reiniciar")
+    void freshDirectoryShouldSeedSampleDataDurably() throws Exception {
+        open("always");
+        assertEquals(3, persistence.getAllBlueprints().size());
+
+        reopen();
+
+        assertEquals(4, persistence.getBlueprint("john", "house").pointCount());
+        assertEquals(2, persistence.getBlueprintsByAuthor("john").size());
+        assertEquals(InMemoryBlueprintPersistence.sampleBlueprints().stream().mapToLong(bp -> 1 + bp.version()).sum(),
+                persistence.getCatalogVersion());
+    }
+
+    @Test
+    @DisplayName("Altas, puntos y lotes se recuperan del log con el mismo orden y versiones")
+    void writesShouldBeReplayedFromLog() throws Exception {
+        open("interval");
+        persistence.saveBlueprint(new Blueprint("ana", "bridge", List.of(new Point(1, 2))));
+        persistence.addPoint("ana", "bridge", 3, 4);
+        persistence.addPoints("ana", "bridge", List.of(new Point(5, 6), new Point(7, 8)));
+        persistence.saveBlueprints(List.of(new Blueprint("ana", "tower", List.of()),
+                new Blueprint("john", "house", List.of())));
+        long version = persistence.getAuthorVersion("ana");
+
+        reopen();
+
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8},
+                persistence.getBlueprint("ana", "bridge").copyCoordinates());
+        assertEquals(0, persistence.getBlueprint("ana", "tower").pointCount());
+        assertEquals(4, persistence.getBlueprint("john", "house").pointCount());
+        assertEquals(version, persistence.getAuthorVersion("ana"));
+    }
+
+    @Test
+    @DisplayName("Snapshot + cola del log: se recupera todo y se borran los archivos cubiertos")
+    void snapshotShouldCoverOlderFilesAndTailShouldBeReplayed() throws Exception {
+        open("always");
+        persistence.saveBlueprint(new Blueprint("ana", "bridge", List.of(new Point(1, 1))));
+        persistence.snapshot();
+        persistence.addPoint("ana", "bridge", 2, 2);
+        persistence.saveBlueprint(new Blueprint("ana", "tower", List.of(new Point(9, 9))));
+
+        assertEquals(1, BlueprintSnapshot.files(dir).size());
+        assertEquals(1, WriteAheadLog.files(dir).size());
+
+        reopen();
+
+        assertArrayEquals(new int[]{1, 1, 2, 2}, persistence.getBlueprint("ana", "bridge").copyCoordinates());
+        assertArrayEquals(new int[]{9, 9}, persistence.getBlueprint("ana", "tower").copyCoordinates());
+        assertEquals(5, persistence.getAllBlueprints().size());
+    }
+
+    @Test
+    @DisplayName("Un registro cortado al final del log (caída a mitad de escritura) se descarta")
+    void tornTailShouldBeIgnored() throws Exception {
+        open("never");
+        persistence.saveBlueprint(new Blueprint("ana", "bridge", List.of()));
+        persistence.addPoint("ana", "bridge", 1, 1);
+        persistence.addPoint("ana", "bridge", 2, 2);
+        persistence.close();
+        Path last = WriteAheadLog.files(dir).lastEntry().getValue();
+        try (RandomAccessFile f = new RandomAccessFile(last.toFile(), "rw")) {
+            f.setLength(f.length() - 3);
+        }
+
+        open("always");
+
+        assertArrayEquals(new int[]{1, 1}, persistence.getBlueprint("ana", "bridge").copyCoordinates());
+        persistence.addPoint("ana", "bridge", 3, 3);
+        reopen();
+        assertArrayEquals(new int[]{1, 1, 3, 3}, persistence.getBlueprint("ana", "bridge").copyCoordinates());
+    }
+
+    @Test
+    @DisplayName("addPoint concurrente: el orden recuperado es el que había en memoria")
+    void concurrentAppendsShouldRecoverInMemoryOrder() throws Exception {
+        open("always");
+        persistence.saveBlueprint(new Blueprint("race", "line", List.of()));
+        int threads = 8, perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    persistence.addPoint("race", "line", id, i);
+                    if (id == 0 && i == perThread / 2) persistence.snapshot();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        int[] before = persistence.getBlueprint("race", "line").copyCoordinates();
+
+        reopen();
+
+        int[] after = persistence.getBlueprint("race", "line").copyCoordinates();
+        assertEquals(2 * threads * perThread, after.length);
+        assertArrayEquals(before, after);
+    }
+
+    @Test
+    @DisplayName("Los planos inexistentes no dejan registros en el log")
+    void failedWritesShouldNotBeLogged() throws Exception {
+        open("always");
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("nobody", "none", 1, 1));
+        long bytes = Files.size(WriteAheadLog.files(dir).lastEntry().getValue());
+
+        assertThrows(Exception.class, () -> persistence.saveBlueprint(new Blueprint("john", "house", List.of())));
+
+        assertEquals(bytes, Files.size(WriteAheadLog.files(dir).lastEntry().getValue()));
+    }
+
+    @Test
+    @DisplayName("MappedFileReader lee campos y enteros que cruzan ventanas de mapeo")
+    void mappedReaderShouldCrossWindows() throws Exception {
+        Blueprint bp = Blueprint.ofCoordinates("a", "b", IntStream.range(0, 200).toArray(), 100);
+        Path file = BlueprintSnapshot.write(dir, 7, List.of(bp, bp), new int[]{100, 40});
+
+        try (MappedFileReader in = new MappedFileReader(file, 24)) {
+            in.getInt();
+            in.getInt();
+            assertEquals(7, in.getLong());
+            assertEquals(2, in.getInt());
+            assertEquals("a", in.getString());
+            assertEquals("b", in.getString());
+            int[] xy = new int[2 * in.getInt()];
+            in.getInts(xy);
+            assertArrayEquals(bp.copyCoordinates(), xy);
+            in.getString();
+            in.getString();
+            int[] prefix = new int[2 * in.getInt()];
+            in.getInts(prefix);
+            assertArrayEquals(Arrays.copyOf(bp.copyCoordinates(), 80), prefix);
+            assertEquals(0, in.remaining());
+        }
+    }
+}
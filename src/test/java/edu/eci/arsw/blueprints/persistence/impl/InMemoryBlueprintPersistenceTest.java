@@ -0,0 +1,358 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la persistencia en memoria.
+ * Se centran en el índice secundario por autor, en su consistencia bajo escrituras concurrentes
+ * y en que addPoint concurrente no pierda puntos ni exponga snapshots inconsistentes.
+ * Datos precargados: john/house, john/garage, jane/garden.
+ */
+class InMemoryBlueprintPersistenceTest {
+
+    private static final int THREADS = 8;
+
+    private InMemoryBlueprintPersistence persistence;
+
+    @BeforeEach
+    void setUp() { persistence = new InMemoryBlueprintPersistence(); }
+
+    @Test
+    @DisplayName("getBlueprintsByAuthor retorna solo los planos del autor precargado")
+    void shouldReturnPreloadedBlueprintsByAuthor() throws Exception {
+        Set<Blueprint> john = persistence.getBlueprintsByAuthor("john");
+
+        assertEquals(Set.of("house", "garage"),
+                john.stream().map(Blueprint::getName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName("saveBlueprint registra el plano nuevo en el índice por autor")
+    void saveShouldUpdateAuthorIndex() throws Exception {
+        persistence.saveBlueprint(new Blueprint("jane", "pool", List.of(new Point(1, 1))));
+
+        assertEquals(2, persistence.getBlueprintsByAuthor("jane").size());
+    }
+
+    @Test
+    @DisplayName("Autor inexistente → BlueprintNotFoundException")
+    void unknownAuthorShouldThrow() {
+        assertThrows(BlueprintNotFoundException.class,
+                () -> persistence.getBlueprintsByAuthor("noexiste"));
+    }
+
+    @Test
+    @DisplayName("El conjunto retornado es una copia: modificarlo no altera el índice")
+    void returnedSetShouldBeDetachedFromIndex() throws Exception {
+        Set<Blueprint> john = persistence.getBlueprintsByAuthor("john");
+        john.clear();
+
+        assertEquals(2, persistence.getBlueprintsByAuthor("john").size());
+    }
+
+    @Test
+    @DisplayName("Un duplicado rechazado no deja rastro en el índice")
+    void rejectedDuplicateShouldNotBeIndexed() throws Exception {
+        Blueprint dup = new Blueprint("john", "house", List.of(new Point(7, 7)));
+
+        assertThrows(BlueprintPersistenceException.class, () -> persistence.saveBlueprint(dup));
+        assertEquals(2, persistence.getBlueprintsByAuthor("john").size());
+        assertEquals(4, persistence.getBlueprint("john", "house").getPoints().size());
+    }
+
+    @Test
+    @DisplayName("Autores y nombres con ':' no se confunden: a/b:c y a:b/c son planos distintos")
+    void keysWithColonsShouldNotCollide() throws Exception {
+        persistence.saveBlueprint(new Blueprint("a", "b:c", List.of(new Point(1, 1))));
+        persistence.saveBlueprint(new Blueprint("a:b", "c", List.of(new Point(2, 2), new Point(3, 3))));
+
+        assertEquals(1, persistence.getBlueprint("a", "b:c").pointCount());
+        assertEquals(2, persistence.getBlueprint("a:b", "c").pointCount());
+        persistence.addPoint("a", "b:c", 50, 50);
+        assertEquals(List.of("a"), persistence.getBlueprintsIntersecting(new BoundingBox(50, 50, 50, 50)).stream()
+                .map(Blueprint::getAuthor).toList());
+    }
+
+    @Test
+    @DisplayName("saveBlueprints guarda el lote y reporta existentes y repetidos dentro del lote")
+    void saveBlueprintsShouldReportConflictsPerItem() throws Exception {
+        Blueprint pool = new Blueprint("jane", "pool", List.of(new Point(1, 1)));
+        Blueprint house = new Blueprint("john", "house", List.of());
+        Blueprint poolAgain = new Blueprint("jane", "pool", List.of(new Point(9, 9)));
+        Blueprint shed = new Blueprint("mike", "shed", List.of());
+
+        List<Blueprint> conflicts = persistence.saveBlueprints(List.of(pool, house, poolAgain, shed));
+
+        assertEquals(2, conflicts.size());
+        assertSame(house, conflicts.get(0));
+        assertSame(poolAgain, conflicts.get(1));
+        assertSame(pool, persistence.getBlueprint("jane", "pool"));
+        assertEquals(Set.of(shed), persistence.getBlueprintsByAuthor("mike"));
+    }
+
+    @Test
+    @DisplayName("getBlueprintsPage recorre todos los planos en orden (autor, nombre) sin repetir")
+    void pagesShouldWalkAllBlueprintsInKeyOrder() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            persistence.saveBlueprint(new Blueprint("a" + (i % 4), "bp" + i, List.of()));
+        }
+        List<String> walked = new ArrayList<>();
+        String author = null, name = null;
+        List<Blueprint> page;
+        do {
+            page = persistence.getBlueprintsPage(author, name, 7);
+            for (Blueprint bp : page) walked.add(bp.getAuthor() + ":" + bp.getName());
+            if (!page.isEmpty()) {
+                author = page.get(page.size() - 1).getAuthor();
+                name = page.get(page.size() - 1).getName();
+            }
+        } while (page.size() == 7);
+
+        List<String> expected = persistence.getAllBlueprints().stream()
+                .map(bp -> bp.getAuthor() + ":" + bp.getName())
+                .sorted(Comparator
+                        .comparing((String k) -> k.substring(0, k.indexOf(':')))
+                        .thenComparing(k -> k.substring(k.indexOf(':') + 1)))
+                .toList();
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    @DisplayName("Escrituras concurrentes: el índice coincide con el almacén principal")
+    void concurrentSavesShouldKeepIndexConsistent() throws Exception {
+        int perThread = 2_000;
+        int authors = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    persistence.saveBlueprint(new Blueprint("author" + (i % authors), "bp-" + id + "-" + i, List.of()));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        Set<Blueprint> all = persistence.getAllBlueprints();
+        assertEquals(3 + THREADS * perThread, all.size());
+        for (int a = 0; a < authors; a++) {
+            String author = "author" + a;
+            Set<Blueprint> expected = all.stream()
+                    .filter(bp -> bp.getAuthor().equals(author))
+                    .collect(Collectors.toSet());
+            assertEquals(expected, persistence.getBlueprintsByAuthor(author), author);
+        }
+    }
+
+    @Test
+    @DisplayName("Duplicados concurrentes: exactamente uno gana y el índice lo contiene una sola vez")
+    void concurrentDuplicatesShouldIndexOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger saved = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                try {
+                    persistence.saveBlueprint(new Blueprint("race", "same", List.of()));
+                    saved.incrementAndGet();
+                } catch (BlueprintPersistenceException expected) {
+                    // otro hilo ganó la carrera
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, saved.get());
+        assertEquals(1, persistence.getBlueprintsByAuthor("race").size());
+    }
+
+    @Test
+    @DisplayName("Lectores concurrentes solo ven planos ya visibles por clave")
+    void readersShouldNeverSeeIndexAheadOfPrimaryStore() throws Exception {
+        int writes = 5_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int r = 0; r < THREADS - 1; r++) {
+            pool.submit(() -> {
+                while (!done.get()) {
+                    try {
+                        for (Blueprint bp : persistence.getBlueprintsByAuthor("writer")) {
+                            persistence.getBlueprint(bp.getAuthor(), bp.getName());
+                        }
+                    } catch (BlueprintNotFoundException e) {
+                        if (!e.getMessage().startsWith("No blueprints for author")) errors.add(e.getMessage());
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < writes; i++) {
+            persistence.saveBlueprint(new Blueprint("writer", "bp" + i, List.of()));
+        }
+        done.set(true);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(errors.isEmpty(), () -> "Planos indexados sin estar almacenados: " + errors);
+        assertEquals(writes, persistence.getBlueprintsByAuthor("writer").size());
+    }
+
+    @Test
+    @DisplayName("addPoint concurrente: no se pierden puntos y los lectores ven prefijos consistentes")
+    void concurrentAddPointShouldNotLosePoints() throws Exception {
+        int perThread = 20_000;
+        persistence.saveBlueprint(new Blueprint("stress", "bp", List.of()));
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            writers.add(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) persistence.addPoint("stress", "bp", id, i);
+                return null;
+            });
+        }
+        for (int r = 0; r < 2; r++) {
+            pool.submit(() -> {
+                while (!done.get()) {
+                    String error = checkPerThreadOrder(persistence.getBlueprint("stress", "bp").getPoints());
+                    if (error != null) errors.add(error);
+                }
+                return null;
+            });
+        }
+        var futures = writers.stream().map(pool::submit).toList();
+        start.countDown();
+        for (var f : futures) f.get(60, TimeUnit.SECONDS);
+        done.set(true);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<Point> points = persistence.getBlueprint("stress", "bp").getPoints();
+        assertEquals(THREADS * perThread, points.size());
+        assertNull(checkPerThreadOrder(points));
+        assertTrue(errors.isEmpty(), () -> "Snapshots inconsistentes: " + errors.peek());
+    }
+
+    /** Cada hilo escribe (id, 0), (id, 1), ...; en cualquier snapshot su secuencia debe ser 0..m-1. */
+    private static String checkPerThreadOrder(List<Point> points) {
+        int[] next = new int[THREADS];
+        for (Point p : points) {
+            if (p.y() != next[p.x()]) {
+                return "hilo " + p.x() + ": esperaba " + next[p.x()] + " y encontró " + p.y();
+            }
+            next[p.x()]++;
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("Versiones: plano = puntos; autor y catálogo = suma de (1 + puntos), crecen con cada escritura")
+    void versionsShouldFollowWrites() throws Exception {
+        assertEquals(4, persistence.getBlueprintVersion("john", "house"));
+        assertEquals(5 + 4, persistence.getAuthorVersion("john"));
+        assertEquals(5 + 4 + 4, persistence.getCatalogVersion());
+
+        persistence.addPoint("john", "house", 1, 2);
+        persistence.saveBlueprint(new Blueprint("jane", "pool", List.of(new Point(1, 1))));
+
+        assertEquals(5, persistence.getBlueprintVersion("john", "house"));
+        assertEquals(10, persistence.getAuthorVersion("john"));
+        assertEquals(BlueprintPersistence.versionOf(persistence.getBlueprintsByAuthor("jane")),
+                persistence.getAuthorVersion("jane"));
+        assertEquals(BlueprintPersistence.versionOf(persistence.getAllBlueprints()), persistence.getCatalogVersion());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getAuthorVersion("nobody"));
+    }
+
+    // ── Índice espacial ──────────────────────────────────────────────────────
+
+    private static List<String> keys(List<Blueprint> bps) {
+        return bps.stream().map(bp -> bp.getAuthor() + ":" + bp.getName()).toList();
+    }
+
+    @Test
+    @DisplayName("Consulta por área: bordes incluidos y resultados ordenados por autor y nombre")
+    void intersectingShouldMatchBoundingBoxes() {
+        // house (0,0)-(10,10), garage (5,5)-(15,15), garden (2,2)-(6,7)
+        assertEquals(List.of("jane:garden", "john:garage", "john:house"),
+                keys(persistence.getBlueprintsIntersecting(new BoundingBox(5, 5, 6, 6))));
+        assertEquals(List.of("john:garage"), keys(persistence.getBlueprintsIntersecting(new BoundingBox(11, 11, 12, 12))));
+        assertEquals(List.of("john:garage"), keys(persistence.getBlueprintsIntersecting(new BoundingBox(15, 15, 20, 20))));
+        assertEquals(List.of(), persistence.getBlueprintsIntersecting(new BoundingBox(16, 0, 30, 30)));
+    }
+
+    @Test
+    @DisplayName("addPoint agranda la caja; un plano sin puntos entra con el primero")
+    void intersectingShouldFollowAppends() throws Exception {
+        BoundingBox far = new BoundingBox(99, 99, 101, 101);
+        persistence.saveBlueprint(new Blueprint("ana", "empty", List.of()));
+        assertEquals(List.of(), persistence.getBlueprintsIntersecting(far));
+
+        persistence.addPoint("jane", "garden", 100, 100);
+        persistence.addPoint("ana", "empty", 101, 99);
+
+        assertEquals(List.of("ana:empty", "jane:garden"), keys(persistence.getBlueprintsIntersecting(far)));
+    }
+
+    @Test
+    @DisplayName("Con miles de planos (varias divisiones del R-tree) coincide con un recorrido completo")
+    void intersectingShouldAgreeWithFullScan() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 3000; i++) {
+            int x = random.nextInt(10_000), y = random.nextInt(10_000);
+            persistence.saveBlueprint(new Blueprint("r" + (i % 50), "bp" + i,
+                    List.of(new Point(x, y), new Point(x + random.nextInt(200), y + random.nextInt(200)))));
+        }
+        for (int i = 0; i < 1000; i++) {
+            persistence.addPoint("r" + (i % 50), "bp" + i, random.nextInt(10_000), random.nextInt(10_000));
+        }
+        for (int q = 0; q < 200; q++) {
+            int x = random.nextInt(10_000), y = random.nextInt(10_000);
+            BoundingBox area = new BoundingBox(x, y, x + random.nextInt(1000), y + random.nextInt(1000));
+            List<String> expected = persistence.getAllBlueprints().stream()
+                    .filter(bp -> BoundingBox.of(bp) != null && BoundingBox.of(bp).intersects(area))
+                    .map(bp -> bp.getAuthor() + ":" + bp.getName())
+                    .sorted(Comparator.comparing((String k) -> k.substring(0, k.indexOf(':')))
+                            .thenComparing(k -> k.substring(k.indexOf(':') + 1)))
+                    .toList();
+            assertEquals(expected, keys(persistence.getBlueprintsIntersecting(area)));
+        }
+    }
+}
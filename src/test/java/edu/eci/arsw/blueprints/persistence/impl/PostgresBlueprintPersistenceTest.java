@@ -0,0 +1,272 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración de la persistencia PostgreSQL contra una base real.
+ * Solo corren si la variable de entorno {@code BLUEPRINTS_TEST_DB_URL} apunta a una base de pruebas
+ * (usuario y clave opcionales en {@code BLUEPRINTS_TEST_DB_USER} / {@code BLUEPRINTS_TEST_DB_PASSWORD}):
+ * <pre>BLUEPRINTS_TEST_DB_URL=jdbc:postgresql://localhost:5432/blueprintsdb mvn test</pre>
+ * Cada test usa un autor único y borra sus filas al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+@EnabledIfEnvironmentVariable(named = "BLUEPRINTS_TEST_DB_URL", matches = ".+")
+class PostgresBlueprintPersistenceTest {
+
+    private static final int THREADS = 8;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BLUEPRINTS_TEST_DB_URL"));
+        registry.add("spring.datasource.username",
+                () -> System.getenv().getOrDefault("BLUEPRINTS_TEST_DB_USER", "blueprints"));
+        registry.add("spring.datasource.password",
+                () -> System.getenv().getOrDefault("BLUEPRINTS_TEST_DB_PASSWORD", "blueprints123"));
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private PostgresBlueprintPersistence persistence;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final String author = "it-" + UUID.randomUUID();
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM blueprint_points WHERE blueprint_id IN (SELECT id FROM blueprints WHERE author IN (?, ?))",
+                author, author + ":x");
+        jdbc.update("DELETE FROM blueprints WHERE author IN (?, ?)", author, author + ":x");
+    }
+
+    /** {@code point_order} de los puntos del plano, en orden. */
+    private List<Integer> orders(String name) {
+        return jdbc.queryForList("""
+                SELECT p.point_order FROM blueprint_points p JOIN blueprints b ON b.id = p.blueprint_id
+                WHERE b.author = ? AND b.name = ? ORDER BY p.point_order
+                """, Integer.class, author, name);
+    }
+
+    @Test
+    @DisplayName("addPoint concurrente: no se pierde ningún punto y point_order queda contiguo")
+    void concurrentAppendsShouldNotLosePoints() throws Exception {
+        persistence.saveBlueprint(new Blueprint(author, "wall", List.of(new Point(-1, -1))));
+        int perThread = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) persistence.addPoint(author, "wall", id, i);
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        int expected = 1 + THREADS * perThread;
+        List<Integer> orders = orders("wall");
+        assertEquals(expected, orders.size());
+        for (int i = 0; i < expected; i++) assertEquals(i, orders.get(i));
+
+        Blueprint stored = persistence.getBlueprint(author, "wall");
+        assertEquals(new Point(-1, -1), stored.getPoints().get(0));
+        assertEquals(expected, new HashSet<>(stored.getPoints()).size());
+        // Los puntos de cada hilo conservan su orden relativo.
+        int[] next = new int[THREADS];
+        for (Point p : stored.getPoints().subList(1, expected)) assertEquals(next[p.x()]++, p.y());
+    }
+
+    @Test
+    @DisplayName("addPoints concurrente: cada lote ocupa posiciones contiguas")
+    void concurrentBatchAppendsShouldStayContiguous() throws Exception {
+        persistence.saveBlueprint(new Blueprint(author, "fence", List.of()));
+        int batches = 20, batchSize = 5;
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            pool.submit(() -> {
+                start.await();
+                for (int b = 0; b < batches; b++) {
+                    List<Point> batch = new ArrayList<>();
+                    for (int i = 0; i < batchSize; i++) batch.add(new Point(id * 1_000 + b, i));
+                    persistence.addPoints(author, "fence", batch);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        List<Point> pts = persistence.getBlueprint(author, "fence").getPoints();
+        assertEquals(THREADS * batches * batchSize, pts.size());
+        for (int i = 0; i < pts.size(); i += batchSize) {
+            for (int j = 0; j < batchSize; j++) {
+                assertEquals(new Point(pts.get(i).x(), j), pts.get(i + j), "lote partido en " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Append sobre una fila anterior a point_count (contador en 0) continúa tras el último punto")
+    void appendShouldRepairLegacyCounter() throws Exception {
+        persistence.saveBlueprint(new Blueprint(author, "legacy", List.of(new Point(0, 0), new Point(1, 1))));
+        jdbc.update("UPDATE blueprints SET point_count = 0 WHERE author = ?", author);
+        assertEquals(2, persistence.getBlueprintVersion(author, "legacy"));
+
+        persistence.addPoint(author, "legacy", 2, 2);
+        persistence.addPoints(author, "legacy", List.of(new Point(3, 3), new Point(4, 4)));
+
+        assertEquals(List.of(0, 1, 2, 3, 4), orders("legacy"));
+        assertEquals(new Point(4, 4), persistence.getBlueprint(author, "legacy").getPoints().get(4));
+    }
+
+    @Test
+    @DisplayName("Lecturas JDBC: por clave, por autor, páginas y recorrido completo coinciden")
+    void jdbcReadsShouldAgree() throws Exception {
+        List<Blueprint> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            List<Point> pts = new ArrayList<>();
+            for (int j = 0; j < i; j++) pts.add(new Point(i, j));
+            saved.add(new Blueprint(author, "bp" + i, pts));
+        }
+        persistence.saveBlueprints(saved);
+
+        for (Blueprint bp : saved) {
+            assertEquals(bp.getPoints(), persistence.getBlueprint(author, bp.getName()).getPoints());
+        }
+        assertEquals(Set.copyOf(saved), persistence.getBlueprintsByAuthor(author));
+
+        List<String> paged = new ArrayList<>();
+        List<Blueprint> page = persistence.getBlueprintsPage(author, "", 3);
+        while (!page.isEmpty() && page.get(0).getAuthor().equals(author)) {
+            page.stream().filter(bp -> bp.getAuthor().equals(author)).forEach(bp -> paged.add(bp.getName()));
+            Blueprint last = page.get(page.size() - 1);
+            page = persistence.getBlueprintsPage(last.getAuthor(), last.getName(), 3);
+        }
+        assertEquals(List.of("bp0", "bp1", "bp2", "bp3", "bp4", "bp5", "bp6"), paged);
+
+        List<Blueprint> streamed = new ArrayList<>();
+        persistence.forEachBlueprint(bp -> { if (bp.getAuthor().equals(author)) streamed.add(bp); });
+        assertEquals(Set.copyOf(saved), Set.copyOf(streamed));
+        assertTrue(persistence.getAllBlueprints().containsAll(saved));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprintsByAuthor(author + "-none"));
+    }
+
+    @Test
+    @DisplayName("Carga masiva: autores y nombres con ':' no se confunden entre sí")
+    void bulkSaveShouldNotConfuseKeysWithColons() throws Exception {
+        Blueprint first = new Blueprint(author, "x:y", List.of(new Point(1, 1)));
+        Blueprint second = new Blueprint(author + ":x", "y", List.of(new Point(2, 2), new Point(3, 3)));
+
+        assertEquals(List.of(), persistence.saveBlueprints(List.of(first, second)));
+
+        assertEquals(first.getPoints(), persistence.getBlueprint(author, "x:y").getPoints());
+        assertEquals(second.getPoints(), persistence.getBlueprint(author + ":x", "y").getPoints());
+        assertEquals(List.of(first), persistence.saveBlueprints(List.of(first)));
+    }
+
+    @Test
+    @DisplayName("Append sobre un plano inexistente → BlueprintNotFoundException")
+    void appendToUnknownBlueprintShouldThrow() {
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint(author, "none", 1, 1));
+        assertThrows(BlueprintNotFoundException.class,
+                () -> persistence.addPoints(author, "none", List.of(new Point(1, 1))));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoints(author, "none", List.of()));
+        assertEquals(Set.of(), Set.copyOf(jdbc.queryForList(
+                "SELECT name FROM blueprints WHERE author = ?", String.class, author)));
+    }
+
+    @Test
+    @DisplayName("Versiones sin leer puntos: coinciden con las calculadas sobre los planos leídos")
+    void versionsShouldMatchLoadedBlueprints() throws Exception {
+        persistence.saveBlueprints(List.of(
+                new Blueprint(author, "a", List.of(new Point(1, 1), new Point(2, 2))),
+                new Blueprint(author, "b", List.of())));
+        long catalog = persistence.getCatalogVersion();
+
+        assertEquals(2, persistence.getBlueprintVersion(author, "a"));
+        assertEquals(3 + 1, persistence.getAuthorVersion(author));
+
+        persistence.addPoint(author, "b", 5, 5);
+
+        assertEquals(1, persistence.getBlueprintVersion(author, "b"));
+        assertEquals(BlueprintPersistence.versionOf(persistence.getBlueprintsByAuthor(author)),
+                persistence.getAuthorVersion(author));
+        assertTrue(persistence.getCatalogVersion() > catalog);
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprintVersion(author, "none"));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getAuthorVersion(author + "-none"));
+    }
+
+    /** Nombres de los planos de este test que intersectan el área (la base puede tener otros). */
+    private List<String> intersecting(int minX, int minY, int maxX, int maxY) {
+        return persistence.getBlueprintsIntersecting(new BoundingBox(minX, minY, maxX, maxY)).stream()
+                .filter(bp -> bp.getAuthor().equals(author)).map(Blueprint::getName).toList();
+    }
+
+    @Test
+    @DisplayName("Consulta por área: altas y appends mantienen la caja; una caja NULL se completa con el backfill")
+    void intersectingShouldFollowWritesAndBackfill() throws Exception {
+        persistence.saveBlueprint(new Blueprint(author, "jpa", List.of(new Point(10, 10))));
+        persistence.saveBlueprints(List.of(
+                new Blueprint(author, "bulk", List.of(new Point(20, 20), new Point(30, 30))),
+                new Blueprint(author, "empty", List.of())));
+        assertEquals(List.of("bulk"), intersecting(25, 25, 26, 26));
+        assertEquals(List.of(), intersecting(-100, -100, -90, -90));
+
+        persistence.addPoint(author, "empty", -95, -95);
+        persistence.addPoints(author, "jpa", List.of(new Point(-100, 0), new Point(0, -100)));
+        assertEquals(List.of("empty", "jpa"), intersecting(-100, -100, -90, -90));
+
+        // Fila anterior a las columnas de la caja: no aparece hasta que el backfill la calcula.
+        jdbc.update("UPDATE blueprints SET min_x = NULL, min_y = NULL, max_x = NULL, max_y = NULL WHERE author = ? AND name = 'bulk'", author);
+        persistence.addPoint(author, "bulk", 40, 40);
+        assertEquals(List.of(), intersecting(25, 25, 26, 26));
+        while (persistence.backfillBounds(100) > 0) { }
+        assertEquals(0, persistence.countUnbounded());
+        assertEquals(List.of("bulk"), intersecting(25, 25, 40, 40));
+        assertEquals(List.of("bulk"), intersecting(40, 40, 41, 41));
+    }
+
+    @Test
+    @DisplayName("El índice de cajas se crea con CONCURRENTLY fuera de transacción y queda válido")
+    void boundsIndexShouldBeCreatedConcurrently() {
+        persistence.createBoundsIndex();
+        persistence.createBoundsIndex();
+        assertEquals(Boolean.TRUE, jdbc.queryForObject("""
+                SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?
+                """, Boolean.class, PostgresBlueprintPersistence.BOUNDS_INDEX));
+    }
+}
@@ -0,0 +1,179 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.entity.BlueprintEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración del almacenamiento empaquetado ({@code blueprints.postgres.point-storage=packed})
+ * y de la migración desde blueprint_points. Mismas condiciones que {@link PostgresBlueprintPersistenceTest}:
+ * solo corren con {@code BLUEPRINTS_TEST_DB_URL} definida.
+ */
+@SpringBootTest(properties = "blueprints.postgres.point-storage=packed")
+@ActiveProfiles("postgres")
+@EnabledIfEnvironmentVariable(named = "BLUEPRINTS_TEST_DB_URL", matches = ".+")
+class PostgresPackedStorageTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresBlueprintPersistenceTest.datasource(registry);
+    }
+
+    @Autowired
+    private PostgresBlueprintPersistence persistence;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private BlueprintJpaRepository jpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final String author = "it-" + UUID.randomUUID();
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM blueprint_points WHERE blueprint_id IN (SELECT id FROM blueprints WHERE author = ?)", author);
+        jdbc.update("DELETE FROM blueprints WHERE author = ?", author);
+    }
+
+    private int pointRows(String name) {
+        return jdbc.queryForObject("""
+                SELECT COUNT(*) FROM blueprint_points p JOIN blueprints b ON b.id = p.blueprint_id
+                WHERE b.author = ? AND b.name = ?
+                """, Integer.class, author, name);
+    }
+
+    private int packedBytes(String name) {
+        return jdbc.queryForObject("SELECT octet_length(points_packed) FROM blueprints WHERE author = ? AND name = ?",
+                Integer.class, author, name);
+    }
+
+    @Test
+    @DisplayName("saveBlueprint y saveBlueprints guardan los puntos en points_packed, sin filas por punto")
+    void saveShouldWritePackedColumn() throws Exception {
+        List<Point> pts = List.of(new Point(1, -2), new Point(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        persistence.saveBlueprint(new Blueprint(author, "one", pts));
+        List<Blueprint> conflicts = persistence.saveBlueprints(List.of(
+                new Blueprint(author, "two", pts), new Blueprint(author, "one", List.of())));
+
+        assertEquals(1, conflicts.size());
+        for (String name : List.of("one", "two")) {
+            assertEquals(pts, persistence.getBlueprint(author, name).getPoints());
+            assertEquals(0, pointRows(name));
+            assertEquals(16, packedBytes(name));
+        }
+    }
+
+    @Test
+    @DisplayName("addPoint concurrente sobre un plano empaquetado no pierde puntos")
+    void concurrentPackedAppendsShouldNotLosePoints() throws Exception {
+        persistence.saveBlueprint(new Blueprint(author, "wall", List.of()));
+        int threads = 8, perThread = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) persistence.addPoint(author, "wall", id, i);
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        persistence.addPoints(author, "wall", List.of(new Point(-1, 0), new Point(-1, 1)));
+
+        List<Point> stored = persistence.getBlueprint(author, "wall").getPoints();
+        assertEquals(threads * perThread + 2, stored.size());
+        int[] next = new int[threads];
+        for (Point p : stored.subList(0, threads * perThread)) assertEquals(next[p.x()]++, p.y());
+        assertEquals(List.of(new Point(-1, 0), new Point(-1, 1)), stored.subList(threads * perThread, stored.size()));
+        assertEquals(stored.size(), jdbc.queryForObject(
+                "SELECT point_count FROM blueprints WHERE author = ? AND name = 'wall'", Integer.class, author));
+    }
+
+    @Test
+    @DisplayName("Un append solo saca del contexto de persistencia la entidad del plano modificado")
+    void appendShouldEvictOnlyItsEntity() throws Exception {
+        persistence.saveBlueprints(List.of(new Blueprint(author, "a", List.of()), new Blueprint(author, "b", List.of())));
+        tx.executeWithoutResult(status -> {
+            BlueprintEntity a = jpaRepository.findByAuthorAndName(author, "a").orElseThrow();
+            BlueprintEntity b = jpaRepository.findByAuthorAndName(author, "b").orElseThrow();
+            try {
+                persistence.addPoint(author, "a", 1, 1);
+            } catch (BlueprintNotFoundException e) {
+                fail(e);
+            }
+            assertFalse(entityManager.contains(a));
+            assertTrue(entityManager.contains(b));
+            assertEquals(1, jpaRepository.findByAuthorAndName(author, "a").orElseThrow().getPointCount());
+        });
+    }
+
+    @Test
+    @DisplayName("Planos en blueprint_points se leen, aceptan appends y migran a points_packed sin cambiar")
+    void rowBlueprintsShouldBeReadableAndMigrate() throws Exception {
+        // Simula un plano de la forma anterior.
+        jdbc.update("INSERT INTO blueprints (author, name, point_count) VALUES (?, 'legacy', 0)", author);
+        jdbc.update("""
+                INSERT INTO blueprint_points (blueprint_id, point_order, x, y)
+                SELECT id, g, g * 10, -g FROM blueprints, generate_series(0, 2) g
+                WHERE author = ? AND name = 'legacy'
+                """, author);
+        jdbc.update("INSERT INTO blueprints (author, name, point_count) VALUES (?, 'empty', 0)", author);
+        persistence.addPoint(author, "legacy", 30, -3);
+        List<Point> before = persistence.getBlueprint(author, "legacy").getPoints();
+        assertEquals(4, pointRows("legacy"));
+
+        // La migración recorre toda la base: se ejecuta en una transacción que se revierte al final
+        // para no convertir planos ajenos al test.
+        List<Point> after = new ArrayList<>(before);
+        after.add(new Point(40, -4));
+        tx.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try {
+                while (persistence.migrateToPacked(1) > 0) { }
+
+                assertEquals(0, pointRows("legacy"));
+                assertEquals(32, packedBytes("legacy"));
+                assertEquals(before, persistence.getBlueprint(author, "legacy").getPoints());
+                assertEquals(List.of(), persistence.getBlueprint(author, "empty").getPoints());
+                persistence.addPoint(author, "legacy", 40, -4);
+                assertEquals(after, persistence.getBlueprint(author, "legacy").getPoints());
+                assertEquals(0, pointRows("legacy"));
+            } catch (BlueprintNotFoundException e) {
+                fail(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package edu.eci.arsw.blueprints.persistence.impl;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la persistencia write-behind contra un backend en memoria que cuenta las llamadas y
+ * puede fallar a pedido. El volcado periódico queda fuera del test (intervalo de una hora): los
+ * lotes se vuelcan a mano con {@code flush()}.
+ */
+class WriteBehindBlueprintPersistenceTest {
+
+    /** Backend con los datos de ejemplo que registra cuántas veces se le escribe. */
+    static class RecordingBackend extends InMemoryBlueprintPersistence {
+        final AtomicInteger saveBatches = new AtomicInteger();
+        final AtomicInteger appendCalls = new AtomicInteger();
+        final AtomicBoolean failing = new AtomicBoolean();
+
+        @Override
+        public List<Blueprint> saveBlueprints(Collection<Blueprint> bps) {
+            if (failing.get()) throw new IllegalStateException("database down");
+            saveBatches.incrementAndGet();
+            return super.saveBlueprints(bps);
+        }
+
+        @Override
+        public void addPoint(String author, String name, int x, int y) {
+            throw new AssertionError("los puntos deben volcarse con addPoints");
+        }
+
+        @Override
+        public void addPoints(String author, String name, List<Point> points) throws BlueprintNotFoundException {
+            if (failing.get()) throw new IllegalStateException("database down");
+            appendCalls.incrementAndGet();
+            for (Point p : points) super.addPoint(author, name, p.x(), p.y());
+        }
+    }
+
+    private final RecordingBackend backend = new RecordingBackend();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private WriteBehindBlueprintPersistence persistence;
+
+    private WriteBehindBlueprintPersistence open(int queueCapacity, Duration offerTimeout) {
+        persistence = new WriteBehindBlueprintPersistence(backend, TransactionOperations.withoutTransaction(),
+                registry, queueCapacity, 10_000, Duration.ofHours(1), offerTimeout);
+        return persistence;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (persistence != null) persistence.close();
+    }
+
+    @Test
+    @DisplayName("Al arrancar carga el catálogo del backend")
+    void shouldLoadBackendCatalogue() throws Exception {
+        open(100, Duration.ofSeconds(1));
+        assertEquals(3, persistence.getAllBlueprints().size());
+        assertEquals(4, persistence.getBlueprint("john", "house").pointCount());
+    }
+
+    @Test
+    @DisplayName("Muchos addPoint se vuelcan como un solo addPoints, en orden")
+    void appendsShouldBeCoalescedPerBlueprint() throws Exception {
+        open(1000, Duration.ofSeconds(1));
+        for (int i = 0; i < 100; i++) persistence.addPoint("jane", "garden", i, -i);
+
+        assertEquals(103, persistence.getBlueprint("jane", "garden").pointCount());
+        assertEquals(3, backend.getBlueprint("jane", "garden").pointCount());
+        assertEquals(100, persistence.pendingMutations());
+
+        persistence.flush();
+
+        assertEquals(1, backend.appendCalls.get());
+        assertEquals(0, persistence.pendingMutations());
+        assertArrayEquals(persistence.getBlueprint("jane", "garden").copyCoordinates(),
+                backend.getBlueprint("jane", "garden").copyCoordinates());
+    }
+
+    @Test
+    @DisplayName("Los puntos de un plano creado en el mismo lote viajan con su alta")
+    void pointsOfNewBlueprintShouldBeFoldedIntoSave() throws Exception {
+        open(1000, Duration.ofSeconds(1));
+        persistence.saveBlueprint(new Blueprint("ana", "bridge", List.of(new Point(1, 1))));
+        persistence.addPoint("ana", "bridge", 2, 2);
+        persistence.addPoints("ana", "bridge", List.of(new Point(3, 3), new Point(4, 4)));
+        persistence.saveBlueprint(new Blueprint("ana", "tower", List.of()));
+
+        persistence.flush();
+
+        assertEquals(1, backend.saveBatches.get());
+        assertEquals(0, backend.appendCalls.get());
+        assertArrayEquals(new int[]{1, 1, 2, 2, 3, 3, 4, 4}, backend.getBlueprint("ana", "bridge").copyCoordinates());
+        assertEquals(0, backend.getBlueprint("ana", "tower").pointCount());
+    }
+
+    @Test
+    @DisplayName("Un lote fallido se reintenta entero y se vuelca una sola vez")
+    void failedBatchShouldBeRetried() throws Exception {
+        open(1000, Duration.ofSeconds(1));
+        persistence.addPoint("john", "garage", 7, 7);
+        backend.failing.set(true);
+
+        assertThrows(IllegalStateException.class, persistence::flush);
+        assertEquals(1, persistence.pendingMutations());
+        assertEquals(1.0, registry.get("blueprints.write-behind.failures").counter().count());
+        assertTrue(registry.get("blueprints.write-behind.lag").gauge().value() > 0);
+
+        backend.failing.set(false);
+        persistence.flush();
+        persistence.flush();
+
+        assertEquals(4, backend.getBlueprint("john", "garage").pointCount());
+        assertEquals(0.0, registry.get("blueprints.write-behind.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena una escritura se rechaza sin tocar la memoria")
+    void fullQueueShouldRejectWrites() throws Exception {
+        open(2, Duration.ofMillis(50));
+        backend.failing.set(true);
+        persistence.addPoint("jane", "garden", 1, 1);
+        persistence.addPoint("jane", "garden", 2, 2);
+
+        assertThrows(RejectedExecutionException.class, () -> persistence.addPoint("jane", "garden", 3, 3));
+        assertThrows(RejectedExecutionException.class,
+                () -> persistence.saveBlueprint(new Blueprint("ana", "bridge", List.of())));
+        assertEquals(5, persistence.getBlueprint("jane", "garden").pointCount());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprint("ana", "bridge"));
+
+        backend.failing.set(false);
+        persistence.flush();
+        persistence.addPoint("jane", "garden", 3, 3);
+        assertEquals(6, persistence.getBlueprint("jane", "garden").pointCount());
+    }
+
+    @Test
+    @DisplayName("Un error no consume lugar en la cola")
+    void failedWriteShouldReleaseItsSlot() throws Exception {
+        open(1, Duration.ofMillis(50));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("nobody", "none", 0, 0));
+        persistence.addPoint("jane", "garden", 1, 1);
+        assertEquals(1, persistence.pendingMutations());
+    }
+
+    @Test
+    @DisplayName("close vuelca lo pendiente y luego rechaza escrituras")
+    void closeShouldFlushPendingMutations() throws Exception {
+        open(1000, Duration.ofSeconds(1));
+        persistence.saveBlueprint(new Blueprint("ana", "bridge", List.of(new Point(1, 1))));
+        persistence.addPoint("john", "house", 5, 5);
+
+        persistence.close();
+
+        assertArrayEquals(new int[]{1, 1}, backend.getBlueprint("ana", "bridge").copyCoordinates());
+        assertEquals(5, backend.getBlueprint("john", "house").pointCount());
+        assertThrows(RejectedExecutionException.class, () -> persistence.addPoint("john", "house", 6, 6));
+    }
+}
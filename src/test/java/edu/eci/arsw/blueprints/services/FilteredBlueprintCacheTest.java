@@ -0,0 +1,122 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.filters.RedundancyFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la caché de resultados de filtros.
+ * Verifican aciertos por versión, invalidación y los contadores de hits/misses/evictions.
+ */
+class FilteredBlueprintCacheTest {
+
+    private final RedundancyFilter filter = new RedundancyFilter();
+
+    private static Blueprint bp(String name) {
+        return new Blueprint("john", name, List.of(new Point(1, 1), new Point(1, 1), new Point(2, 2)));
+    }
+
+    @Test
+    @DisplayName("Misma versión → retorna el resultado cacheado sin volver a filtrar")
+    void sameVersionShouldHit() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(100);
+        Blueprint house = bp("house");
+
+        Blueprint first = cache.apply(house, filter);
+        Blueprint second = cache.apply(house, filter);
+
+        assertSame(first, second);
+        assertEquals(2, second.pointCount());
+        assertEquals(new FilteredBlueprintCache.Stats(1, 1, 0, 1), cache.stats());
+    }
+
+    @Test
+    @DisplayName("addPoint cambia la versión → el resultado anterior no se reutiliza")
+    void newVersionShouldMiss() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(100);
+        Blueprint house = bp("house");
+        cache.apply(house, filter);
+
+        house.addPoint(3, 3);
+        Blueprint result = cache.apply(house, filter);
+
+        assertEquals(3, result.pointCount());
+        assertEquals(2, cache.stats().misses());
+        assertSame(result, cache.apply(house, filter));
+    }
+
+    @Test
+    @DisplayName("Autores y nombres con ':' no comparten entrada aunque tengan la misma versión")
+    void keysWithColonsShouldNotShareEntries() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(100);
+        Blueprint first = new Blueprint("a:b", "c", List.of(new Point(1, 1), new Point(1, 1), new Point(2, 2)));
+        Blueprint second = new Blueprint("a", "b:c", List.of(new Point(5, 5), new Point(5, 5), new Point(6, 6)));
+        cache.apply(first, filter);
+
+        Blueprint result = cache.apply(second, filter);
+
+        assertEquals("a", result.getAuthor());
+        assertEquals(List.of(new Point(5, 5), new Point(6, 6)), result.getPoints());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    @DisplayName("invalidate descarta la entrada aunque la versión coincida")
+    void invalidateShouldDropEntry() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(100);
+        Blueprint house = bp("house");
+        Blueprint first = cache.apply(house, filter);
+
+        cache.invalidate("john", "house");
+
+        assertNotSame(first, cache.apply(house, filter));
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    @DisplayName("Superar el tamaño máximo expulsa entradas y lo refleja el contador de evictions")
+    void exceedingMaxEntriesShouldEvict() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(10);
+        for (int i = 0; i < 50; i++) cache.apply(bp("bp" + i), filter);
+
+        FilteredBlueprintCache.Stats stats = cache.stats();
+        assertEquals(50, stats.misses());
+        assertTrue(stats.size() <= 10, "size=" + stats.size());
+        assertEquals(50 - stats.size(), stats.evictions());
+    }
+
+    @Test
+    @DisplayName("Los contadores se publican en el MeterRegistry como cache.gets, cache.evictions y cache.size")
+    void statsShouldBeBoundToRegistry() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        Blueprint house = bp("house");
+        cache.apply(house, filter);
+        cache.apply(house, filter);
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "filtered-blueprints", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "filtered-blueprints", "result", "miss")
+                .functionCounter().count());
+        assertEquals(0.0, registry.get("cache.evictions").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Un filtro que retorna la misma instancia no ocupa entradas")
+    void identityResultsShouldNotBeStored() {
+        FilteredBlueprintCache cache = new FilteredBlueprintCache(10);
+        cache.apply(bp("house"), new IdentityFilter());
+
+        assertEquals(0, cache.stats().size());
+    }
+}
@@ -0,0 +1,100 @@
+package edu.eci.arsw.blueprints.services;
+
+import edu.eci.arsw.blueprints.filters.RedundancyFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del filtrado adaptativo secuencial/paralelo.
+ * Verifican el umbral por total de puntos, el uso del pool propio y que el resultado no cambia.
+ */
+class ParallelFilterExecutorTest {
+
+    private static List<Blueprint> blueprints(int count, int pointsEach) {
+        List<Blueprint> out = new ArrayList<>(count);
+        for (int b = 0; b < count; b++) {
+            int[] xy = new int[2 * pointsEach];
+            for (int i = 0; i < xy.length; i++) xy[i] = (i / 4) * (b + 1);
+            out.add(Blueprint.ofCoordinates("john", "bp" + b, xy, pointsEach));
+        }
+        return out;
+    }
+
+    @Test
+    @DisplayName("Por debajo del umbral filtra en el hilo llamador")
+    void belowThresholdShouldRunOnCaller() {
+        try (ParallelFilterExecutor executor = new ParallelFilterExecutor(1_000, 4)) {
+            List<Blueprint> input = blueprints(4, 100);
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+
+            executor.map(input, bp -> { threads.add(Thread.currentThread().getName()); return bp; });
+
+            assertFalse(executor.shouldParallelize(input));
+            assertEquals(Set.of(Thread.currentThread().getName()), threads);
+        }
+    }
+
+    @Test
+    @DisplayName("Sobre el umbral filtra en el pool propio, no en el común")
+    void aboveThresholdShouldUseDedicatedPool() {
+        try (ParallelFilterExecutor executor = new ParallelFilterExecutor(1_000, 4)) {
+            List<Blueprint> input = blueprints(64, 100);
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+
+            executor.map(input, bp -> { threads.add(Thread.currentThread().getName()); return bp; });
+
+            assertTrue(executor.shouldParallelize(input));
+            assertFalse(threads.isEmpty());
+            assertTrue(threads.stream().allMatch(t -> t.startsWith("blueprint-filter-")), threads::toString);
+        }
+    }
+
+    @Test
+    @DisplayName("El resultado en paralelo coincide con el secuencial y conserva el orden")
+    void parallelResultShouldMatchSequential() {
+        RedundancyFilter filter = new RedundancyFilter();
+        List<Blueprint> input = blueprints(200, 500);
+        try (ParallelFilterExecutor parallel = new ParallelFilterExecutor(1, 4);
+             ParallelFilterExecutor sequential = new ParallelFilterExecutor(0, 4)) {
+            List<Blueprint> a = parallel.map(input, filter::apply);
+            List<Blueprint> b = sequential.map(input, filter::apply);
+
+            assertEquals(input.size(), a.size());
+            for (int i = 0; i < a.size(); i++) {
+                assertEquals(b.get(i), a.get(i));
+                assertEquals(b.get(i).getPoints(), a.get(i).getPoints());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Umbral 0 o un solo hilo desactivan el modo paralelo")
+    void disabledModesShouldNeverParallelize() {
+        List<Blueprint> input = blueprints(64, 1_000);
+        try (ParallelFilterExecutor off = new ParallelFilterExecutor(0, 4);
+             ParallelFilterExecutor single = new ParallelFilterExecutor(1, 1)) {
+            assertFalse(off.shouldParallelize(input));
+            assertFalse(single.shouldParallelize(input));
+        }
+    }
+
+    @Test
+    @DisplayName("Una excepción del filtro se propaga al llamador")
+    void filterExceptionShouldPropagate() {
+        try (ParallelFilterExecutor executor = new ParallelFilterExecutor(1, 4)) {
+            List<Blueprint> input = blueprints(16, 10);
+
+            assertThrows(IllegalStateException.class, () -> executor.map(input, bp -> {
+                throw new IllegalStateException("boom");
+            }));
+        }
+    }
+}